@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Encodes character sequences onto a stream through a single
+ * <code>CharsetEncoder</code> and a pair of reused buffers.
+ * <p>
+ * The characters are copied into the character buffer in bulk, encoded into
+ * the byte buffer, and the stream only receives whole byte buffers, so
+ * writing many short texts neither creates an array per text nor issues
+ * small writes. Malformed and unmappable characters are replaced, as
+ * {@link String#getBytes(Charset)} replaces them.
+ * <p>
+ * The stream is neither flushed nor closed; {@link #finish()} must be
+ * called to write the pending bytes.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class BufferedEncoder {
+
+    /** The default size of the buffers. */
+    static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+
+    /** The stream written to. */
+    private final OutputStream output;
+    /** The encoder. */
+    private final CharsetEncoder encoder;
+    /** The characters waiting to be encoded. */
+    private final CharBuffer chars;
+    /** The bytes waiting to be written. */
+    private final ByteBuffer bytes;
+
+    /**
+     * Constructs an encoder with the default buffer size.
+     *
+     * @param output  the stream to write to, not null
+     * @param charset  the encoding to use, null means platform default
+     */
+    BufferedEncoder(final OutputStream output, final Charset charset) {
+        this(output, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an encoder.
+     *
+     * @param output  the stream to write to, not null
+     * @param charset  the encoding to use, null means platform default
+     * @param bufferSize  the number of characters buffered
+     */
+    BufferedEncoder(final OutputStream output, final Charset charset, final int bufferSize) {
+        if (output == null) {
+            throw new NullPointerException("output");
+        }
+        this.output = output;
+        this.encoder = Charsets.toCharset(charset).newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(bufferSize);
+        // room for a few characters at the maximum length, whatever the buffer size
+        this.bytes = ByteBuffer.allocate((int) ((bufferSize + 4) * encoder.maxBytesPerChar()));
+    }
+
+    /**
+     * Encodes a character sequence.
+     *
+     * @param text  the characters to encode, not null
+     * @throws IOException if an I/O error occurs
+     */
+    void write(final CharSequence text) throws IOException {
+        final int length = text.length();
+        final char[] array = chars.array();
+        int index = 0;
+        while (index < length) {
+            final int position = chars.position();
+            final int count = Math.min(chars.remaining(), length - index);
+            final int end = index + count;
+            if (text instanceof String) {
+                ((String) text).getChars(index, end, array, position);
+            } else if (text instanceof StringBuilder) {
+                ((StringBuilder) text).getChars(index, end, array, position);
+            } else if (text instanceof StringBuffer) {
+                ((StringBuffer) text).getChars(index, end, array, position);
+            } else {
+                for (int i = index, j = position; i < end; i++, j++) {
+                    array[j] = text.charAt(i);
+                }
+            }
+            chars.position(position + count);
+            index = end;
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+        }
+    }
+
+    /**
+     * Encodes the remaining characters, ends the encoding, and writes the
+     * pending bytes. The stream is not flushed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+        encode(true);
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+        drain();
+    }
+
+    /**
+     * Encodes the buffered characters, writing the bytes whenever the byte
+     * buffer fills up. A trailing high surrogate is kept until the next call,
+     * unless the input ends.
+     *
+     * @param endOfInput  whether no more characters follow
+     * @throws IOException if an I/O error occurs
+     */
+    private void encode(final boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result = encoder.encode(chars, bytes, endOfInput);
+        while (result.isOverflow()) {
+            drain();
+            result = encoder.encode(chars, bytes, endOfInput);
+        }
+        chars.compact();
+    }
+
+    /**
+     * Writes the encoded bytes to the stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void drain() throws IOException {
+        if (bytes.position() > 0) {
+            output.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+
+}
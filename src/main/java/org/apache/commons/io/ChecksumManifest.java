@@ -0,0 +1,579 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A manifest of the digests of all the files of a directory tree.
+ * <p>
+ * A manifest records, for each file, its path relative to the directory, its
+ * length, its last modification time and the {@link FileHasher#digest(File)
+ * digest} of its content. The files are hashed by several threads.
+ * <p>
+ * Building a manifest from a previous one only hashes the files whose length
+ * or last modification time differ from those of the previous manifest; the
+ * digests of the other files are carried over. This makes regular integrity
+ * checks of large trees cheap, but means that a file rewritten in place
+ * keeping its length and time is not rehashed.
+ * <pre>
+ * ChecksumManifest previous = ChecksumManifest.read(manifestFile);
+ * ChecksumManifest current = ChecksumManifest.build(dir, "SHA-256", previous);
+ * current.write(manifestFile);
+ * </pre>
+ * <p>
+ * The manifest file is UTF-8 text. The first line is <code># </code>
+ * followed by the algorithm, then each file has a line with the hexadecimal
+ * digest, the length, the last modification time and the path, separated by
+ * single spaces. The lines are sorted by path, paths use '/' as separator and
+ * escape backslashes and line breaks with a backslash, so the file is
+ * reproducible and can be compared with text tools.
+ * <p>
+ * Symbolic links to directories are not followed. Instances are immutable and
+ * safe for concurrent use.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class ChecksumManifest {
+
+    /** The digest algorithm */
+    private final String algorithm;
+    /** The entries, by path */
+    private final SortedMap<String, Entry> entries;
+    /** The number of files hashed when building */
+    private final int hashedCount;
+
+    /**
+     * Constructs a manifest.
+     *
+     * @param algorithm  the digest algorithm
+     * @param entries  the entries by path, not copied
+     * @param hashedCount  the number of files hashed when building
+     */
+    private ChecksumManifest(final String algorithm, final SortedMap<String, Entry> entries, final int hashedCount) {
+        this.algorithm = algorithm;
+        this.entries = Collections.unmodifiableSortedMap(entries);
+        this.hashedCount = hashedCount;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Builds the manifest of a directory tree, hashing every file with as many
+     * threads as processors.
+     *
+     * @param directory  the directory to hash, must not be {@code null}
+     * @param algorithm  the {@link java.security.MessageDigest} algorithm, such as "SHA-256"
+     * @return the manifest
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a
+     * directory, or the algorithm is not available
+     * @throws IOException if files can't be listed or hashed, an {@link IOExceptionList}
+     * if several can't
+     */
+    public static ChecksumManifest build(final File directory, final String algorithm) throws IOException {
+        return build(directory, algorithm, null);
+    }
+
+    /**
+     * Builds the manifest of a directory tree, only hashing the files which
+     * changed since a previous manifest, with as many threads as processors.
+     *
+     * @param directory  the directory to hash, must not be {@code null}
+     * @param algorithm  the {@link java.security.MessageDigest} algorithm, such as "SHA-256"
+     * @param previous  the previous manifest of the directory, null hashes every file;
+     * ignored if it uses another algorithm
+     * @return the manifest
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a
+     * directory, or the algorithm is not available
+     * @throws IOException if files can't be listed or hashed, an {@link IOExceptionList}
+     * if several can't
+     */
+    public static ChecksumManifest build(final File directory, final String algorithm,
+            final ChecksumManifest previous) throws IOException {
+        return build(directory, algorithm, previous, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Builds the manifest of a directory tree, only hashing the files which
+     * changed since a previous manifest.
+     *
+     * @param directory  the directory to hash, must not be {@code null}
+     * @param algorithm  the {@link java.security.MessageDigest} algorithm, such as "SHA-256"
+     * @param previous  the previous manifest of the directory, null hashes every file;
+     * ignored if it uses another algorithm
+     * @param threads  the number of threads hashing files
+     * @return the manifest
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a
+     * directory, the algorithm is not available or the number of threads is not positive
+     * @throws IOException if files can't be listed or hashed, an {@link IOExceptionList}
+     * if several can't
+     */
+    public static ChecksumManifest build(final File directory, final String algorithm,
+            final ChecksumManifest previous, final int threads) throws IOException {
+        FileUtils.checkDirectory(directory);
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        final FileHasher hasher = new FileHasher(algorithm, FileHasher.DEFAULT_CHUNK_SIZE, 1);
+        final Map<String, Entry> reusable = previous != null && previous.algorithm.equals(algorithm)
+                ? previous.entries : Collections.<String, Entry>emptyMap();
+
+        final SortedMap<String, Entry> entries = new TreeMap<String, Entry>();
+        final List<Pending> pending = new ArrayList<Pending>();
+        collect(directory, "", hasher, reusable, entries, pending);
+
+        final List<IOException> failures = new ArrayList<IOException>();
+        if (threads == 1 || pending.size() < 2) {
+            for (final Pending file : pending) {
+                try {
+                    entries.put(file.path, file.call());
+                } catch (final IOException ex) {
+                    failures.add(ex);
+                }
+            }
+        } else {
+            hashAll(pending, Math.min(threads, pending.size()), entries, failures);
+        }
+        if (failures.size() == 1) {
+            throw failures.get(0);
+        }
+        if (!failures.isEmpty()) {
+            throw new IOExceptionList("Unable to hash files of " + directory, failures);
+        }
+        return new ChecksumManifest(algorithm, entries, pending.size());
+    }
+
+    /**
+     * Reads a manifest file.
+     *
+     * @param file  the manifest file, must not be {@code null}
+     * @return the manifest
+     * @throws IOException if the file can't be read or is not a manifest
+     */
+    public static ChecksumManifest read(final File file) throws IOException {
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(FileUtils.openInputStream(file), Charsets.UTF_8);
+            final ChecksumManifest manifest = read(reader);
+            reader.close();
+            return manifest;
+        } finally {
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Reads a manifest, leaving the reader open.
+     *
+     * @param reader  the manifest text, must not be {@code null}
+     * @return the manifest
+     * @throws IOException if the text can't be read or is not a manifest
+     */
+    public static ChecksumManifest read(final Reader reader) throws IOException {
+        final BufferedReader in = IOUtils.toBufferedReader(reader);
+        String line = in.readLine();
+        if (line == null || !line.startsWith("# ") || line.length() == 2) {
+            throw new IOException("Not a checksum manifest, the first line must be '# <algorithm>'");
+        }
+        final String algorithm = line.substring(2);
+        final SortedMap<String, Entry> entries = new TreeMap<String, Entry>();
+        int lineNumber = 1;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            final int end1 = line.indexOf(' ');
+            final int end2 = end1 < 0 ? -1 : line.indexOf(' ', end1 + 1);
+            final int end3 = end2 < 0 ? -1 : line.indexOf(' ', end2 + 1);
+            if (end3 < 0) {
+                throw new IOException("Invalid checksum manifest line " + lineNumber + ": " + line);
+            }
+            try {
+                final Entry entry = new Entry(unescape(line.substring(end3 + 1)),
+                        Long.parseLong(line.substring(end1 + 1, end2)),
+                        Long.parseLong(line.substring(end2 + 1, end3)),
+                        line.substring(0, end1));
+                entries.put(entry.path, entry);
+            } catch (final NumberFormatException ex) {
+                throw new IOException("Invalid checksum manifest line " + lineNumber + ": " + line);
+            }
+        }
+        return new ChecksumManifest(algorithm, entries, 0);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes this manifest to a file, creating the parent directories if needed.
+     *
+     * @param file  the manifest file, must not be {@code null}
+     * @throws IOException if the file can't be written
+     */
+    public void write(final File file) throws IOException {
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(FileUtils.openOutputStream(file), Charsets.UTF_8);
+            write(writer);
+            writer.close();
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+    }
+
+    /**
+     * Writes this manifest, leaving the writer open.
+     *
+     * @param writer  the writer to write to, must not be {@code null}
+     * @throws IOException if the text can't be written
+     */
+    public void write(final Writer writer) throws IOException {
+        final BufferedWriter out = new BufferedWriter(writer);
+        out.write("# ");
+        out.write(algorithm);
+        out.write('\n');
+        for (final Entry entry : entries.values()) {
+            out.write(entry.digest);
+            out.write(' ');
+            out.write(Long.toString(entry.length));
+            out.write(' ');
+            out.write(Long.toString(entry.lastModified));
+            out.write(' ');
+            out.write(escape(entry.path));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the digest algorithm.
+     *
+     * @return the {@link java.security.MessageDigest} algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the entries of the files, sorted by path.
+     *
+     * @return the entries, unmodifiable
+     */
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * Returns the entry of a file.
+     *
+     * @param path  the path of the file relative to the directory, using '/' as separator
+     * @return the entry, null if the file is not in the manifest
+     */
+    public Entry getEntry(final String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Returns the number of files hashed when building this manifest, the
+     * others having been carried over from the previous manifest.
+     *
+     * @return the number of files hashed, 0 if the manifest was read
+     */
+    public int getHashedCount() {
+        return hashedCount;
+    }
+
+    /**
+     * Provide a String representation of this manifest.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + algorithm + "," + entries.size() + " files]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Walks a directory, carrying over the unchanged entries and listing the
+     * files to hash.
+     *
+     * @param directory  the directory to walk
+     * @param prefix  the relative path of the directory, ending with '/' unless empty
+     * @param hasher  the hasher
+     * @param reusable  the previous entries by path
+     * @param entries  receives the carried over entries
+     * @param pending  receives the files to hash
+     * @throws IOException if a directory can't be listed
+     */
+    private static void collect(final File directory, final String prefix, final FileHasher hasher,
+            final Map<String, Entry> reusable, final Map<String, Entry> entries, final List<Pending> pending)
+            throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Failed to list contents of " + directory);
+        }
+        for (final File file : files) {
+            final String path = prefix + file.getName();
+            if (file.isDirectory()) {
+                if (!FileUtils.isSymlink(file)) {
+                    collect(file, path + '/', hasher, reusable, entries, pending);
+                }
+                continue;
+            }
+            final long length = file.length();
+            final long lastModified = file.lastModified();
+            final Entry previous = reusable.get(path);
+            if (previous != null && previous.length == length && previous.lastModified == lastModified) {
+                entries.put(path, previous);
+            } else {
+                pending.add(new Pending(file, path, length, lastModified, hasher));
+            }
+        }
+    }
+
+    /**
+     * Hashes files with a pool of threads.
+     *
+     * @param pending  the files to hash
+     * @param threads  the number of threads
+     * @param entries  receives the entries of the hashed files
+     * @param failures  receives the failures
+     * @throws InterruptedIOException if interrupted
+     */
+    private static void hashAll(final List<Pending> pending, final int threads,
+            final Map<String, Entry> entries, final List<IOException> failures) throws InterruptedIOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Entry>> futures = new ArrayList<Future<Entry>>(pending.size());
+            for (final Pending file : pending) {
+                futures.add(executor.submit(file));
+            }
+            for (final Future<Entry> future : futures) {
+                try {
+                    final Entry entry = future.get();
+                    entries.put(entry.path, entry);
+                } catch (final ExecutionException ex) {
+                    final Throwable cause = ex.getCause();
+                    if (cause instanceof IOException) {
+                        failures.add((IOException) cause);
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw (RuntimeException) cause;
+                    }
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Escapes backslashes and line breaks in a path.
+     *
+     * @param path  the path
+     * @return the escaped path
+     */
+    private static String escape(final String path) {
+        if (path.indexOf('\\') < 0 && path.indexOf('\n') < 0 && path.indexOf('\r') < 0) {
+            return path;
+        }
+        final StringBuilder buffer = new StringBuilder(path.length() + 8);
+        for (int i = 0; i < path.length(); i++) {
+            final char ch = path.charAt(i);
+            if (ch == '\\') {
+                buffer.append("\\\\");
+            } else if (ch == '\n') {
+                buffer.append("\\n");
+            } else if (ch == '\r') {
+                buffer.append("\\r");
+            } else {
+                buffer.append(ch);
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Reverts {@link #escape(String)}.
+     *
+     * @param path  the escaped path
+     * @return the path
+     */
+    private static String unescape(final String path) {
+        if (path.indexOf('\\') < 0) {
+            return path;
+        }
+        final StringBuilder buffer = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            final char ch = path.charAt(i);
+            if (ch == '\\' && i + 1 < path.length()) {
+                final char next = path.charAt(++i);
+                buffer.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                buffer.append(ch);
+            }
+        }
+        return buffer.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The manifest entry of a file.
+     */
+    public static final class Entry {
+
+        /** The relative path */
+        private final String path;
+        /** The file length */
+        private final long length;
+        /** The last modification time */
+        private final long lastModified;
+        /** The hexadecimal digest */
+        private final String digest;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param path  the relative path
+         * @param length  the file length
+         * @param lastModified  the last modification time
+         * @param digest  the hexadecimal digest
+         */
+        Entry(final String path, final long length, final long lastModified, final String digest) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+
+        /**
+         * Returns the path of the file relative to the directory.
+         *
+         * @return the path, using '/' as separator
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the length of the file when it was hashed.
+         *
+         * @return the length in bytes
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Returns the last modification time of the file when it was hashed.
+         *
+         * @return the time in milliseconds since the epoch
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the digest of the file content.
+         *
+         * @return the digest as lower case hexadecimal digits
+         */
+        public String getDigest() {
+            return digest;
+        }
+
+        /**
+         * Provide a String representation of this entry.
+         *
+         * @return a String representation
+         */
+        @Override
+        public String toString() {
+            return digest + " " + path;
+        }
+    }
+
+    /**
+     * A file to hash.
+     */
+    private static final class Pending implements Callable<Entry> {
+
+        /** The file */
+        private final File file;
+        /** The relative path */
+        private final String path;
+        /** The length when listed */
+        private final long length;
+        /** The last modification time when listed */
+        private final long lastModified;
+        /** The hasher */
+        private final FileHasher hasher;
+
+        /**
+         * Constructs a file to hash.
+         *
+         * @param file  the file
+         * @param path  the relative path
+         * @param length  the length when listed
+         * @param lastModified  the last modification time when listed
+         * @param hasher  the hasher
+         */
+        Pending(final File file, final String path, final long length, final long lastModified,
+                final FileHasher hasher) {
+            this.file = file;
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hasher = hasher;
+        }
+
+        /**
+         * Hashes the file.
+         *
+         * @return the entry of the file
+         * @throws IOException if the file can't be read
+         */
+        public Entry call() throws IOException {
+            return new Entry(path, length, lastModified, FileHasher.toHex(hasher.digest(file)));
+        }
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies directory trees like {@link FileUtils#copyDirectory(File, File, FileFilter)},
+ * without copying the files whose content is already available.
+ * <p>
+ * Each file is handled as follows:
+ * <ol>
+ * <li>If the destination file has the length and last modification time of
+ * the source file, or the same length and the same digest, it is left as
+ * is.</li>
+ * <li>Otherwise, if a file of the <em>link directory</em> has the same length
+ * and the same digest, the destination is made a hard link to that file. The
+ * link directory is typically the previous version of a mirrored tree, so files
+ * which did not change between versions share their storage, wherever they
+ * moved in the tree.</li>
+ * <li>Otherwise, the file is copied, preserving its last modification time.</li>
+ * </ol>
+ * Digests are only computed for files of equal lengths. A destination file
+ * which has to be replaced is deleted first, so that the content of files it
+ * may be hard linked to is never modified. Hard links share the last
+ * modification time of the linked file, which is therefore not updated; such
+ * files are compared by digest on the next copy. Hard links require Java 7 and
+ * a file system supporting them, else the files are copied.
+ * <p>
+ * As with <code>copyDirectory</code>, destination files which are not in the
+ * source are kept, and directories keep the last modification time of their
+ * source. The link directory must not overlap the destination.
+ * <pre>
+ * DeduplicatingCopier copier = new DeduplicatingCopier(new File("mirror/1.0"));
+ * copier.copyDirectory(new File("release/1.1"), new File("mirror/1.1"));
+ * </pre>
+ * <p>
+ * Instances count the files they copy, link and skip, and are not thread-safe.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class DeduplicatingCopier {
+
+    /** The directory of files to link to, may be null */
+    private final File linkDirectory;
+    /** The filter of the files and directories to copy, may be null */
+    private final FileFilter filter;
+    /** The hasher comparing contents */
+    private final FileHasher hasher;
+    /** The files of the link directory by length, during a copy */
+    private Map<Long, List<File>> linkCandidates;
+    /** The digests of the files of the link directory, during a copy */
+    private Map<File, String> linkDigests;
+    /** The number of files copied */
+    private int copiedCount;
+    /** The number of files linked */
+    private int linkedCount;
+    /** The number of files left as is */
+    private int skippedCount;
+
+    /**
+     * Constructs a copier skipping unchanged files, without linking.
+     */
+    public DeduplicatingCopier() {
+        this(null);
+    }
+
+    /**
+     * Constructs a copier skipping unchanged files and linking to the files
+     * of a directory, comparing contents with SHA-256 digests.
+     *
+     * @param linkDirectory  the directory of the files to link to, null to never link
+     */
+    public DeduplicatingCopier(final File linkDirectory) {
+        this(linkDirectory, null, "SHA-256");
+    }
+
+    /**
+     * Constructs a copier.
+     *
+     * @param linkDirectory  the directory of the files to link to, null to never link
+     * @param filter  the filter of the files and directories to copy, null means all
+     * @param algorithm  the {@link java.security.MessageDigest} algorithm comparing contents
+     * @throws IllegalArgumentException if the algorithm is not available
+     */
+    public DeduplicatingCopier(final File linkDirectory, final FileFilter filter, final String algorithm) {
+        this.linkDirectory = linkDirectory;
+        this.filter = filter;
+        this.hasher = new FileHasher(algorithm, FileHasher.DEFAULT_CHUNK_SIZE, 1);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Copies a directory tree.
+     *
+     * @param srcDir  an existing directory to copy, must not be {@code null}
+     * @param destDir  the destination directory, must not be {@code null}
+     * @throws NullPointerException if source or destination is {@code null}
+     * @throws IOException if source or destination is invalid
+     * @throws IOException if an IO error occurs during copying
+     */
+    public void copyDirectory(final File srcDir, final File destDir) throws IOException {
+        if (srcDir == null) {
+            throw new NullPointerException("Source must not be null");
+        }
+        if (destDir == null) {
+            throw new NullPointerException("Destination must not be null");
+        }
+        if (!srcDir.isDirectory()) {
+            throw new IOException("Source '" + srcDir + "' does not exist or is not a directory");
+        }
+        final String destPath = destDir.getCanonicalPath();
+        if (srcDir.getCanonicalPath().equals(destPath)) {
+            throw new IOException("Source '" + srcDir + "' and destination '" + destDir + "' are the same");
+        }
+        linkCandidates = new HashMap<Long, List<File>>();
+        linkDigests = new HashMap<File, String>();
+        try {
+            if (linkDirectory != null && linkDirectory.isDirectory()) {
+                index(linkDirectory);
+            }
+            copy(srcDir, destDir, destPath);
+        } finally {
+            linkCandidates = null;
+            linkDigests = null;
+        }
+    }
+
+    /**
+     * Returns the number of files copied.
+     *
+     * @return the number of files copied since this copier was created
+     */
+    public int getCopiedCount() {
+        return copiedCount;
+    }
+
+    /**
+     * Returns the number of files linked to files of the link directory.
+     *
+     * @return the number of files linked since this copier was created
+     */
+    public int getLinkedCount() {
+        return linkedCount;
+    }
+
+    /**
+     * Returns the number of files whose destination was left as is.
+     *
+     * @return the number of files skipped since this copier was created
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Provide a String representation of this copier.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + linkDirectory + "," + hasher.getAlgorithm() + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Indexes the files of the link directory by length.
+     *
+     * @param directory  the directory to index
+     * @throws IOException if symbolic links can't be detected
+     */
+    private void index(final File directory) throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                if (!FileUtils.isSymlink(file)) {
+                    index(file);
+                }
+            } else {
+                final long length = file.length();
+                if (length > 0) {
+                    final Long key = Long.valueOf(length);
+                    List<File> candidates = linkCandidates.get(key);
+                    if (candidates == null) {
+                        candidates = new ArrayList<File>(1);
+                        linkCandidates.put(key, candidates);
+                    }
+                    candidates.add(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a directory.
+     *
+     * @param srcDir  the source directory
+     * @param destDir  the destination directory
+     * @param excludedPath  the canonical path of the top destination directory, not copied into itself
+     * @throws IOException if an IO error occurs during copying
+     */
+    private void copy(final File srcDir, final File destDir, final String excludedPath) throws IOException {
+        final File[] srcFiles = filter == null ? srcDir.listFiles() : srcDir.listFiles(filter);
+        if (srcFiles == null) {
+            throw new IOException("Failed to list contents of " + srcDir);
+        }
+        if (destDir.exists()) {
+            if (!destDir.isDirectory()) {
+                throw new IOException("Destination '" + destDir + "' exists but is not a directory");
+            }
+        } else if (!destDir.mkdirs() && !destDir.isDirectory()) {
+            throw new IOException("Destination '" + destDir + "' directory cannot be created");
+        }
+        for (final File srcFile : srcFiles) {
+            final File destFile = new File(destDir, srcFile.getName());
+            if (srcFile.isDirectory()) {
+                if (!srcFile.getCanonicalPath().equals(excludedPath)) {
+                    copy(srcFile, destFile, excludedPath);
+                }
+            } else {
+                copyFile(srcFile, destFile);
+            }
+        }
+        // Do this last, as the above has probably affected directory metadata
+        destDir.setLastModified(srcDir.lastModified());
+    }
+
+    /**
+     * Copies a file, unless its content is already available.
+     *
+     * @param srcFile  the source file
+     * @param destFile  the destination file
+     * @throws IOException if an IO error occurs during copying
+     */
+    private void copyFile(final File srcFile, final File destFile) throws IOException {
+        final long length = srcFile.length();
+        String srcDigest = null;
+        final boolean exists = destFile.exists();
+        if (exists) {
+            if (destFile.isDirectory()) {
+                throw new IOException("Destination '" + destFile + "' exists but is a directory");
+            }
+            if (destFile.length() == length) {
+                if (destFile.lastModified() == srcFile.lastModified()) {
+                    skippedCount++;
+                    return;
+                }
+                srcDigest = digest(srcFile);
+                if (srcDigest.equals(digest(destFile))) {
+                    skippedCount++;
+                    return;
+                }
+            }
+        }
+        final List<File> candidates = linkCandidates.get(Long.valueOf(length));
+        if (candidates != null) {
+            if (srcDigest == null) {
+                srcDigest = digest(srcFile);
+            }
+            for (final File candidate : candidates) {
+                String candidateDigest = linkDigests.get(candidate);
+                if (candidateDigest == null) {
+                    candidateDigest = digest(candidate);
+                    linkDigests.put(candidate, candidateDigest);
+                }
+                if (candidateDigest.equals(srcDigest)) {
+                    if (exists) {
+                        FileUtils.forceDelete(destFile);
+                    }
+                    if (Java7Support.isAtLeastJava7() && Java7Support.createHardLink(destFile, candidate)) {
+                        linkedCount++;
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+        // never write through a hard link
+        if (destFile.exists()) {
+            FileUtils.forceDelete(destFile);
+        }
+        FileUtils.copyFile(srcFile, destFile, true);
+        copiedCount++;
+    }
+
+    /**
+     * Computes the digest of a file.
+     *
+     * @param file  the file
+     * @return the hexadecimal digest
+     * @throws IOException if the file can't be read
+     */
+    private String digest(final File file) throws IOException {
+        return FileHasher.toHex(hasher.digest(file));
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the sizes of directory trees between calls, so that the size of a
+ * tree can be recomputed without listing its unchanged directories again.
+ * <p>
+ * For each directory the cache keeps its last modification time, the total
+ * length of the files it directly contains and its subdirectories. When the
+ * size of a tree is requested again, the directories whose last modification
+ * time has not changed are not listed: their cached file total is used and
+ * their subdirectories are checked in turn. Checking an unchanged tree thus
+ * costs one file system access per directory instead of one per file.
+ * <pre>
+ * DirectorySizeCache cache = new DirectorySizeCache();
+ * while (running) {
+ *     long used = cache.sizeOfDirectory(new File("/data/users/alice"));
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * <b>Caveat:</b> the last modification time of a directory changes when
+ * entries are added to, removed from or renamed in it, but not when an existing
+ * file is rewritten. A file growing or shrinking in place is therefore not seen
+ * until an entry of its directory changes or the cache is cleared. Changes made
+ * within the last modification time resolution of the file system may also be
+ * missed. Use this class where such staleness is acceptable, such as periodic
+ * quota checks, and call {@link #clear()} to force a full walk.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @version $Id$
+ * @since 2.5
+ * @see FileUtils#sizeOfDirectory(File, int)
+ */
+public class DirectorySizeCache {
+
+    /** The cached directory entries, by absolute directory */
+    private final Map<File, Entry> entries = new ConcurrentHashMap<File, Entry>();
+
+    /**
+     * Constructs an empty cache.
+     */
+    public DirectorySizeCache() {
+        super();
+    }
+
+    /**
+     * Counts the size of a directory recursively (sum of the length of all files),
+     * reusing the cached sizes of unchanged directories.
+     * <p>
+     * As {@link FileUtils#sizeOfDirectory(File)}, symbolic links are not
+     * followed and security restricted directories count as empty.
+     *
+     * @param directory directory to inspect, must not be {@code null}
+     * @return size of directory in bytes
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a directory
+     */
+    public long sizeOfDirectory(final File directory) {
+        return sizeOfDirectory(directory, 1);
+    }
+
+    /**
+     * Counts the size of a directory recursively (sum of the length of all files)
+     * using several threads, reusing the cached sizes of unchanged directories.
+     *
+     * @param directory directory to inspect, must not be {@code null}
+     * @param threads the maximum number of threads walking the directory tree
+     * @return size of directory in bytes
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a
+     * directory, or the number of threads is not positive
+     */
+    public long sizeOfDirectory(final File directory, final int threads) {
+        FileUtils.checkDirectory(directory);
+        return new DirectorySizeWalker(this, threads).sizeOf(directory.getAbsoluteFile());
+    }
+
+    /**
+     * Returns the number of directories cached.
+     *
+     * @return the number of directories cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Forgets all the cached directories.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Provide a String representation of this cache.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[directories=" + entries.size() + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the cached entry of a directory if it is still current.
+     *
+     * @param directory  the absolute directory
+     * @param lastModified  the current last modification time of the directory
+     * @return the entry, null if none is cached for this modification time
+     */
+    Entry get(final File directory, final long lastModified) {
+        final Entry entry = entries.get(directory);
+        return entry != null && entry.lastModified == lastModified ? entry : null;
+    }
+
+    /**
+     * Caches the entry of a directory, forgetting the trees of the subdirectories
+     * which were removed since it was last cached.
+     *
+     * @param directory  the absolute directory
+     * @param entry  the new entry
+     */
+    void put(final File directory, final Entry entry) {
+        final Entry previous = entries.put(directory, entry);
+        if (previous != null && previous.subdirectories.length > 0) {
+            final Set<File> current = new HashSet<File>(Arrays.asList(entry.subdirectories));
+            for (final File subdirectory : previous.subdirectories) {
+                if (!current.contains(subdirectory)) {
+                    remove(subdirectory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets a cached directory tree.
+     *
+     * @param directory  the absolute directory
+     */
+    private void remove(final File directory) {
+        final Entry entry = entries.remove(directory);
+        if (entry != null) {
+            for (final File subdirectory : entry.subdirectories) {
+                remove(subdirectory);
+            }
+        }
+    }
+
+    /**
+     * The cached state of one directory.
+     */
+    static final class Entry {
+        /** The last modification time of the directory when listed */
+        final long lastModified;
+        /** The total length of the files directly in the directory */
+        final long filesSize;
+        /** The subdirectories, excluding symbolic links */
+        final File[] subdirectories;
+
+        Entry(final long lastModified, final long filesSize, final File[] subdirectories) {
+            this.lastModified = lastModified;
+            this.filesSize = filesSize;
+            this.subdirectories = subdirectories;
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sums the lengths of the files of a directory tree, optionally with several
+ * threads and a {@link DirectorySizeCache}.
+ * <p>
+ * Each directory is a separate task: it adds the total length of its files and
+ * queues its subdirectories, so threads never wait for one another and any idle
+ * thread can take the next directory.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class DirectorySizeWalker {
+
+    /** The cache to use and update, may be null */
+    private final DirectorySizeCache cache;
+    /** The maximum number of threads */
+    private final int threads;
+    /** The running total */
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Creates a walker.
+     *
+     * @param cache  the cache to use and update, may be null
+     * @param threads  the maximum number of threads
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    DirectorySizeWalker(final DirectorySizeCache cache, final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.cache = cache;
+        this.threads = threads;
+    }
+
+    /**
+     * Sums the lengths of the files of a directory tree.
+     *
+     * @param directory  the directory, must exist
+     * @return the total length of the files
+     */
+    long sizeOf(final File directory) {
+        if (threads == 1) {
+            final List<File> pending = new ArrayList<File>();
+            pending.add(directory);
+            while (!pending.isEmpty()) {
+                for (final File subdirectory : visit(pending.remove(pending.size() - 1))) {
+                    pending.add(subdirectory);
+                }
+            }
+            return size.get();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final AtomicInteger pending = new AtomicInteger(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final RuntimeException[] failure = new RuntimeException[1];
+        try {
+            submit(executor, directory, pending, done, failure);
+            done.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while counting the size of " + directory, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return size.get();
+    }
+
+    /**
+     * Queues a directory for a thread to visit.
+     *
+     * @param executor  the executor
+     * @param directory  the directory
+     * @param pending  the number of directories queued and not yet visited
+     * @param done  released when all the directories are visited or one failed
+     * @param failure  holds the first failure
+     */
+    private void submit(final ExecutorService executor, final File directory, final AtomicInteger pending,
+            final CountDownLatch done, final RuntimeException[] failure) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    final File[] subdirectories = visit(directory);
+                    pending.addAndGet(subdirectories.length);
+                    for (final File subdirectory : subdirectories) {
+                        submit(executor, subdirectory, pending, done, failure);
+                    }
+                } catch (final RuntimeException ex) {
+                    synchronized (failure) {
+                        if (failure[0] == null) {
+                            failure[0] = ex;
+                        }
+                    }
+                    done.countDown();
+                    return;
+                }
+                if (pending.decrementAndGet() == 0) {
+                    done.countDown();
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the length of the files directly in a directory to the total.
+     *
+     * @param directory  the directory
+     * @return the subdirectories to visit, excluding symbolic links
+     */
+    private File[] visit(final File directory) {
+        final long lastModified = cache == null ? 0L : directory.lastModified();
+        if (lastModified != 0L) {
+            final DirectorySizeCache.Entry entry = cache.get(directory, lastModified);
+            if (entry != null) {
+                size.addAndGet(entry.filesSize);
+                return entry.subdirectories;
+            }
+        }
+
+        final File[] files = directory.listFiles();
+        if (files == null) {  // null if security restricted
+            return new File[0];
+        }
+        long filesSize = 0;
+        final List<File> subdirectories = new ArrayList<File>();
+        for (final File file : files) {
+            try {
+                if (!FileUtils.isSymlink(file)) {
+                    final FileAttributes attributes = new FileAttributes(file);
+                    if (attributes.isDirectory()) {
+                        subdirectories.add(file);
+                    } else {
+                        filesSize += attributes.length(); // will be 0 if file does not exist
+                    }
+                }
+            } catch (final IOException ioe) {
+                // Ignore exceptions caught when asking if a File is a symlink.
+            }
+        }
+        final File[] result = subdirectories.toArray(new File[subdirectories.size()]);
+        if (lastModified != 0L) {
+            cache.put(directory, new DirectorySizeCache.Entry(lastModified, filesSize, result));
+        }
+        size.addAndGet(filesSize);
+        return result;
+    }
+
+}
@@ -22,6 +22,11 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Utility code for dealing with different endian systems.
@@ -33,6 +38,11 @@ import java.io.OutputStream;
  * (eg Motorola), the situation is reversed.
  * This class helps you solve this incompatibility.
  * <p>
+ * Besides the single value methods, which always swap, arrays of primitive
+ * values can be read and written in bulk in either byte order. These go
+ * through blocks of bytes viewed as typed buffers, rather than a stream
+ * call per byte.
+ * <p>
  * Origin of code: Excalibur
  *
  * @version $Id$
@@ -40,6 +50,9 @@ import java.io.OutputStream;
  */
 public class EndianUtils {
 
+    /** The size of the blocks used by the bulk methods, a multiple of every element size. */
+    private static final int BLOCK_SIZE = 1024 * 8;
+
     /**
      * Instances should NOT be constructed in standard programming.
      */
@@ -462,6 +475,525 @@ public class EndianUtils {
         return Double.longBitsToDouble( readSwappedLong( input ) );
     }
 
+    // ========================================== Bulk routines
+
+    /**
+     * Reads {@code length} "short" values from an InputStream into an array,
+     * in the specified byte order.
+     * @param input source InputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the stream ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readShorts(final InputStream input, final ByteOrder order, final short[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "short" values of an array to an OutputStream,
+     * in the specified byte order.
+     * @param output target OutputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeShorts(final OutputStream output, final ByteOrder order, final short[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "short" values from a channel into an array,
+     * in the specified byte order.
+     * @param input source channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the channel ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readShorts(final ReadableByteChannel input, final ByteOrder order, final short[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "short" values of an array to a channel,
+     * in the specified byte order.
+     * @param output target channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeShorts(final WritableByteChannel output, final ByteOrder order, final short[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "int" values from an InputStream into an array,
+     * in the specified byte order.
+     * @param input source InputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the stream ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readIntegers(final InputStream input, final ByteOrder order, final int[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "int" values of an array to an OutputStream,
+     * in the specified byte order.
+     * @param output target OutputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeIntegers(final OutputStream output, final ByteOrder order, final int[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "int" values from a channel into an array,
+     * in the specified byte order.
+     * @param input source channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the channel ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readIntegers(final ReadableByteChannel input, final ByteOrder order, final int[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "int" values of an array to a channel,
+     * in the specified byte order.
+     * @param output target channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeIntegers(final WritableByteChannel output, final ByteOrder order, final int[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "long" values from an InputStream into an array,
+     * in the specified byte order.
+     * @param input source InputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the stream ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readLongs(final InputStream input, final ByteOrder order, final long[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "long" values of an array to an OutputStream,
+     * in the specified byte order.
+     * @param output target OutputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeLongs(final OutputStream output, final ByteOrder order, final long[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "long" values from a channel into an array,
+     * in the specified byte order.
+     * @param input source channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the channel ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readLongs(final ReadableByteChannel input, final ByteOrder order, final long[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "long" values of an array to a channel,
+     * in the specified byte order.
+     * @param output target channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeLongs(final WritableByteChannel output, final ByteOrder order, final long[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "float" values from an InputStream into an array,
+     * in the specified byte order.
+     * @param input source InputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the stream ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readFloats(final InputStream input, final ByteOrder order, final float[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "float" values of an array to an OutputStream,
+     * in the specified byte order.
+     * @param output target OutputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeFloats(final OutputStream output, final ByteOrder order, final float[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "float" values from a channel into an array,
+     * in the specified byte order.
+     * @param input source channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the channel ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readFloats(final ReadableByteChannel input, final ByteOrder order, final float[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "float" values of an array to a channel,
+     * in the specified byte order.
+     * @param output target channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeFloats(final WritableByteChannel output, final ByteOrder order, final float[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "double" values from an InputStream into an array,
+     * in the specified byte order.
+     * @param input source InputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the stream ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readDoubles(final InputStream input, final ByteOrder order, final double[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "double" values of an array to an OutputStream,
+     * in the specified byte order.
+     * @param output target OutputStream
+     * @param order the byte order of the values in the stream
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeDoubles(final OutputStream output, final ByteOrder order, final double[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads {@code length} "double" values from a channel into an array,
+     * in the specified byte order.
+     * @param input source channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to read into
+     * @param offset the index of the first value to read into
+     * @param length the number of values to read
+     * @throws IOException in case of an I/O problem
+     * @throws EOFException if the channel ends before all values are read
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void readDoubles(final ReadableByteChannel input, final ByteOrder order, final double[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        readArray(input, order, data, offset, length);
+    }
+
+    /**
+     * Writes {@code length} "double" values of an array to a channel,
+     * in the specified byte order.
+     * @param output target channel
+     * @param order the byte order of the values in the channel
+     * @param data the array to write from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     * @throws IOException in case of an I/O problem
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public static void writeDoubles(final WritableByteChannel output, final ByteOrder order, final double[] data,
+            final int offset, final int length)
+        throws IOException
+    {
+        writeArray(output, order, data, offset, length);
+    }
+
+    /**
+     * Reads values from a stream into a primitive array, a block at a time.
+     * @param input the stream
+     * @param order the byte order of the values
+     * @param data the primitive array
+     * @param offset the index of the first value
+     * @param length the number of values
+     * @throws IOException in case of an I/O problem
+     */
+    private static void readArray(final Object input, final ByteOrder order, final Object data,
+            final int offset, final int length)
+        throws IOException
+    {
+        final int size = elementSize(data, offset, length);
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.min(BLOCK_SIZE / size, length) * size).order(order);
+        int done = 0;
+        while (done < length) {
+            final int count = Math.min(length - done, buffer.capacity() / size);
+            buffer.clear();
+            if (input instanceof InputStream) {
+                IOUtils.readFully((InputStream) input, buffer.array(), 0, count * size);
+            } else {
+                buffer.limit(count * size);
+                IOUtils.readFully((ReadableByteChannel) input, buffer);
+            }
+            buffer.clear();
+            transfer(buffer, data, offset + done, count, true);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes values of a primitive array to a stream, a block at a time.
+     * @param output the stream
+     * @param order the byte order of the values
+     * @param data the primitive array
+     * @param offset the index of the first value
+     * @param length the number of values
+     * @throws IOException in case of an I/O problem
+     */
+    private static void writeArray(final Object output, final ByteOrder order, final Object data,
+            final int offset, final int length)
+        throws IOException
+    {
+        final int size = elementSize(data, offset, length);
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.min(BLOCK_SIZE / size, length) * size).order(order);
+        int done = 0;
+        while (done < length) {
+            final int count = Math.min(length - done, buffer.capacity() / size);
+            buffer.clear();
+            transfer(buffer, data, offset + done, count, false);
+            if (output instanceof OutputStream) {
+                ((OutputStream) output).write(buffer.array(), 0, count * size);
+            } else {
+                buffer.limit(count * size);
+                while (buffer.hasRemaining()) {
+                    ((WritableByteChannel) output).write(buffer);
+                }
+            }
+            done += count;
+        }
+    }
+
+    /**
+     * Checks the bounds of a primitive array access and returns the size of its elements.
+     * @param data the primitive array
+     * @param offset the index of the first value
+     * @param length the number of values
+     * @return the number of bytes of each value
+     */
+    private static int elementSize(final Object data, final int offset, final int length) {
+        final int arrayLength = Array.getLength(data);
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " and length " + length
+                    + " out of bounds for array of length " + arrayLength);
+        }
+        if (data instanceof short[]) {
+            return 2;
+        } else if (data instanceof int[] || data instanceof float[]) {
+            return 4;
+        }
+        return 8;
+    }
+
+    /**
+     * Copies values between a byte buffer, viewed from its start, and a primitive array.
+     * @param buffer the byte buffer, in the byte order of the values
+     * @param data the primitive array
+     * @param offset the index of the first value in the array
+     * @param count the number of values
+     * @param get true to copy from the buffer into the array, false for the opposite
+     */
+    private static void transfer(final ByteBuffer buffer, final Object data, final int offset, final int count,
+            final boolean get) {
+        if (data instanceof short[]) {
+            if (get) {
+                buffer.asShortBuffer().get((short[]) data, offset, count);
+            } else {
+                buffer.asShortBuffer().put((short[]) data, offset, count);
+            }
+        } else if (data instanceof int[]) {
+            if (get) {
+                buffer.asIntBuffer().get((int[]) data, offset, count);
+            } else {
+                buffer.asIntBuffer().put((int[]) data, offset, count);
+            }
+        } else if (data instanceof long[]) {
+            if (get) {
+                buffer.asLongBuffer().get((long[]) data, offset, count);
+            } else {
+                buffer.asLongBuffer().put((long[]) data, offset, count);
+            }
+        } else if (data instanceof float[]) {
+            if (get) {
+                buffer.asFloatBuffer().get((float[]) data, offset, count);
+            } else {
+                buffer.asFloatBuffer().put((float[]) data, offset, count);
+            }
+        } else {
+            if (get) {
+                buffer.asDoubleBuffer().get((double[]) data, offset, count);
+            } else {
+                buffer.asDoubleBuffer().put((double[]) data, offset, count);
+            }
+        }
+    }
+
     /**
      * Reads the next byte from the input stream.
      * @param input  the stream
@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.output.StringBuilderWriter;
+
+/**
+ * Decodes US-ASCII, ISO-8859-1 and UTF-8 bytes straight into a character
+ * array, without going through a <code>CharsetDecoder</code> and intermediate
+ * buffers.
+ * <p>
+ * Runs of ASCII bytes are converted by a tight loop, and well-formed UTF-8
+ * sequences are decoded directly. From the first malformed UTF-8 sequence on,
+ * the remaining bytes are decoded by the JDK, so malformed input is replaced
+ * exactly as an <code>InputStreamReader</code> replaces it. Decoding these
+ * encodings never produces more characters than bytes, which sizes the
+ * character array.
+ * <p>
+ * Streams are read into a single array only when decoded into a single
+ * String, up to {@link #MAX_ARRAY_SIZE} bytes. Lines are decoded one at a
+ * time from a buffer holding the current line.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class FastDecoder {
+
+    /** The default size of the buffers reading streams. */
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
+    /** The largest size of the buffers reading streams taken from available bytes. */
+    private static final int MAX_AVAILABLE_SIZE = 64 * 1024 * 1024;
+    /** The largest stream read into a single array; longer streams are decoded through a reader. */
+    static final int MAX_ARRAY_SIZE = 256 * 1024 * 1024;
+    /** The size of the buffers reading lines. */
+    private static final int LINE_BUFFER_SIZE = 1024 * 8;
+    /** The line feed byte. */
+    private static final byte LF = '\n';
+    /** The carriage return byte. */
+    private static final byte CR = '\r';
+    /** The replacement character. */
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /**
+     * Instances should NOT be constructed in standard programming.
+     */
+    private FastDecoder() {
+    }
+
+    /**
+     * Checks whether an encoding is decoded by this class.
+     *
+     * @param charset  the encoding
+     * @return true for US-ASCII, ISO-8859-1 and UTF-8
+     */
+    static boolean isSupported(final Charset charset) {
+        return Charsets.UTF_8.equals(charset) || Charsets.US_ASCII.equals(charset)
+                || Charsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Reads and decodes the rest of a stream.
+     *
+     * @param input  the stream, not closed
+     * @param charset  a supported encoding
+     * @return the decoded characters
+     * @throws IOException if an I/O error occurs
+     */
+    static String toString(final InputStream input, final Charset charset) throws IOException {
+        return toString(input, charset, MAX_ARRAY_SIZE);
+    }
+
+    /**
+     * Reads and decodes the rest of a stream, through a reader if the stream
+     * is longer than a maximum.
+     *
+     * @param input  the stream, not closed
+     * @param charset  a supported encoding
+     * @param maxArraySize  the largest number of bytes read into a single array
+     * @return the decoded characters
+     * @throws IOException if an I/O error occurs
+     */
+    static String toString(final InputStream input, final Charset charset, final int maxArraySize)
+            throws IOException {
+        final Bytes bytes = readFully(input, maxArraySize);
+        if (bytes.length < maxArraySize) {
+            return decode(bytes.data, 0, bytes.length, charset);
+        }
+        // too long for one array: continue with the bytes read so far followed by the rest
+        final StringBuilderWriter writer = new StringBuilderWriter();
+        IOUtils.copy(new InputStreamReader(new SequenceInputStream(
+                new ByteArrayInputStream(bytes.data, 0, bytes.length), input), charset), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Reads and decodes the rest of a stream as lines, split as by
+     * {@link java.io.BufferedReader#readLine()}.
+     * <p>
+     * The stream is read in blocks; only the bytes of the current line are
+     * kept between blocks, and are not scanned again for line breaks.
+     *
+     * @param input  the stream, not closed
+     * @param charset  a supported encoding
+     * @return the lines
+     * @throws IOException if an I/O error occurs
+     */
+    static List<String> readLines(final InputStream input, final Charset charset) throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        byte[] buffer = new byte[LINE_BUFFER_SIZE];
+        int length = 0;
+        int scanned = 0;
+        int n;
+        do {
+            n = input.read(buffer, length, buffer.length - length);
+            if (n != IOUtils.EOF) {
+                length += n;
+            }
+            final int rest = splitLines(buffer, scanned, length, n == IOUtils.EOF, charset, lines);
+            if (rest > 0) {
+                System.arraycopy(buffer, rest, buffer, 0, length - rest);
+                length -= rest;
+            }
+            // the bytes kept hold no line break, except a final CR waiting for a LF
+            scanned = length > 0 && buffer[length - 1] == CR ? length - 1 : length;
+            if (length == buffer.length) {
+                // a long line
+                if (buffer.length == Integer.MAX_VALUE - 8) {
+                    throw new IOException("Line too long");
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, Integer.MAX_VALUE - 8));
+            }
+        } while (n != IOUtils.EOF);
+        return lines;
+    }
+
+    /**
+     * Decodes bytes as lines, split as by {@link java.io.BufferedReader#readLine()}.
+     *
+     * @param bytes  the bytes, starting at index 0
+     * @param byteCount  the number of bytes
+     * @param charset  a supported encoding
+     * @return the lines
+     */
+    static List<String> readLines(final byte[] bytes, final int byteCount, final Charset charset) {
+        final List<String> lines = new ArrayList<String>();
+        splitLines(bytes, 0, byteCount, true, charset, lines);
+        return lines;
+    }
+
+    /**
+     * Decodes the complete lines of bytes. Line breaks are single bytes in the
+     * supported encodings, which never occur within other characters.
+     *
+     * @param bytes  the bytes, starting at index 0
+     * @param from  the index of the first byte to scan, the bytes before hold no line break
+     * @param byteCount  the number of bytes
+     * @param end  whether no more bytes follow, completing the last line
+     * @param charset  a supported encoding
+     * @param lines  receives the lines
+     * @return the index of the first byte not decoded, starting an incomplete line
+     */
+    private static int splitLines(final byte[] bytes, final int from, final int byteCount, final boolean end,
+            final Charset charset, final List<String> lines) {
+        int start = 0;
+        int i = from;
+        while (i < byteCount) {
+            final byte b = bytes[i];
+            if (b == LF || b == CR) {
+                if (b == CR && i + 1 == byteCount && !end) {
+                    break; // a line feed may follow
+                }
+                lines.add(decode(bytes, start, i - start, charset));
+                i++;
+                if (b == CR && i < byteCount && bytes[i] == LF) {
+                    i++;
+                }
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        if (end && start < byteCount) {
+            lines.add(decode(bytes, start, byteCount - start, charset));
+            return byteCount;
+        }
+        return start;
+    }
+
+    /**
+     * Decodes bytes into a String.
+     *
+     * @param bytes  the bytes
+     * @param offset  the index of the first byte
+     * @param length  the number of bytes
+     * @param charset  a supported encoding
+     * @return the decoded characters
+     */
+    static String decode(final byte[] bytes, final int offset, final int length, final Charset charset) {
+        final char[] chars = new char[length];
+        return new String(chars, 0, decode(bytes, offset, length, charset, chars));
+    }
+
+    /**
+     * Decodes bytes into a character array.
+     *
+     * @param bytes  the bytes
+     * @param offset  the index of the first byte
+     * @param length  the number of bytes
+     * @param charset  a supported encoding
+     * @param chars  receives the characters, at least as long as the number of bytes
+     * @return the number of characters
+     */
+    static int decode(final byte[] bytes, final int offset, final int length, final Charset charset,
+            final char[] chars) {
+        final boolean latin1 = Charsets.ISO_8859_1.equals(charset);
+        final boolean utf8 = Charsets.UTF_8.equals(charset);
+        final int end = offset + length;
+        int i = offset;
+        int j = 0;
+        while (i < end) {
+            // --- ASCII run ---
+            byte b;
+            while (i < end && (b = bytes[i]) >= 0) {
+                chars[j++] = (char) b;
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            final int b0 = bytes[i] & 0xFF;
+            if (latin1) {
+                chars[j++] = (char) b0;
+                i++;
+            } else if (!utf8) {
+                chars[j++] = REPLACEMENT;
+                i++;
+            } else if (b0 >= 0xC2 && b0 <= 0xDF && i + 1 < end && isContinuation(bytes[i + 1])) {
+                chars[j++] = (char) ((b0 & 0x1F) << 6 | bytes[i + 1] & 0x3F);
+                i += 2;
+            } else if (b0 >= 0xE0 && b0 <= 0xEF && i + 2 < end && isContinuation(bytes[i + 1])
+                    && isContinuation(bytes[i + 2])) {
+                final int ch = (b0 & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6 | bytes[i + 2] & 0x3F;
+                if (ch < 0x800 || ch >= 0xD800 && ch <= 0xDFFF) {
+                    return j + decodeRest(bytes, i, end, charset, chars, j); // overlong or surrogate
+                }
+                chars[j++] = (char) ch;
+                i += 3;
+            } else if (b0 >= 0xF0 && b0 <= 0xF4 && i + 3 < end && isContinuation(bytes[i + 1])
+                    && isContinuation(bytes[i + 2]) && isContinuation(bytes[i + 3])) {
+                final int cp = (b0 & 0x07) << 18 | (bytes[i + 1] & 0x3F) << 12 | (bytes[i + 2] & 0x3F) << 6
+                        | bytes[i + 3] & 0x3F;
+                if (cp < 0x10000 || cp > 0x10FFFF) {
+                    return j + decodeRest(bytes, i, end, charset, chars, j); // overlong or out of range
+                }
+                chars[j++] = (char) ((cp >>> 10) + (Character.MIN_HIGH_SURROGATE - (0x10000 >>> 10)));
+                chars[j++] = (char) ((cp & 0x3FF) + Character.MIN_LOW_SURROGATE);
+                i += 4;
+            } else {
+                return j + decodeRest(bytes, i, end, charset, chars, j);
+            }
+        }
+        return j;
+    }
+
+    /**
+     * Decodes the bytes from a malformed sequence on with the JDK decoder.
+     *
+     * @param bytes  the bytes
+     * @param start  the index of the malformed sequence
+     * @param end  the index following the last byte
+     * @param charset  the encoding
+     * @param chars  receives the characters
+     * @param index  the index in the characters to decode into
+     * @return the number of characters decoded
+     */
+    private static int decodeRest(final byte[] bytes, final int start, final int end, final Charset charset,
+            final char[] chars, final int index) {
+        final String rest = new String(bytes, start, end - start, charset);
+        rest.getChars(0, rest.length(), chars, index);
+        return rest.length();
+    }
+
+    /**
+     * Checks whether a byte is a UTF-8 continuation byte.
+     *
+     * @param b  the byte
+     * @return true if the byte has the form 10xxxxxx
+     */
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Reads the rest of a stream into a single array, sized from the bytes
+     * available if known, stopping at a maximum.
+     *
+     * @param input  the stream
+     * @param maxLength  the largest number of bytes read
+     * @return the bytes, the rest of the stream is unread if the maximum is reached
+     * @throws IOException if an I/O error occurs
+     */
+    private static Bytes readFully(final InputStream input, final int maxLength) throws IOException {
+        final int available = input.available();
+        final int initial = Math.min(Math.max(available, 0), MAX_AVAILABLE_SIZE) + DEFAULT_BUFFER_SIZE;
+        byte[] data = new byte[Math.min(initial, maxLength)];
+        int length = 0;
+        int n;
+        while (length < maxLength && IOUtils.EOF != (n = input.read(data, length, data.length - length))) {
+            length += n;
+            if (length == data.length && length < maxLength) {
+                data = Arrays.copyOf(data, (int) Math.min(data.length * 2L, maxLength));
+            }
+        }
+        return new Bytes(data, length);
+    }
+
+    /**
+     * Bytes read from a stream.
+     */
+    private static final class Bytes {
+
+        /** The array holding the bytes */
+        private final byte[] data;
+        /** The number of bytes */
+        private final int length;
+
+        /**
+         * Constructs the bytes read.
+         *
+         * @param data  the array holding the bytes
+         * @param length  the number of bytes
+         */
+        Bytes(final byte[] data, final int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+}
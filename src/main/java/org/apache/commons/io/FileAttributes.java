@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+
+/**
+ * A lazily populated view of the attributes of a {@link File}: type, size,
+ * last modification time, visibility and access permissions.
+ * <p>
+ * Each attribute is fetched from the file system the first time it is requested
+ * and then retained, so any number of filters or comparators consulting the same
+ * instance cause at most one file system access per attribute. When running on
+ * Java 7 or later the existence, type, size and last modification time are
+ * fetched together with a single basic attributes read; on earlier JVMs each is
+ * fetched by the corresponding {@link File} method.
+ * <p>
+ * Instances are a snapshot: changes made to the file after an attribute has been
+ * read are not reflected. They are not thread-safe and are intended to be short
+ * lived, typically covering the evaluation of a single file.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class FileAttributes {
+
+    private static final int EXISTS = 1;
+    private static final int DIRECTORY = 1 << 1;
+    private static final int FILE = 1 << 2;
+    private static final int LENGTH = 1 << 3;
+    private static final int LAST_MODIFIED = 1 << 4;
+    private static final int HIDDEN = 1 << 5;
+    private static final int CAN_READ = 1 << 6;
+    private static final int CAN_WRITE = 1 << 7;
+    private static final int BASIC = EXISTS | DIRECTORY | FILE | LENGTH | LAST_MODIFIED;
+
+    /** The file the attributes belong to */
+    private final File file;
+    /** Bit mask of the attributes which have been read */
+    private int loaded;
+    /** Bit mask of the boolean attributes which are true */
+    private int values;
+    /** The file length */
+    private long length;
+    /** The last modification time */
+    private long lastModified;
+
+    /**
+     * Constructs a new attribute view of a file. No file system access is
+     * performed until an attribute is requested.
+     *
+     * @param file  the file whose attributes are read
+     */
+    public FileAttributes(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the file these attributes belong to.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Tests whether the file exists.
+     *
+     * @return true if the file exists
+     * @see File#exists()
+     */
+    public boolean exists() {
+        if ((loaded & EXISTS) == 0) {
+            if (!readBasicAttributes()) {
+                set(EXISTS, file.exists());
+            }
+        }
+        return (values & EXISTS) != 0;
+    }
+
+    /**
+     * Tests whether the file is a directory.
+     *
+     * @return true if the file exists and is a directory
+     * @see File#isDirectory()
+     */
+    public boolean isDirectory() {
+        if ((loaded & DIRECTORY) == 0) {
+            if (!readBasicAttributes()) {
+                set(DIRECTORY, file.isDirectory());
+            }
+        }
+        return (values & DIRECTORY) != 0;
+    }
+
+    /**
+     * Tests whether the file is a normal file.
+     *
+     * @return true if the file exists and is a normal file
+     * @see File#isFile()
+     */
+    public boolean isFile() {
+        if ((loaded & FILE) == 0) {
+            if (!readBasicAttributes()) {
+                set(FILE, file.isFile());
+            }
+        }
+        return (values & FILE) != 0;
+    }
+
+    /**
+     * Returns the length of the file.
+     *
+     * @return the length in bytes, or 0 if the file does not exist
+     * @see File#length()
+     */
+    public long length() {
+        if ((loaded & LENGTH) == 0) {
+            if (!readBasicAttributes()) {
+                length = file.length();
+                loaded |= LENGTH;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the time the file was last modified.
+     *
+     * @return the last modification time in milliseconds since the epoch,
+     * or 0 if the file does not exist
+     * @see File#lastModified()
+     */
+    public long lastModified() {
+        if ((loaded & LAST_MODIFIED) == 0) {
+            if (!readBasicAttributes()) {
+                lastModified = file.lastModified();
+                loaded |= LAST_MODIFIED;
+            }
+        }
+        return lastModified;
+    }
+
+    /**
+     * Tests whether the file is hidden.
+     *
+     * @return true if the file is hidden
+     * @see File#isHidden()
+     */
+    public boolean isHidden() {
+        if ((loaded & HIDDEN) == 0) {
+            set(HIDDEN, file.isHidden());
+        }
+        return (values & HIDDEN) != 0;
+    }
+
+    /**
+     * Tests whether the application can read the file.
+     *
+     * @return true if the file exists and can be read
+     * @see File#canRead()
+     */
+    public boolean canRead() {
+        if ((loaded & CAN_READ) == 0) {
+            set(CAN_READ, file.canRead());
+        }
+        return (values & CAN_READ) != 0;
+    }
+
+    /**
+     * Tests whether the application can modify the file.
+     *
+     * @return true if the file exists and can be written
+     * @see File#canWrite()
+     */
+    public boolean canWrite() {
+        if ((loaded & CAN_WRITE) == 0) {
+            set(CAN_WRITE, file.canWrite());
+        }
+        return (values & CAN_WRITE) != 0;
+    }
+
+    /**
+     * Provide a String representaion of these attributes.
+     *
+     * @return a String representaion
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + file + ")";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads all the basic attributes at once, if supported by the JVM.
+     *
+     * @return true if the basic attributes are now loaded, false if
+     * they have to be read individually
+     */
+    private boolean readBasicAttributes() {
+        if (!Java7Support.isAtLeastJava7()) {
+            return false;
+        }
+        if (!Java7Support.readBasicAttributes(file, this)) {
+            setBasicAttributes(false, false, 0L, 0L);
+            values &= ~EXISTS;
+        }
+        return true;
+    }
+
+    /**
+     * Records the basic attributes of an existing file.
+     *
+     * @param directory  whether the file is a directory
+     * @param regularFile  whether the file is a normal file
+     * @param length  the file length
+     * @param lastModified  the last modification time
+     */
+    void setBasicAttributes(final boolean directory, final boolean regularFile, final long length,
+            final long lastModified) {
+        set(EXISTS, true);
+        set(DIRECTORY, directory);
+        set(FILE, regularFile);
+        this.length = length;
+        this.lastModified = lastModified;
+        loaded |= BASIC;
+    }
+
+    /**
+     * Records the value of a boolean attribute.
+     *
+     * @param attribute  the attribute bit
+     * @param value  the attribute value
+     */
+    private void set(final int attribute, final boolean value) {
+        if (value) {
+            values |= attribute;
+        } else {
+            values &= ~attribute;
+        }
+        loaded |= attribute;
+    }
+
+}
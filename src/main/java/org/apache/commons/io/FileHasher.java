@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Computes {@link MessageDigest} hashes of files.
+ * <p>
+ * Files are read through a {@link FileChannel} into large direct buffers
+ * handed straight to the digest, avoiding the copies made by stream based
+ * hashing such as {@link FileUtils#checksum(File, java.util.zip.Checksum)}.
+ * The direct buffers are pooled and shared by all hashers, so hashing many
+ * files does not keep allocating direct memory, which is only released by
+ * garbage collection.
+ * <p>
+ * Two kinds of hashes are available:
+ * <ul>
+ * <li>{@link #digest(File)} is the plain digest of the file content, as
+ * computed by <code>sha256sum</code> and similar tools.</li>
+ * <li>{@link #treeDigest(File)} splits the file into chunks of
+ * {@link #getChunkSize()} bytes, digests each chunk, then returns the digest of
+ * the concatenated chunk digests. The chunks are hashed by several threads, so
+ * large files are hashed at the speed of the storage rather than of one core.
+ * The result depends on the chunk size, which must be the same to compare
+ * tree digests.</li>
+ * </ul>
+ * <pre>
+ * FileHasher hasher = new FileHasher("SHA-256");
+ * String hash = FileHasher.toHex(hasher.digest(file));
+ * </pre>
+ * <p>
+ * Instances are immutable and safe for concurrent use.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class FileHasher {
+
+    /** The default chunk size of tree digests, 4 MB. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The size of the direct buffers used for reading. */
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /** The maximum number of idle direct buffers kept for reuse. */
+    private static final int MAX_POOLED_BUFFERS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    /** The idle direct buffers, the most recently used first. */
+    private static final LinkedBlockingDeque<ByteBuffer> BUFFERS =
+            new LinkedBlockingDeque<ByteBuffer>(MAX_POOLED_BUFFERS);
+
+    /** The hexadecimal digits. */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** The digest algorithm */
+    private final String algorithm;
+    /** The tree digest chunk size */
+    private final int chunkSize;
+    /** The maximum number of threads hashing one file */
+    private final int threads;
+
+    /**
+     * Constructs a hasher using an algorithm, the default chunk size and as many
+     * threads as processors.
+     *
+     * @param algorithm  the {@link MessageDigest} algorithm, such as "SHA-256"
+     * @throws IllegalArgumentException if the algorithm is not available
+     */
+    public FileHasher(final String algorithm) {
+        this(algorithm, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a hasher.
+     *
+     * @param algorithm  the {@link MessageDigest} algorithm, such as "SHA-256"
+     * @param chunkSize  the chunk size of tree digests
+     * @param threads  the maximum number of threads hashing the chunks of one file
+     * @throws IllegalArgumentException if the algorithm is not available, or the
+     * chunk size or number of threads is not positive
+     */
+    public FileHasher(final String algorithm, final int chunkSize, final int threads) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        newDigest(); // fail fast on unknown algorithms
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the digest algorithm.
+     *
+     * @return the {@link MessageDigest} algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the chunk size of tree digests.
+     *
+     * @return the chunk size in bytes
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the maximum number of threads hashing the chunks of one file.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Computes the digest of the content of a file.
+     *
+     * @param file  the file to hash, must not be {@code null}
+     * @return the digest
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IllegalArgumentException if the file is a directory
+     * @throws FileNotFoundException if the file does not exist
+     * @throws IOException if an I/O error occurs reading the file
+     */
+    public byte[] digest(final File file) throws IOException {
+        checkFile(file);
+        final MessageDigest digest = newDigest();
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = acquire(channel.size());
+            try {
+                update(digest, channel, 0, Long.MAX_VALUE, buffer);
+            } finally {
+                release(buffer);
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes the tree digest of a file, hashing its chunks with several threads.
+     *
+     * @param file  the file to hash, must not be {@code null}
+     * @return the digest of the concatenated digests of the chunks
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IllegalArgumentException if the file is a directory
+     * @throws FileNotFoundException if the file does not exist
+     * @throws IOException if an I/O error occurs reading the file
+     */
+    public byte[] treeDigest(final File file) throws IOException {
+        checkFile(file);
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final long size = channel.size();
+            final int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            final byte[][] chunkDigests = new byte[chunks][];
+            final int workers = Math.min(threads, chunks);
+            if (workers == 1) {
+                hashChunks(channel, chunkDigests, 0, 1);
+            } else {
+                hashChunks(channel, chunkDigests, workers);
+            }
+            final MessageDigest digest = newDigest();
+            for (final byte[] chunkDigest : chunkDigests) {
+                digest.update(chunkDigest);
+            }
+            return digest.digest();
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Formats a digest as lower case hexadecimal digits.
+     *
+     * @param digest  the digest, must not be {@code null}
+     * @return the hexadecimal representation
+     */
+    public static String toHex(final byte[] digest) {
+        final char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0x0F];
+            chars[2 * i + 1] = HEX_DIGITS[digest[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Provide a String representation of this hasher.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + algorithm + ",chunkSize=" + chunkSize + ",threads=" + threads + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Hashes the chunks of a file with a pool of threads, each hashing every
+     * <code>workers</code>th chunk.
+     *
+     * @param channel  the file channel
+     * @param chunkDigests  receives the digest of each chunk
+     * @param workers  the number of threads
+     * @throws IOException if an I/O error occurs reading the file
+     */
+    private void hashChunks(final FileChannel channel, final byte[][] chunkDigests, final int workers)
+            throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < workers; i++) {
+                final int first = i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws IOException {
+                        hashChunks(channel, chunkDigests, first, workers);
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing");
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hashes every <code>step</code>th chunk of a file, using positional reads.
+     *
+     * @param channel  the file channel
+     * @param chunkDigests  receives the digest of each chunk
+     * @param first  the first chunk to hash
+     * @param step  the distance between the chunks to hash
+     * @throws IOException if an I/O error occurs reading the file
+     */
+    private void hashChunks(final FileChannel channel, final byte[][] chunkDigests, final int first, final int step)
+            throws IOException {
+        final ByteBuffer buffer = acquire(Math.min(chunkSize, channel.size()));
+        try {
+            final MessageDigest digest = newDigest();
+            for (int i = first; i < chunkDigests.length; i += step) {
+                update(digest, channel, (long) i * chunkSize, chunkSize, buffer);
+                chunkDigests[i] = digest.digest();
+            }
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Updates a digest with a range of a file, using positional reads.
+     *
+     * @param digest  the digest to update
+     * @param channel  the file channel
+     * @param position  the start of the range
+     * @param length  the length of the range, reading stops earlier at the end of the file
+     * @param buffer  the buffer to read into
+     * @throws IOException if an I/O error occurs reading the file
+     */
+    private static void update(final MessageDigest digest, final FileChannel channel, final long position,
+            final long length, final ByteBuffer buffer) throws IOException {
+        long offset = 0;
+        while (offset < length) {
+            buffer.clear();
+            if (length - offset < buffer.capacity()) {
+                buffer.limit((int) (length - offset));
+            }
+            final int read = channel.read(buffer, position + offset);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            offset += read;
+        }
+    }
+
+    /**
+     * Obtains a read buffer: a small heap buffer if the data to read is small,
+     * else a pooled direct buffer.
+     *
+     * @param size  the amount of data to read
+     * @return the buffer, to be given back with {@link #release(ByteBuffer)}
+     */
+    static ByteBuffer acquire(final long size) {
+        if (size < BUFFER_SIZE / 4) {
+            return ByteBuffer.allocate((int) Math.max(size, 1));
+        }
+        final ByteBuffer buffer = BUFFERS.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * Gives back a read buffer, keeping direct buffers for reuse while the
+     * pool is not full.
+     *
+     * @param buffer  the buffer obtained from {@link #acquire(long)}
+     */
+    static void release(final ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            buffer.clear();
+            BUFFERS.offerFirst(buffer);
+        }
+    }
+
+    /**
+     * Checks a file can be hashed.
+     *
+     * @param file  the file
+     */
+    private static void checkFile(final File file) {
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("Checksums can't be computed on directories");
+        }
+    }
+
+    /**
+     * Creates a digest of the algorithm.
+     *
+     * @return the digest
+     * @throws IllegalArgumentException if the algorithm is not available
+     */
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, ex);
+        }
+    }
+
+}
@@ -16,7 +16,6 @@
  */
 package org.apache.commons.io;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
@@ -39,7 +38,6 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.zip.CRC32;
-import java.util.zip.CheckedInputStream;
 import java.util.zip.Checksum;
 
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
@@ -48,7 +46,7 @@ import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.SuffixFileFilter;
 import org.apache.commons.io.filefilter.TrueFileFilter;
-import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
 
 /**
  * General file manipulation utilities.
@@ -109,6 +107,11 @@ public class FileUtils {
      */
     private static final long FILE_COPY_BUFFER_SIZE = ONE_MB * 30;
 
+    /**
+     * The buffer size used by {@link #checksum(File, Checksum)}.
+     */
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
     /**
      * The number of bytes in a gigabyte.
      */
@@ -1388,6 +1391,30 @@ public class FileUtils {
         doCopyDirectory(srcDir, destDir, filter, preserveFileDate, exclusionList);
     }
 
+    /**
+     * Copies a whole directory to a new location, only copying the files
+     * whose content is not already available.
+     * <p>
+     * Destination files with the length and last modification time or the
+     * content of their source are left as is. Files with the content of a file
+     * of the link directory are hard linked to that file when supported.
+     * Other files are copied, preserving their last modification time.
+     *
+     * @param srcDir  an existing directory to copy, must not be {@code null}
+     * @param destDir the destination directory, must not be {@code null}
+     * @param linkDir the directory of the files to link to, typically a previous
+     *                copy, null to never link
+     * @throws NullPointerException if source or destination is {@code null}
+     * @throws IOException          if source or destination is invalid
+     * @throws IOException          if an IO error occurs during copying
+     * @see DeduplicatingCopier
+     * @since 2.5
+     */
+    public static void copyDirectoryDeduplicated(final File srcDir, final File destDir, final File linkDir)
+            throws IOException {
+        new DeduplicatingCopier(linkDir).copyDirectory(srcDir, destDir);
+    }
+
     /**
      * checks requirements for file copy
      * @param src the source file
@@ -1582,6 +1609,40 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Deletes a directory recursively using several threads.
+     * <p>
+     * Up to the given number of threads list the directories and delete their
+     * files concurrently; each directory is deleted as soon as it is empty.
+     * Unlike {@link #deleteDirectory(File)}, a failure does not stop the
+     * deletion: everything that can be deleted is, and the failures are then
+     * reported together. Limiting the number of threads limits the load on
+     * shared disks.
+     *
+     * @param directory directory to delete
+     * @param threads the maximum number of threads deleting files
+     * @throws IOExceptionList          if any file or directory could not be deleted
+     * @throws IOException              if the directory could not be checked
+     * @throws IllegalArgumentException if the number of threads is not positive
+     * @since 2.5
+     */
+    public static void deleteDirectory(final File directory, final int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        if (!directory.exists()) {
+            return;
+        }
+
+        if (isSymlink(directory)) {
+            if (!directory.delete()) {
+                throw new IOException("Unable to delete directory " + directory + ".");
+            }
+        } else {
+            ParallelDeleter.delete(directory, true, threads);
+        }
+    }
+
     /**
      * Deletes a file, never throwing an exception. If file is a directory, delete it and all sub-directories.
      * <p>
@@ -1687,6 +1748,29 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Cleans a directory without deleting it, using several threads.
+     * <p>
+     * The contents of the directory are deleted as by
+     * {@link #deleteDirectory(File, int)}, failures being collected rather than
+     * stopping the deletion.
+     *
+     * @param directory directory to clean
+     * @param threads the maximum number of threads deleting files
+     * @throws IOExceptionList          if any file or directory could not be deleted
+     * @throws IOException              if the directory could not be listed
+     * @throws IllegalArgumentException if {@code directory} does not exist or is not a directory,
+     * or the number of threads is not positive
+     * @since 2.5
+     */
+    public static void cleanDirectory(final File directory, final int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        checkDirectory(directory);
+        ParallelDeleter.delete(directory, false, threads);
+    }
+
     /**
      * Lists files in a directory, asserting that the supplied directory satisfies exists and is a directory
      * @param directory The directory to list
@@ -1752,6 +1836,8 @@ public class FileUtils {
     /**
      * Reads the contents of a file into a String.
      * The file is always closed.
+     * <p>
+     * The file is read into an array of its size, then decoded at once.
      *
      * @param file     the file to read, must not be {@code null}
      * @param encoding the encoding to use, {@code null} means platform default
@@ -1760,13 +1846,12 @@ public class FileUtils {
      * @since 2.3
      */
     public static String readFileToString(final File file, final Charset encoding) throws IOException {
-        InputStream in = null;
-        try {
-            in = openInputStream(file);
-            return IOUtils.toString(in, Charsets.toCharset(encoding));
-        } finally {
-            IOUtils.closeQuietly(in);
+        final Charset charset = Charsets.toCharset(encoding);
+        final byte[] data = readFileToByteArray(file);
+        if (FastDecoder.isSupported(charset)) {
+            return FastDecoder.decode(data, 0, data.length, charset);
         }
+        return new String(data, charset);
     }
 
     /**
@@ -1810,10 +1895,30 @@ public class FileUtils {
      * @since 1.1
      */
     public static byte[] readFileToByteArray(final File file) throws IOException {
-        InputStream in = null;
+        FileInputStream in = null;
         try {
             in = openInputStream(file);
-            return IOUtils.toByteArray(in); // Do NOT use file.length() - see NET-453
+            // the size is only a hint, the file may be growing or not report it - see NET-453
+            final long size = in.getChannel().size();
+            if (size <= 0 || size > Integer.MAX_VALUE - 8) {
+                return IOUtils.toByteArray(in);
+            }
+            final byte[] data = new byte[(int) size];
+            final int count = IOUtils.read(in, data);
+            if (count < data.length) {
+                final byte[] shrunk = new byte[count];
+                System.arraycopy(data, 0, shrunk, 0, count);
+                return shrunk;
+            }
+            final int next = in.read();
+            if (next == IOUtils.EOF) {
+                return data;
+            }
+            final ByteArrayOutputStream grown = new ByteArrayOutputStream(data.length * 2);
+            grown.write(data);
+            grown.write(next);
+            IOUtils.copy(in, grown);
+            return grown.toByteArray();
         } finally {
             IOUtils.closeQuietly(in);
         }
@@ -1830,10 +1935,15 @@ public class FileUtils {
      * @since 2.3
      */
     public static List<String> readLines(final File file, final Charset encoding) throws IOException {
+        final Charset charset = Charsets.toCharset(encoding);
+        if (FastDecoder.isSupported(charset)) {
+            final byte[] data = readFileToByteArray(file);
+            return FastDecoder.readLines(data, data.length, charset);
+        }
         InputStream in = null;
         try {
             in = openInputStream(file);
-            return IOUtils.readLines(in, Charsets.toCharset(encoding));
+            return IOUtils.readLines(in, charset);
         } finally {
             IOUtils.closeQuietly(in);
         }
@@ -1914,6 +2024,35 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Returns a cursor over the lines in a <code>File</code>, exposing each line as
+     * a reused <code>CharSequence</code> rather than a new <code>String</code>.
+     * <p>
+     * This method opens an <code>InputStream</code> for the file.
+     * When you have finished with the cursor you should close it
+     * to free internal resources.
+     *
+     * @param file     the file to open for input, must not be {@code null}
+     * @param encoding the encoding to use, {@code null} means platform default
+     * @return a cursor over the lines in the file, never {@code null}
+     * @throws IOException in case of an I/O error (file closed)
+     * @see LineCursor
+     * @since 2.5
+     */
+    public static LineCursor lineCursor(final File file, final String encoding) throws IOException {
+        InputStream in = null;
+        try {
+            in = openInputStream(file);
+            return new LineCursor(new InputStreamReader(in, Charsets.toCharset(encoding)));
+        } catch (final IOException ex) {
+            IOUtils.closeQuietly(in);
+            throw ex;
+        } catch (final RuntimeException ex) {
+            IOUtils.closeQuietly(in);
+            throw ex;
+        }
+    }
+
     /**
      * Returns an Iterator for the lines in a <code>File</code> using the default encoding for the VM.
      *
@@ -1973,6 +2112,7 @@ public class FileUtils {
      *                 end of the file rather than overwriting
      * @throws IOException in case of an I/O error
      * @since 2.3
+     * @see IOUtils#write(String, OutputStream, Charset)
      */
     public static void writeStringToFile(final File file, final String data, final Charset encoding, final boolean
             append) throws IOException {
@@ -2103,8 +2243,14 @@ public class FileUtils {
      */
     public static void write(final File file, final CharSequence data, final Charset encoding, final boolean append)
             throws IOException {
-        final String str = data == null ? null : data.toString();
-        writeStringToFile(file, str, encoding, append);
+        OutputStream out = null;
+        try {
+            out = openOutputStream(file, append);
+            IOUtils.write(data, out, encoding);
+            out.close(); // don't swallow close Exception if copy completes normally
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
     }
 
     /**
@@ -2308,9 +2454,38 @@ public class FileUtils {
         FileOutputStream out = null;
         try {
             out = openOutputStream(file, append);
-            final BufferedOutputStream buffer = new BufferedOutputStream(out);
-            IOUtils.writeLines(lines, lineEnding, buffer, encoding);
-            buffer.flush();
+            IOUtils.writeLines(lines, lineEnding, out, encoding);
+            out.close(); // don't swallow close Exception if copy completes normally
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * Writes each character sequence of an iterator to the specified
+     * <code>File</code> line by line.
+     * The specified character encoding and the line ending will be used.
+     * <p>
+     * The lines are taken from the iterator one at a time, so a large number
+     * of lines can be written without holding them all in memory.
+     * The parent directories of the file will be created if they do not exist.
+     *
+     * @param file       the file to write to
+     * @param encoding   the encoding to use, {@code null} means platform default
+     * @param lines      the lines to write, {@code null} entries produce blank lines
+     * @param lineEnding the line separator to use, {@code null} is system default
+     * @param append     if {@code true}, then the lines will be added to the
+     *                   end of the file rather than overwriting
+     * @throws IOException in case of an I/O error
+     * @since 2.5
+     */
+    public static void writeLinesFrom(final File file, final Charset encoding,
+                                      final Iterator<? extends CharSequence> lines, final String lineEnding,
+                                      final boolean append) throws IOException {
+        FileOutputStream out = null;
+        try {
+            out = openOutputStream(file, append);
+            IOUtils.writeLinesFrom(lines, lineEnding, out, encoding);
             out.close(); // don't swallow close Exception if copy completes normally
         } finally {
             IOUtils.closeQuietly(out);
@@ -2580,6 +2755,32 @@ public class FileUtils {
         return sizeOfDirectory0(directory);
     }
 
+    /**
+     * Counts the size of a directory recursively (sum of the length of all files)
+     * using several threads.
+     * <p>
+     * Each directory found is listed by the next idle thread, up to the given
+     * number of threads, which speeds up counting large trees on storage serving
+     * concurrent requests well, such as SSDs and network file systems.
+     * Symbolic links are not followed and security restricted directories count
+     * as empty, as for {@link #sizeOfDirectory(File)}. To avoid walking unchanged
+     * directories again on repeated calls, see {@link DirectorySizeCache}.
+     * <p>
+     * Note that overflow is not detected.
+     *
+     * @param directory directory to inspect, must not be {@code null}
+     * @param threads the maximum number of threads walking the directory tree
+     * @return size of directory in bytes
+     * @throws NullPointerException if the directory is {@code null}
+     * @throws IllegalArgumentException if the directory does not exist or is not a
+     * directory, or the number of threads is not positive
+     * @since 2.5
+     */
+    public static long sizeOfDirectory(final File directory, final int threads) {
+        checkDirectory(directory);
+        return new DirectorySizeWalker(null, threads).sizeOf(directory);
+    }
+
     // Private method, must be invoked will a directory parameter
 
     /**
@@ -2687,7 +2888,7 @@ public class FileUtils {
      * @param directory The {@code File} to check.
      * @throws IllegalArgumentException if the given {@code File} does not exist or is not a directory.
      */
-    private static void checkDirectory(final File directory) {
+    static void checkDirectory(final File directory) {
         if (!directory.exists()) {
             throw new IllegalArgumentException(directory + " does not exist");
         }
@@ -2870,14 +3071,38 @@ public class FileUtils {
         }
         InputStream in = null;
         try {
-            in = new CheckedInputStream(new FileInputStream(file), checksum);
-            IOUtils.copy(in, new NullOutputStream());
+            in = new FileInputStream(file);
+            final byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+            int n;
+            while (IOUtils.EOF != (n = in.read(buffer))) {
+                checksum.update(buffer, 0, n);
+            }
         } finally {
             IOUtils.closeQuietly(in);
         }
         return checksum;
     }
 
+    /**
+     * Computes the digest of a file using a {@link java.security.MessageDigest} algorithm.
+     * For example:
+     * <pre>
+     *   String sha = FileHasher.toHex(FileUtils.digest(file, "SHA-256"));
+     * </pre>
+     *
+     * @param file      the file to digest, must not be {@code null}
+     * @param algorithm the digest algorithm, such as "SHA-256"
+     * @return the digest of the content of the file
+     * @throws NullPointerException     if the file is {@code null}
+     * @throws IllegalArgumentException if the file is a directory or the algorithm is not available
+     * @throws IOException              if an IO error occurs reading the file
+     * @see FileHasher
+     * @since 2.5
+     */
+    public static byte[] digest(final File file, final String algorithm) throws IOException {
+        return new FileHasher(algorithm, FileHasher.DEFAULT_CHUNK_SIZE, 1).digest(file);
+    }
+
     /**
      * Moves a directory.
      * <p>
@@ -2921,6 +3146,68 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Moves a directory, moving the files of the directory tree concurrently when
+     * the destination is on another file system.
+     * <p>
+     * The directory is first renamed, atomically when running on Java 7 or later.
+     * When that fails, typically because the destination is on another file system,
+     * up to the given number of threads copy each file, check the copy has the
+     * length of the source file, then delete the source file, so that copying and
+     * deleting overlap instead of the whole tree being copied before anything is
+     * deleted. File dates are preserved.
+     * <p>
+     * Unlike {@link #moveDirectory(File, File)}, a failure does not stop the move:
+     * the files which could not be moved are left in the source directory, with
+     * the directories containing them, and the failures are reported together.
+     *
+     * @param srcDir  the directory to be moved
+     * @param destDir the destination directory
+     * @param threads the maximum number of threads moving files
+     * @throws NullPointerException if source or destination is {@code null}
+     * @throws FileExistsException  if the destination directory exists
+     * @throws IOException          if source or destination is invalid
+     * @throws IOExceptionList      if any file or directory could not be moved
+     * @throws IllegalArgumentException if the number of threads is not positive
+     * @since 2.5
+     */
+    public static void moveDirectory(final File srcDir, final File destDir, final int threads) throws IOException {
+        if (srcDir == null) {
+            throw new NullPointerException("Source must not be null");
+        }
+        if (destDir == null) {
+            throw new NullPointerException("Destination must not be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        if (!srcDir.exists()) {
+            throw new FileNotFoundException("Source '" + srcDir + "' does not exist");
+        }
+        if (!srcDir.isDirectory()) {
+            throw new IOException("Source '" + srcDir + "' is not a directory");
+        }
+        if (destDir.exists()) {
+            throw new FileExistsException("Destination '" + destDir + "' already exists");
+        }
+        final boolean rename = Java7Support.isAtLeastJava7()
+                ? Java7Support.moveAtomically(srcDir, destDir) : srcDir.renameTo(destDir);
+        if (!rename) {
+            if (destDir.getCanonicalPath().startsWith(srcDir.getCanonicalPath() + File.separator)) {
+                throw new IOException("Cannot move directory: " + srcDir + " to a subdirectory of itself: " + destDir);
+            }
+            if (isSymlink(srcDir)) {
+                copyDirectory(srcDir, destDir);
+                if (!srcDir.delete()) {
+                    throw new IOException("Failed to delete original directory '" + srcDir +
+                            "' after copy to '" + destDir + "'");
+                }
+            } else {
+                ParallelMover.move(srcDir, destDir, threads);
+            }
+        }
+    }
+
     /**
      * Moves a directory to another directory.
      *
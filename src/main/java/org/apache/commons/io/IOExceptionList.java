@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Indicates that several I/O operations failed, holding each failure.
+ * <p>
+ * The first failure is also the {@link #getCause() cause} of this exception.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class IOExceptionList extends IOException {
+
+    /**
+     * Defines the serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** The failures */
+    private final List<IOException> causeList;
+
+    /**
+     * Construct an instance with the specified message and failures.
+     *
+     * @param message The error message
+     * @param causeList The failures, copied, must not be {@code null} or empty
+     */
+    public IOExceptionList(final String message, final List<? extends IOException> causeList) {
+        super(message + " (" + causeList.size() + " failures, first: " + causeList.get(0).getMessage() + ")",
+                causeList.get(0));
+        this.causeList = Collections.unmodifiableList(new ArrayList<IOException>(causeList));
+    }
+
+    /**
+     * Returns the failures, in the order they occurred.
+     *
+     * @return the failures, unmodifiable
+     */
+    public List<IOException> getCauseList() {
+        return causeList;
+    }
+
+}
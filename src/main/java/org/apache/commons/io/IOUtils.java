@@ -45,6 +45,7 @@ import java.nio.channels.Selector;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
@@ -1027,6 +1028,10 @@ public class IOUtils {
      * This method buffers the input internally, so there is no need to use a
      * <code>BufferedInputStream</code>.
      * </p>
+     * <p>
+     * US-ASCII, ISO-8859-1 and UTF-8 content is decoded directly into the
+     * characters of the String, without a <code>CharsetDecoder</code>.
+     * </p>
      *
      * @param input the <code>InputStream</code> to read from
      * @param encoding the encoding to use, null means platform default
@@ -1036,6 +1041,10 @@ public class IOUtils {
      * @since 2.3
      */
     public static String toString(final InputStream input, final Charset encoding) throws IOException {
+        final Charset charset = Charsets.toCharset(encoding);
+        if (FastDecoder.isSupported(charset)) {
+            return FastDecoder.toString(input, charset);
+        }
         final StringBuilderWriter sw = new StringBuilderWriter();
         copy(input, sw, encoding);
         return sw.toString();
@@ -1234,6 +1243,9 @@ public class IOUtils {
      * <p/>
      * This method buffers the input internally, so there is no need to use a
      * <code>BufferedInputStream</code>.
+     * <p/>
+     * US-ASCII, ISO-8859-1 and UTF-8 content is decoded directly into the
+     * characters of the lines, without a <code>CharsetDecoder</code>.
      *
      * @param input the <code>InputStream</code> to read from, not null
      * @param encoding the encoding to use, null means platform default
@@ -1243,7 +1255,11 @@ public class IOUtils {
      * @since 2.3
      */
     public static List<String> readLines(final InputStream input, final Charset encoding) throws IOException {
-        final InputStreamReader reader = new InputStreamReader(input, Charsets.toCharset(encoding));
+        final Charset charset = Charsets.toCharset(encoding);
+        if (FastDecoder.isSupported(charset)) {
+            return FastDecoder.readLines(input, charset);
+        }
+        final InputStreamReader reader = new InputStreamReader(input, charset);
         return readLines(reader);
     }
 
@@ -1761,7 +1777,10 @@ public class IOUtils {
      * Writes chars from a <code>CharSequence</code> to bytes on an
      * <code>OutputStream</code> using the specified character encoding.
      * <p/>
-     * This method uses {@link String#getBytes(String)}.
+     * Short sequences are converted with {@link String#getBytes(Charset)}.
+     * Longer ones are encoded incrementally through a fixed size buffer, so
+     * neither a copy of the characters nor the whole encoded form is held
+     * in memory.
      *
      * @param data the <code>CharSequence</code> to write, null ignored
      * @param output the <code>OutputStream</code> to write to
@@ -1773,7 +1792,13 @@ public class IOUtils {
     public static void write(final CharSequence data, final OutputStream output, final Charset encoding)
             throws IOException {
         if (data != null) {
-            write(data.toString(), output, encoding);
+            if (data.length() <= BufferedEncoder.DEFAULT_BUFFER_SIZE) {
+                output.write(data.toString().getBytes(Charsets.toCharset(encoding)));
+            } else {
+                final BufferedEncoder encoder = new BufferedEncoder(output, encoding);
+                encoder.write(data);
+                encoder.finish();
+            }
         }
     }
 
@@ -1842,7 +1867,9 @@ public class IOUtils {
      * Writes chars from a <code>String</code> to bytes on an
      * <code>OutputStream</code> using the specified character encoding.
      * <p/>
-     * This method uses {@link String#getBytes(String)}.
+     * Short strings are converted with {@link String#getBytes(Charset)}.
+     * Longer ones are encoded incrementally through a fixed size buffer, so
+     * the whole encoded form is never held in memory.
      *
      * @param data the <code>String</code> to write, null ignored
      * @param output the <code>OutputStream</code> to write to
@@ -1852,9 +1879,7 @@ public class IOUtils {
      * @since 2.3
      */
     public static void write(final String data, final OutputStream output, final Charset encoding) throws IOException {
-        if (data != null) {
-            output.write(data.getBytes(Charsets.toCharset(encoding)));
-        }
+        write((CharSequence) data, output, encoding);
     }
 
     /**
@@ -1974,6 +1999,9 @@ public class IOUtils {
      * Writes the <code>toString()</code> value of each item in a collection to
      * an <code>OutputStream</code> line by line, using the specified character
      * encoding and the specified line ending.
+     * <p/>
+     * The lines are encoded into a reused buffer and the stream receives
+     * large blocks, so there is no need to use a <code>BufferedOutputStream</code>.
      *
      * @param lines the lines to write, null entries produce blank lines
      * @param lineEnding the line separator to use, null is system default
@@ -1991,13 +2019,51 @@ public class IOUtils {
         if (lineEnding == null) {
             lineEnding = LINE_SEPARATOR;
         }
-        final Charset cs = Charsets.toCharset(encoding);
+        final BufferedEncoder encoder = new BufferedEncoder(output, encoding);
         for (final Object line : lines) {
             if (line != null) {
-                output.write(line.toString().getBytes(cs));
+                encoder.write(line.toString());
+            }
+            encoder.write(lineEnding);
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Writes each character sequence of an iterator to an <code>OutputStream</code>
+     * line by line, using the specified character encoding and the specified
+     * line ending.
+     * <p/>
+     * The lines are taken from the iterator one at a time, so they need not
+     * all be held in memory. They are encoded into a reused buffer and the
+     * stream receives large blocks, so there is no need to use a
+     * <code>BufferedOutputStream</code>.
+     *
+     * @param lines the lines to write, null entries produce blank lines
+     * @param lineEnding the line separator to use, null is system default
+     * @param output the <code>OutputStream</code> to write to, not null, not closed
+     * @param encoding the encoding to use, null means platform default
+     * @throws NullPointerException if the output is null
+     * @throws IOException          if an I/O error occurs
+     * @since 2.5
+     */
+    public static void writeLinesFrom(final Iterator<? extends CharSequence> lines, String lineEnding,
+                                      final OutputStream output, final Charset encoding) throws IOException {
+        if (lines == null) {
+            return;
+        }
+        if (lineEnding == null) {
+            lineEnding = LINE_SEPARATOR;
+        }
+        final BufferedEncoder encoder = new BufferedEncoder(output, encoding);
+        while (lines.hasNext()) {
+            final CharSequence line = lines.next();
+            if (line != null) {
+                encoder.write(line);
             }
-            output.write(lineEnding.getBytes(cs));
+            encoder.write(lineEnding);
         }
+        encoder.finish();
     }
 
     /**
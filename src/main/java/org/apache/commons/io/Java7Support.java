@@ -52,6 +52,26 @@ class Java7Support {
 
     private static Object emptyFileAttributes;
 
+    private static Method readAttributes;
+
+    private static Class<?> basicFileAttributes;
+
+    private static Method attributesIsDirectory;
+
+    private static Method attributesIsRegularFile;
+
+    private static Method attributesSize;
+
+    private static Method attributesLastModifiedTime;
+
+    private static Method fileTimeToMillis;
+
+    private static Method move;
+
+    private static Object atomicMoveOpts;
+
+    private static Method createLink;
+
     static {
         boolean isJava7x = true;
         try {
@@ -70,10 +90,29 @@ class Java7Support {
             exists = files.getMethod("exists", path, emptyLinkOpts.getClass());
             toPath = File.class.getMethod("toPath");
             toFile = path.getMethod("toFile");
+
+            basicFileAttributes = cl.loadClass("java.nio.file.attribute.BasicFileAttributes");
+            readAttributes = files.getMethod("readAttributes", path, Class.class, emptyLinkOpts.getClass());
+            attributesIsDirectory = basicFileAttributes.getMethod("isDirectory");
+            attributesIsRegularFile = basicFileAttributes.getMethod("isRegularFile");
+            attributesSize = basicFileAttributes.getMethod("size");
+            attributesLastModifiedTime = basicFileAttributes.getMethod("lastModifiedTime");
+            fileTimeToMillis = cl.loadClass("java.nio.file.attribute.FileTime").getMethod("toMillis");
+
+            Class<?> copyOption = cl.loadClass("java.nio.file.CopyOption");
+            atomicMoveOpts = Array.newInstance(copyOption, 1);
+            Array.set(atomicMoveOpts, 0,
+                    cl.loadClass("java.nio.file.StandardCopyOption").getField("ATOMIC_MOVE").get(null));
+            move = files.getMethod("move", path, path, atomicMoveOpts.getClass());
+            createLink = files.getMethod("createLink", path, path);
         } catch (ClassNotFoundException e) {
             isJava7x = false;
         } catch (NoSuchMethodException e) {
             isJava7x = false;
+        } catch (NoSuchFieldException e) {
+            isJava7x = false;
+        } catch (IllegalAccessException e) {
+            isJava7x = false;
         }
         IS_JAVA7 = isJava7x;
     }
@@ -179,6 +218,80 @@ class Java7Support {
         }
     }
 
+    /**
+     * Reads the type, size and last modification time of a file with a single
+     * nio basic attributes read, following symbolic links.
+     *
+     * @param file The file to read
+     * @param attributes The attributes to populate
+     * @return false if the attributes could not be read, e.g. the file does not exist
+     */
+    static boolean readBasicAttributes(File file, FileAttributes attributes) {
+        final Object attrs;
+        try {
+            Object path = toPath.invoke(file);
+            attrs = readAttributes.invoke(null, path, basicFileAttributes, emptyLinkOpts);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            // NoSuchFileException, AccessDeniedException, InvalidPathException etc.
+            return false;
+        }
+        try {
+            final boolean directory = ((Boolean) attributesIsDirectory.invoke(attrs)).booleanValue();
+            final boolean regularFile = ((Boolean) attributesIsRegularFile.invoke(attrs)).booleanValue();
+            final long size = ((Long) attributesSize.invoke(attrs)).longValue();
+            final Object lastModifiedTime = attributesLastModifiedTime.invoke(attrs);
+            final long lastModified = ((Long) fileTimeToMillis.invoke(lastModifiedTime)).longValue();
+            attributes.setBasicAttributes(directory, regularFile, size, lastModified);
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Performs a nio atomic move, i.e. a rename within the same file store
+     *
+     * @param source the file or directory to move
+     * @param target the new name, which must not exist
+     * @return false if the file could not be moved atomically, e.g. the target
+     * is on another file store
+     */
+    static boolean moveAtomically(File source, File target) {
+        try {
+            move.invoke(null, toPath.invoke(source), toPath.invoke(target), atomicMoveOpts);
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            // AtomicMoveNotSupportedException, FileAlreadyExistsException etc.
+            return false;
+        }
+    }
+
+    /**
+     * Creates a hard link to an existing file
+     *
+     * @param link the link to create, which must not exist
+     * @param existing the existing file
+     * @return false if the link could not be created, e.g. the file store does
+     * not support hard links or the files are on different file stores
+     */
+    static boolean createHardLink(File link, File existing) {
+        try {
+            createLink.invoke(null, toPath.invoke(link), toPath.invoke(existing));
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            // UnsupportedOperationException, FileSystemException etc.
+            return false;
+        }
+    }
+
     /**
      * Indicates if the current vm has java7 lubrary support
      * @return true if java7 library support
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A cursor over the lines of a <code>Reader</code>, exposing each line as a
+ * {@link CharSequence} view of its internal buffer rather than a new
+ * <code>String</code>.
+ * <p>
+ * Lines are split as by {@link java.io.BufferedReader#readLine()}. The view
+ * returned by {@link #line()} is the same object for every line and only valid
+ * until the cursor moves: call <code>toString()</code> on it to retain a line.
+ * Filtering or counting lines therefore allocates no memory per line, unless
+ * a line is longer than the buffer, which then grows once.
+ * <p>
+ * The recommended usage pattern is:
+ * <pre>
+ * LineCursor cursor = FileUtils.lineCursor(file, "UTF-8");
+ * try {
+ *   while (cursor.next()) {
+ *     CharSequence line = cursor.line();
+ *     // do something with line, e.g. matcher.reset(line)
+ *   }
+ * } finally {
+ *   cursor.close();
+ * }
+ * </pre>
+ * <p>
+ * <code>LineCursor</code> holds a reference to an open <code>Reader</code>,
+ * which {@link #close()} closes. Instances are not thread-safe.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class LineCursor implements Closeable {
+
+    /** The default buffer size. */
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** The reader that is being read. */
+    private final Reader reader;
+    /** The view of the current line. */
+    private final LineView view = new LineView();
+    /** The buffer, holding the current line and characters read ahead. */
+    private char[] buffer;
+    /** The start of the current line in the buffer. */
+    private int lineStart;
+    /** The end of the current line in the buffer. */
+    private int lineEnd;
+    /** The position of the next character to scan in the buffer. */
+    private int position;
+    /** The end of the characters read into the buffer. */
+    private int limit;
+    /** Whether a line feed following a carriage return must be skipped. */
+    private boolean skipLF;
+    /** Whether the reader is exhausted. */
+    private boolean eof;
+    /** Whether the cursor is on a line. */
+    private boolean onLine;
+    /** The number of lines read. */
+    private long lineCount;
+
+    /**
+     * Constructs a cursor over the lines of a <code>Reader</code>.
+     *
+     * @param reader the <code>Reader</code> to read from, not null
+     * @throws IllegalArgumentException if the reader is null
+     */
+    public LineCursor(final Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a cursor over the lines of a <code>Reader</code>, specifying
+     * the initial buffer size.
+     *
+     * @param reader the <code>Reader</code> to read from, not null
+     * @param bufferSize the initial buffer size
+     * @throws IllegalArgumentException if the reader is null or the buffer size is not positive
+     */
+    public LineCursor(final Reader reader, final int bufferSize) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must not be null");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Moves the cursor to the next line.
+     *
+     * @return true if the cursor is on a line, false if the end of the reader is reached
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean next() throws IOException {
+        onLine = false;
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                if (!eof) {
+                    final boolean more = fill(start);
+                    start = 0; // fill moved the pending characters
+                    if (more) {
+                        continue;
+                    }
+                }
+                // the end of the reader ends the last line, if not empty
+                if (position > start) {
+                    setLine(start, position);
+                    return true;
+                }
+                return false;
+            }
+            final char ch = buffer[position];
+            if (skipLF) {
+                skipLF = false;
+                if (ch == '\n') {
+                    start = ++position;
+                    continue;
+                }
+            }
+            if (ch == '\n' || ch == '\r') {
+                setLine(start, position);
+                position++;
+                skipLF = ch == '\r';
+                return true;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Returns the current line. The view is only valid until the cursor moves.
+     *
+     * @return the view of the current line, without its line break
+     * @throws IllegalStateException if the cursor is not on a line
+     */
+    public CharSequence line() {
+        if (!onLine) {
+            throw new IllegalStateException("The cursor is not on a line");
+        }
+        return view;
+    }
+
+    /**
+     * Returns the number of lines the cursor moved to, which is the number
+     * of the current line starting at 1.
+     *
+     * @return the number of lines read
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Closes the underlying <code>Reader</code>.
+     *
+     * @throws IOException if closing the reader fails
+     */
+    public void close() throws IOException {
+        onLine = false;
+        eof = true;
+        reader.close();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Records the current line.
+     *
+     * @param start the start of the line in the buffer
+     * @param end the end of the line in the buffer
+     */
+    private void setLine(final int start, final int end) {
+        lineStart = start;
+        lineEnd = end;
+        onLine = true;
+        lineCount++;
+    }
+
+    /**
+     * Reads more characters, moving the pending characters from a position to
+     * the start of the buffer and growing it if they fill it.
+     *
+     * @param start the position of the first pending character, which is 0 afterwards
+     * @return false if the end of the reader is reached
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean fill(final int start) throws IOException {
+        final int pending = limit - start;
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, pending);
+        } else if (pending == buffer.length) {
+            final char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, pending);
+            buffer = grown;
+        }
+        position = pending;
+        limit = pending;
+        int read;
+        do {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    /**
+     * The view of the current line.
+     */
+    private final class LineView implements CharSequence {
+
+        /**
+         * Returns the length of the line.
+         *
+         * @return the number of characters
+         */
+        public int length() {
+            return lineEnd - lineStart;
+        }
+
+        /**
+         * Returns a character of the line.
+         *
+         * @param index the index of the character
+         * @return the character
+         * @throws IndexOutOfBoundsException if the index is not in the line
+         */
+        public char charAt(final int index) {
+            if (index < 0 || index >= lineEnd - lineStart) {
+                throw new IndexOutOfBoundsException("Index " + index + ", length " + (lineEnd - lineStart));
+            }
+            return buffer[lineStart + index];
+        }
+
+        /**
+         * Returns a copy of a part of the line.
+         *
+         * @param start the start index, inclusive
+         * @param end the end index, exclusive
+         * @return the characters, as a new String
+         * @throws IndexOutOfBoundsException if the indexes are not in the line
+         */
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > lineEnd - lineStart || start > end) {
+                throw new IndexOutOfBoundsException("Range " + start + "-" + end + ", length " + (lineEnd - lineStart));
+            }
+            return new String(buffer, lineStart + start, end - start);
+        }
+
+        /**
+         * Returns a copy of the line.
+         *
+         * @return the line, as a new String
+         */
+        @Override
+        public String toString() {
+            return new String(buffer, lineStart, lineEnd - lineStart);
+        }
+    }
+
+}
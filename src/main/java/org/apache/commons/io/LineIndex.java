@@ -0,0 +1,708 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An index of the line start offsets of a text file, for reading any line
+ * without reading the lines before it.
+ * <p>
+ * Lines are separated as by {@link java.io.BufferedReader#readLine()}: by a
+ * line feed, a carriage return, or a carriage return followed by a line feed.
+ * The file is scanned once, in chunks scanned by several threads. The offsets
+ * are stored as variable length deltas, typically one or two bytes per line,
+ * with the absolute offset of every 64th line, so locating a line takes
+ * constant time.
+ * <p>
+ * An index can be saved next to the file, and {@link #update()} only scans
+ * the bytes appended to the file since it was indexed. Other modifications
+ * are not detected, except truncation which causes the file to be indexed
+ * again. Typical usage:
+ * <pre>
+ * LineIndex index = LineIndex.open(logFile, Charsets.UTF_8);
+ * try {
+ *     String line = index.readLine(1000000);
+ *     List&lt;String&gt; lines = index.readLines(2000000, 50);
+ * } finally {
+ *     index.close();
+ * }
+ * </pre>
+ * <p>
+ * The encoding must represent line feeds and carriage returns as the
+ * single bytes 10 and 13, which never occur within other characters, as
+ * ASCII, the ISO-8859 encodings and UTF-8 do. At most
+ * {@link Integer#MAX_VALUE} lines can be indexed.
+ * <p>
+ * Instances hold the file open once a line has been read, until closed, and
+ * are not thread-safe.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class LineIndex implements Closeable {
+
+    /** The suffix of the index file names. */
+    public static final String INDEX_SUFFIX = ".lineidx";
+
+    /** The magic number starting index files, "LIDX". */
+    private static final int MAGIC = 0x4C494458;
+    /** The version of the index file format. */
+    private static final int VERSION = 1;
+    /** The log2 of the number of lines between absolute offsets. */
+    private static final int BLOCK_SHIFT = 6;
+    /** The mask of the line number within a block. */
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+    /** The minimum size of the chunks scanned by each thread. */
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    /** The size of the buffers scanning chunks. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The line feed byte. */
+    private static final byte LF = '\n';
+    /** The carriage return byte. */
+    private static final byte CR = '\r';
+
+    /** The indexed file */
+    private final File file;
+    /** The encoding of the file */
+    private final Charset charset;
+    /** The number of threads scanning */
+    private final int threads;
+    /** The minimum size of the chunks scanned by each thread */
+    private final int chunkSize;
+
+    /** The length of the indexed part of the file */
+    private long indexedLength;
+    /** The number of lines */
+    private int lineCount;
+    /** The start offset of the last line */
+    private long lastStart;
+    /** The variable length deltas between line start offsets */
+    private byte[] deltas = new byte[256];
+    /** The used length of the deltas */
+    private int deltasLength;
+    /** The start offset of the first line of each block */
+    private long[] blockStarts = new long[16];
+    /** The position in the deltas following the delta of the first line of each block */
+    private int[] blockPositions = new int[16];
+    /** The file, opened by the first read */
+    private RandomAccessFile reader;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param file  the file to index
+     * @param charset  the encoding of the file
+     * @param threads  the number of threads scanning
+     * @param chunkSize  the minimum size of the chunks scanned by each thread
+     */
+    private LineIndex(final File file, final Charset charset, final int threads, final int chunkSize) {
+        if (file == null) {
+            throw new NullPointerException("File must not be null");
+        }
+        final Charset encoding = Charsets.toCharset(charset);
+        final byte[] lf = "\n".getBytes(encoding);
+        final byte[] cr = "\r".getBytes(encoding);
+        if (lf.length != 1 || lf[0] != LF || cr.length != 1 || cr[0] != CR) {
+            throw new IllegalArgumentException("Encoding " + encoding + " is not supported by line indexes");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.file = file;
+        this.charset = encoding;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Indexes a file, scanning it with as many threads as processors.
+     *
+     * @param file  the file to index, must not be {@code null}
+     * @param charset  the encoding of the file, null means the platform default
+     * @return the index
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IllegalArgumentException if the encoding is not supported
+     * @throws IOException if the file can't be read
+     */
+    public static LineIndex build(final File file, final Charset charset) throws IOException {
+        return build(file, charset, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Indexes a file.
+     *
+     * @param file  the file to index, must not be {@code null}
+     * @param charset  the encoding of the file, null means the platform default
+     * @param threads  the number of threads scanning the file
+     * @return the index
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IllegalArgumentException if the encoding is not supported or
+     * the number of threads is not positive
+     * @throws IOException if the file can't be read
+     */
+    public static LineIndex build(final File file, final Charset charset, final int threads) throws IOException {
+        return build(file, charset, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Indexes a file, with a given minimum chunk size.
+     *
+     * @param file  the file to index
+     * @param charset  the encoding of the file
+     * @param threads  the number of threads scanning the file
+     * @param chunkSize  the minimum size of the chunks scanned by each thread
+     * @return the index
+     * @throws IOException if the file can't be read
+     */
+    static LineIndex build(final File file, final Charset charset, final int threads, final int chunkSize)
+            throws IOException {
+        final LineIndex index = new LineIndex(file, charset, threads, chunkSize);
+        index.update();
+        return index;
+    }
+
+    /**
+     * Opens the saved index of a file, updating it if the file was appended to,
+     * or indexes the file if it has no valid saved index. The index is saved
+     * if it changed.
+     *
+     * @param file  the file to index, must not be {@code null}
+     * @param charset  the encoding of the file, null means the platform default
+     * @return the index
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IllegalArgumentException if the encoding is not supported
+     * @throws IOException if the file can't be read or the index can't be saved
+     * @see #getIndexFile(File)
+     */
+    public static LineIndex open(final File file, final Charset charset) throws IOException {
+        final LineIndex index = new LineIndex(file, charset, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_CHUNK_SIZE);
+        final File indexFile = getIndexFile(file);
+        if (indexFile.isFile()) {
+            try {
+                index.load(indexFile);
+            } catch (final IOException ex) {
+                index.clear(); // unreadable or stale, index again
+            }
+        }
+        if (index.update()) {
+            index.save();
+        }
+        return index;
+    }
+
+    /**
+     * Returns the file where the index of a file is saved, named after the
+     * file with the suffix {@value #INDEX_SUFFIX}.
+     *
+     * @param file  the indexed file, must not be {@code null}
+     * @return the index file
+     */
+    public static File getIndexFile(final File file) {
+        return new File(file.getPath() + INDEX_SUFFIX);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Indexes the bytes appended to the file since it was indexed, or the
+     * whole file again if it is now shorter.
+     *
+     * @return true if the index changed
+     * @throws IOException if the file can't be read
+     */
+    public boolean update() throws IOException {
+        final FileInputStream in = FileUtils.openInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final long length = channel.size();
+            if (length == indexedLength) {
+                return false;
+            }
+            if (length < indexedLength) {
+                clear();
+            }
+            final int previous = indexedLength == 0 ? -1 : readByte(channel, indexedLength - 1);
+            scan(channel, indexedLength, length, previous);
+            indexedLength = length;
+            return true;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Saves the index next to the file.
+     *
+     * @throws IOException if the index can't be written
+     * @see #getIndexFile(File)
+     */
+    public void save() throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                FileUtils.openOutputStream(getIndexFile(file))));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(indexedLength);
+            out.writeInt(lineCount);
+            out.writeInt(deltasLength);
+            out.write(deltas, 0, deltasLength);
+            out.close();
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * Returns the indexed file.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the encoding of the file.
+     *
+     * @return the encoding
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns the length of the indexed part of the file.
+     *
+     * @return the length in bytes
+     */
+    public long getIndexedLength() {
+        return indexedLength;
+    }
+
+    /**
+     * Returns the number of lines, as many as {@link java.io.BufferedReader#readLine()}
+     * returns.
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the offset of the first byte of a line.
+     *
+     * @param line  the line number, starting at 0
+     * @return the start offset of the line
+     * @throws IndexOutOfBoundsException if the line does not exist
+     */
+    public long getLineStart(final int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " of " + lineCount);
+        }
+        final int block = line >>> BLOCK_SHIFT;
+        long start = blockStarts[block];
+        int position = blockPositions[block];
+        for (int i = line & BLOCK_MASK; i > 0; i--) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = deltas[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            start += delta;
+        }
+        return start;
+    }
+
+    /**
+     * Reads a line.
+     *
+     * @param line  the line number, starting at 0
+     * @return the line, without its line break
+     * @throws IndexOutOfBoundsException if the line does not exist
+     * @throws IOException if the file can't be read
+     */
+    public String readLine(final int line) throws IOException {
+        return readLines(line, 1).get(0);
+    }
+
+    /**
+     * Reads consecutive lines with a single read.
+     *
+     * @param line  the number of the first line, starting at 0
+     * @param count  the number of lines to read
+     * @return the lines, without their line breaks
+     * @throws IndexOutOfBoundsException if any of the lines does not exist
+     * @throws IOException if the file can't be read
+     */
+    public List<String> readLines(final int line, final int count) throws IOException {
+        if (count < 0 || line < 0 || line > lineCount - count) {
+            throw new IndexOutOfBoundsException("Lines " + line + " to " + (line + count) + " of " + lineCount);
+        }
+        final List<String> lines = new ArrayList<String>(count);
+        if (count == 0) {
+            return lines;
+        }
+        final long start = getLineStart(line);
+        final long end = line + count < lineCount ? getLineStart(line + count) : indexedLength;
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Lines " + line + " to " + (line + count) + " are too long to read at once");
+        }
+        if (reader == null) {
+            reader = new RandomAccessFile(file, "r");
+        }
+        final byte[] data = new byte[(int) (end - start)];
+        reader.seek(start);
+        reader.readFully(data);
+
+        int lineStart = 0;
+        for (int i = 0; i < count; i++) {
+            final int next = i + 1 < count ? (int) (getLineStart(line + i + 1) - start) : data.length;
+            int lineEnd = next;
+            if (lineEnd > lineStart && data[lineEnd - 1] == LF) {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart && data[lineEnd - 1] == CR) {
+                lineEnd--;
+            }
+            lines.add(new String(data, lineStart, lineEnd - lineStart, charset));
+            lineStart = next;
+        }
+        return lines;
+    }
+
+    /**
+     * Closes the file, if opened to read lines. Lines can still be read
+     * afterwards, which opens the file again.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void close() throws IOException {
+        if (reader != null) {
+            try {
+                reader.close();
+            } finally {
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Provide a String representation of this index.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + file + "," + lineCount + " lines]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Scans a range of the file for line starts, in chunks scanned in parallel.
+     *
+     * @param channel  the file channel
+     * @param from  the start of the range
+     * @param to  the end of the range
+     * @param previous  the unsigned byte before the range, -1 if none
+     * @throws IOException if the file can't be read
+     */
+    private void scan(final FileChannel channel, final long from, final long to, final int previous)
+            throws IOException {
+        final long length = to - from;
+        final int chunks = (int) Math.max(1, Math.min(threads * 4L, length / Math.max(1, chunkSize)));
+        if (threads == 1 || chunks == 1) {
+            addLines(new ChunkScanner(channel, from, to, previous).call());
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks));
+        try {
+            final List<Future<ChunkScanner>> futures = new ArrayList<Future<ChunkScanner>>(chunks);
+            long chunkStart = from;
+            for (int i = 0; i < chunks; i++) {
+                final long chunkEnd = i == chunks - 1 ? to : from + length / chunks * (i + 1);
+                final int chunkPrevious = chunkStart == from ? previous : readByte(channel, chunkStart - 1);
+                futures.add(executor.submit(new ChunkScanner(channel, chunkStart, chunkEnd, chunkPrevious)));
+                chunkStart = chunkEnd;
+            }
+            for (int i = 0; i < chunks; i++) {
+                addLines(futures.get(i).get());
+                futures.set(i, null); // the scanned lines are now in the index
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while indexing " + file);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the lines of a scanned chunk to the index.
+     *
+     * @param scanner  the scanner which has scanned the chunk
+     * @throws IOException if there are too many lines
+     */
+    private void addLines(final ChunkScanner scanner) throws IOException {
+        final byte[] data = scanner.deltas;
+        int position = 0;
+        long start = scanner.from;
+        for (int i = 0; i < scanner.count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            start += delta;
+            addLine(start);
+        }
+    }
+
+    /**
+     * Adds a line to the index.
+     *
+     * @param start  the start offset of the line
+     * @throws IOException if there are too many lines
+     */
+    private void addLine(final long start) throws IOException {
+        if (lineCount == Integer.MAX_VALUE) {
+            throw new IOException("Too many lines to index in " + file);
+        }
+        if (deltasLength + 10 > deltas.length) {
+            final byte[] grown = new byte[deltas.length * 2];
+            System.arraycopy(deltas, 0, grown, 0, deltasLength);
+            deltas = grown;
+        }
+        long delta = start - lastStart;
+        while ((delta & ~0x7FL) != 0) {
+            deltas[deltasLength++] = (byte) (delta & 0x7F | 0x80);
+            delta >>>= 7;
+        }
+        deltas[deltasLength++] = (byte) delta;
+        if ((lineCount & BLOCK_MASK) == 0) {
+            final int block = lineCount >>> BLOCK_SHIFT;
+            if (block == blockStarts.length) {
+                final long[] grownStarts = new long[block * 2];
+                System.arraycopy(blockStarts, 0, grownStarts, 0, block);
+                blockStarts = grownStarts;
+                final int[] grownPositions = new int[block * 2];
+                System.arraycopy(blockPositions, 0, grownPositions, 0, block);
+                blockPositions = grownPositions;
+            }
+            blockStarts[block] = start;
+            blockPositions[block] = deltasLength;
+        }
+        lastStart = start;
+        lineCount++;
+    }
+
+    /**
+     * Loads a saved index.
+     *
+     * @param indexFile  the saved index
+     * @throws IOException if the index can't be read or does not match the file
+     */
+    private void load(final File indexFile) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                FileUtils.openInputStream(indexFile)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a line index: " + indexFile);
+            }
+            final long length = in.readLong();
+            final int count = in.readInt();
+            final int dataLength = in.readInt();
+            if (count < 0 || dataLength < 0) {
+                throw new IOException("Corrupted line index: " + indexFile);
+            }
+            final byte[] data = new byte[dataLength];
+            in.readFully(data);
+            if (length > file.length()) {
+                throw new IOException("The line index " + indexFile + " is stale");
+            }
+            int position = 0;
+            long start = 0;
+            for (int i = 0; i < count; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                start += delta;
+                addLine(start);
+            }
+            indexedLength = length;
+        } catch (final ArrayIndexOutOfBoundsException ex) {
+            throw new IOException("Corrupted line index: " + indexFile);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Empties the index.
+     */
+    private void clear() {
+        indexedLength = 0;
+        lineCount = 0;
+        lastStart = 0;
+        deltasLength = 0;
+    }
+
+    /**
+     * Reads a byte of the file.
+     *
+     * @param channel  the file channel
+     * @param position  the position of the byte
+     * @return the byte, as an unsigned value
+     * @throws IOException if the file can't be read
+     */
+    private static int readByte(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        if (channel.read(buffer, position) != 1) {
+            throw new IOException("Unexpected end of file at " + position);
+        }
+        return buffer.get(0) & 0xFF;
+    }
+
+    /**
+     * Scans a chunk of the file for line starts. A line starts at the
+     * beginning of the file, after a line feed, and after a carriage return
+     * not followed by a line feed, unless at the end of the file.
+     * <p>
+     * The line starts are recorded in the compact form of the index: variable
+     * length deltas, the first one relative to the start of the chunk.
+     */
+    private static final class ChunkScanner implements Callable<ChunkScanner> {
+
+        /** The file channel */
+        private final FileChannel channel;
+        /** The start of the chunk */
+        private final long from;
+        /** The end of the chunk */
+        private final long to;
+        /** The unsigned byte before the chunk, -1 if none */
+        private final int previous;
+        /** The line start deltas, once scanned */
+        private byte[] deltas;
+        /** The number of lines, once scanned */
+        private int count;
+
+        /**
+         * Constructs a scanner.
+         *
+         * @param channel  the file channel
+         * @param from  the start of the chunk
+         * @param to  the end of the chunk
+         * @param previous  the unsigned byte before the chunk, -1 if none
+         */
+        ChunkScanner(final FileChannel channel, final long from, final long to, final int previous) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.previous = previous;
+        }
+
+        /**
+         * Scans the chunk.
+         *
+         * @return this scanner, holding the lines
+         * @throws IOException if the file can't be read
+         */
+        public ChunkScanner call() throws IOException {
+            byte[] data = new byte[256];
+            int length = 0;
+            long last = from;
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(1, to - from)));
+            final byte[] bytes = buffer.array();
+            int prev = previous;
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                if (to - position < buffer.capacity()) {
+                    buffer.limit((int) (to - position));
+                }
+                final int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at " + position);
+                }
+                for (int i = 0; i < read; i++) {
+                    final byte b = bytes[i];
+                    if (prev == -1 || prev == LF || prev == CR && b != LF) {
+                        if (length + 10 > data.length) {
+                            final byte[] grown = new byte[data.length + (data.length >> 1)];
+                            System.arraycopy(data, 0, grown, 0, length);
+                            data = grown;
+                        }
+                        long delta = position + i - last;
+                        while ((delta & ~0x7FL) != 0) {
+                            data[length++] = (byte) (delta & 0x7F | 0x80);
+                            delta >>>= 7;
+                        }
+                        data[length++] = (byte) delta;
+                        last = position + i;
+                        count++;
+                    }
+                    prev = b & 0xFF;
+                }
+                position += read;
+            }
+            deltas = data;
+            return this;
+        }
+    }
+
+}
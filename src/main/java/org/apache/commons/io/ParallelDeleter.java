@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes the contents of a directory tree with a bounded number of threads.
+ * <p>
+ * Each directory is listed by one task, which deletes its files in batches,
+ * running as separate tasks for large directories, and queues a task for each
+ * subdirectory. A directory is deleted by whichever task finishes its last
+ * pending work, so directories are removed bottom-up as soon as they are
+ * empty, with no thread waiting for another. Failures are collected and do not
+ * stop the deletion of the rest of the tree; a directory with a failure
+ * anywhere beneath it is kept.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class ParallelDeleter {
+
+    /** The number of files deleted by one task. */
+    static final int BATCH_SIZE = 256;
+
+    /** The executor running the tasks */
+    private final ExecutorService executor;
+    /** The failures */
+    private final List<IOException> failures = new ArrayList<IOException>();
+    /** Released when the root directory is complete */
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * A directory being deleted.
+     */
+    private static final class Node {
+        /** The directory */
+        final File directory;
+        /** The parent node, null for the root */
+        final Node parent;
+        /** Whether to delete the directory once empty */
+        final boolean delete;
+        /** The work left before the directory is empty: its listing, file batches and subdirectories */
+        final AtomicInteger pending = new AtomicInteger(1);
+        /** Whether something beneath the directory could not be deleted */
+        volatile boolean failed;
+
+        Node(final File directory, final Node parent, final boolean delete) {
+            this.directory = directory;
+            this.parent = parent;
+            this.delete = delete;
+        }
+    }
+
+    /**
+     * Creates a deleter.
+     *
+     * @param threads  the maximum number of threads deleting files
+     */
+    private ParallelDeleter(final int threads) {
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Deletes the contents of a directory, and optionally the directory itself.
+     *
+     * @param directory  the directory, must exist and not be a symbolic link
+     * @param deleteRoot  whether to delete the directory itself
+     * @param threads  the maximum number of threads deleting files
+     * @throws IOExceptionList if any file or directory could not be deleted
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    static void delete(final File directory, final boolean deleteRoot, final int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        final ParallelDeleter deleter = new ParallelDeleter(threads);
+        try {
+            deleter.submitDirectory(new Node(directory, null, deleteRoot));
+            deleter.done.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deleting " + directory);
+        } finally {
+            deleter.executor.shutdownNow();
+        }
+        synchronized (deleter.failures) {
+            if (!deleter.failures.isEmpty()) {
+                throw new IOExceptionList("Unable to delete the contents of " + directory, deleter.failures);
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Queues the listing of a directory.
+     *
+     * @param node  the directory
+     */
+    private void submitDirectory(final Node node) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    list(node);
+                } catch (final RuntimeException ex) {
+                    fail(node, new IOException("Unable to delete directory " + node.directory, ex));
+                } finally {
+                    complete(node);
+                }
+            }
+        });
+    }
+
+    /**
+     * Lists a directory, queueing the deletion of its files and subdirectories.
+     *
+     * @param node  the directory
+     */
+    private void list(final Node node) {
+        final File[] files = node.directory.listFiles();
+        if (files == null) {  // null if security restricted
+            fail(node, new IOException("Failed to list contents of " + node.directory));
+            return;
+        }
+        final List<File> leaves = new ArrayList<File>();
+        final List<Node> subdirectories = new ArrayList<Node>();
+        for (final File file : files) {
+            if (isDirectory(node, file)) {
+                subdirectories.add(new Node(file, node, true));
+            } else {
+                leaves.add(file);
+            }
+        }
+        final int batches = (leaves.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+        node.pending.addAndGet(batches + subdirectories.size());
+        for (final Node subdirectory : subdirectories) {
+            submitDirectory(subdirectory);
+        }
+        // the last batch is deleted by this task
+        for (int i = 0; i < batches - 1; i++) {
+            submitFiles(node, leaves.subList(i * BATCH_SIZE, (i + 1) * BATCH_SIZE));
+        }
+        if (batches > 0) {
+            try {
+                deleteFiles(node, leaves.subList((batches - 1) * BATCH_SIZE, leaves.size()));
+            } finally {
+                complete(node);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a file is a directory to descend into rather than delete
+     * directly, symbolic links to directories being deleted as files.
+     *
+     * @param node  the parent directory
+     * @param file  the file
+     * @return true to descend into the file
+     */
+    private boolean isDirectory(final Node node, final File file) {
+        if (!file.isDirectory()) {
+            return false;
+        }
+        try {
+            return !FileUtils.isSymlink(file);
+        } catch (final IOException ioe) {
+            fail(node, ioe);
+            return false;
+        }
+    }
+
+    /**
+     * Queues the deletion of a batch of files.
+     *
+     * @param node  the directory of the files
+     * @param files  the files
+     */
+    private void submitFiles(final Node node, final List<File> files) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    deleteFiles(node, files);
+                } catch (final RuntimeException ex) {
+                    fail(node, new IOException("Unable to delete files in " + node.directory, ex));
+                } finally {
+                    complete(node);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes files, recording the failures.
+     *
+     * @param node  the directory of the files
+     * @param files  the files
+     */
+    private void deleteFiles(final Node node, final List<File> files) {
+        for (final File file : files) {
+            if (!file.delete() && file.exists()) {
+                fail(node, new IOException("Unable to delete file: " + file));
+            }
+        }
+    }
+
+    /**
+     * Completes a unit of work of a directory, deleting the directory and
+     * completing its parent once all the work is done.
+     *
+     * @param node  the directory
+     */
+    private void complete(final Node node) {
+        Node current = node;
+        while (current.pending.decrementAndGet() == 0) {
+            if (current.delete && !current.failed && !current.directory.delete()) {
+                fail(current, new IOException("Unable to delete directory " + current.directory + "."));
+            }
+            if (current.parent == null) {
+                done.countDown();
+                return;
+            }
+            if (current.failed) {
+                current.parent.failed = true;
+            }
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Records a failure.
+     *
+     * @param node  the directory where the failure occurred
+     * @param failure  the failure
+     */
+    private void fail(final Node node, final IOException failure) {
+        node.failed = true;
+        synchronized (failures) {
+            failures.add(failure);
+        }
+    }
+
+}
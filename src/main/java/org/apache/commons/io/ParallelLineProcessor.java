@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Abstract class that processes the lines of a text file with several
+ * threads, and provides subclasses with hooks to process each line and
+ * handle the results.
+ * <p>
+ * The file is split into chunks of a few megabytes, aligned on line breaks,
+ * which are read, decoded and processed by a pool of threads. Lines are split
+ * as by {@link java.io.BufferedReader#readLine()}. {@link #processLine(String)}
+ * is called concurrently by these threads, so it must be thread-safe, while
+ * {@link #handleResult(Object)} is called by the thread which called
+ * {@link #process(File, Charset)}, one result at a time, in the order of the
+ * lines of the file unless the processor is unordered. Only a few chunks are
+ * processed ahead of the results being handled, bounding the memory used.
+ * <p>
+ * For example, to count the lines matching an expensive condition:
+ * <pre>
+ *  public class MatchCounter extends ParallelLineProcessor&lt;Boolean&gt; {
+ *    private long count;
+ *
+ *    public MatchCounter() {
+ *      super(Runtime.getRuntime().availableProcessors(), false);
+ *    }
+ *
+ *    public long count(File file) throws IOException {
+ *      count = 0;
+ *      process(file, Charsets.UTF_8);
+ *      return count;
+ *    }
+ *
+ *    protected Boolean processLine(String line) {
+ *      return isMatch(line) ? Boolean.TRUE : null;
+ *    }
+ *
+ *    protected void handleResult(Boolean result) {
+ *      count++;
+ *    }
+ *  }
+ * </pre>
+ * <p>
+ * Chunks can only be split when line feeds and carriage returns are the
+ * single bytes 10 and 13, which never occur within other characters, as with
+ * ASCII, the ISO-8859 encodings and UTF-8. Files in other encodings, such as
+ * UTF-16, are processed by a single thread.
+ *
+ * @param <R> The type of the results of processing lines
+ * @version $Id$
+ * @since 2.5
+ */
+public abstract class ParallelLineProcessor<R> {
+
+    /** The default size of the chunks. */
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    /** The size of the buffers reading chunks. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The number of chunks processed ahead of the results being handled, per thread. */
+    private static final int CHUNKS_AHEAD = 2;
+    /** The line feed byte. */
+    private static final int LF = '\n';
+    /** The carriage return byte. */
+    private static final int CR = '\r';
+
+    /** The number of threads processing lines */
+    private final int threads;
+    /** Whether results are handled in the order of the lines */
+    private final boolean ordered;
+    /** The size of the chunks */
+    private final int chunkSize;
+
+    /**
+     * Construct an instance processing lines with as many threads as
+     * processors, handling the results in the order of the lines.
+     */
+    protected ParallelLineProcessor() {
+        this(Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Construct an instance.
+     *
+     * @param threads  the number of threads processing lines
+     * @param ordered  whether the results are handled in the order of the lines,
+     * rather than as soon as the lines of a chunk are processed
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    protected ParallelLineProcessor(final int threads, final boolean ordered) {
+        this(threads, ordered, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Construct an instance with a given chunk size.
+     *
+     * @param threads  the number of threads processing lines
+     * @param ordered  whether the results are handled in the order of the lines
+     * @param chunkSize  the size of the chunks
+     */
+    ParallelLineProcessor(final int threads, final boolean ordered, final int chunkSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Processes the lines of a file. This method is intended to be called by
+     * the subclass, which may give access to the results of the processing.
+     *
+     * @param file  the file to process, must not be {@code null}
+     * @param encoding  the encoding of the file, null means the platform default
+     * @throws NullPointerException if the file is {@code null}
+     * @throws IOException if the file can't be read, or processing or handling fails
+     */
+    protected final void process(final File file, final Charset encoding) throws IOException {
+        final Charset charset = Charsets.toCharset(encoding);
+        final FileInputStream in = FileUtils.openInputStream(file);
+        try {
+            if (!isSplittable(charset)) {
+                processSequentially(new InputStreamReader(in, charset));
+                return;
+            }
+            final FileChannel channel = in.getChannel();
+            final long length = channel.size();
+            final long chunks = Math.max(1, (length + chunkSize - 1) / chunkSize);
+            if (threads == 1 || chunks == 1) {
+                for (long i = 0; i < chunks; i++) {
+                    handleResults(new Chunk(channel, charset, i * chunkSize, Math.min(length, (i + 1) * chunkSize))
+                            .call());
+                }
+            } else {
+                processInParallel(channel, charset, length, chunks);
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Processes a line. This method is called concurrently by several threads.
+     *
+     * @param line  the line, without its line break
+     * @return the result to handle, null for none
+     * @throws IOException if an I/O error is thrown
+     */
+    protected abstract R processLine(String line) throws IOException;
+
+    /**
+     * Handles the result of processing a line. This method is called by the
+     * thread processing the file, in the order of the lines if ordered.
+     * <p>
+     * This implementation does nothing.
+     *
+     * @param result  the result of processing a line, not null
+     * @throws IOException if an I/O error is thrown
+     */
+    protected void handleResult(final R result) throws IOException {
+        // do nothing - overridable by subclass
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Processes the chunks of a file with a pool of threads, keeping a few
+     * chunks ahead of the results being handled.
+     *
+     * @param channel  the file channel
+     * @param charset  the encoding of the file
+     * @param length  the length of the file
+     * @param chunks  the number of chunks
+     * @throws IOException if processing or handling fails
+     */
+    private void processInParallel(final FileChannel channel, final Charset charset, final long length,
+            final long chunks) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // the completion queue retains every finished chunk until taken, so it is only used unordered
+            final CompletionService<List<R>> completion = ordered ? null
+                    : new ExecutorCompletionService<List<R>>(executor);
+            final LinkedList<Future<List<R>>> pending = new LinkedList<Future<List<R>>>();
+            final int ahead = threads * CHUNKS_AHEAD;
+            long next = 0;
+            while (next < chunks || !pending.isEmpty()) {
+                while (next < chunks && pending.size() < ahead) {
+                    final long start = next * chunkSize;
+                    final Chunk chunk = new Chunk(channel, charset, start, Math.min(length, start + chunkSize));
+                    pending.add(ordered ? executor.submit(chunk) : completion.submit(chunk));
+                    next++;
+                }
+                final Future<List<R>> done;
+                if (ordered) {
+                    done = pending.removeFirst();
+                } else {
+                    done = completion.take();
+                    pending.remove(done);
+                }
+                handleResults(done.get());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing lines");
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes the lines of a file one by one.
+     *
+     * @param reader  the reader of the file
+     * @throws IOException if processing or handling fails
+     */
+    private void processSequentially(final InputStreamReader reader) throws IOException {
+        final LineIterator iterator = new LineIterator(reader);
+        while (iterator.hasNext()) {
+            final R result = processLine(iterator.nextLine());
+            if (result != null) {
+                handleResult(result);
+            }
+        }
+    }
+
+    /**
+     * Handles the results of a chunk.
+     *
+     * @param results  the results
+     * @throws IOException if handling fails
+     */
+    private void handleResults(final List<R> results) throws IOException {
+        for (final R result : results) {
+            handleResult(result);
+        }
+    }
+
+    /**
+     * Checks whether files in an encoding can be split on line breaks
+     * without decoding them.
+     *
+     * @param charset  the encoding
+     * @return true if line feeds and carriage returns are single bytes
+     */
+    static boolean isSplittable(final Charset charset) {
+        final byte[] lf = "\n".getBytes(charset);
+        final byte[] cr = "\r".getBytes(charset);
+        return lf.length == 1 && lf[0] == LF && cr.length == 1 && cr[0] == CR;
+    }
+
+    /**
+     * Processes the lines starting in a byte range of the file, reading the
+     * last one to its end.
+     */
+    private final class Chunk implements Callable<List<R>> {
+
+        /** The file channel */
+        private final FileChannel channel;
+        /** The encoding of the file */
+        private final Charset charset;
+        /** The start of the range */
+        private final long start;
+        /** The end of the range */
+        private final long end;
+        /** The read buffer */
+        private ByteBuffer buffer;
+        /** The file position of the buffer */
+        private long bufferPosition;
+        /** The bytes of the current line */
+        private byte[] line = new byte[256];
+
+        /**
+         * Constructs a chunk.
+         *
+         * @param channel  the file channel
+         * @param charset  the encoding of the file
+         * @param start  the start of the range
+         * @param end  the end of the range
+         */
+        Chunk(final FileChannel channel, final Charset charset, final long start, final long end) {
+            this.channel = channel;
+            this.charset = charset;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Processes the lines of the chunk.
+         *
+         * @return the results
+         * @throws IOException if processing fails
+         */
+        public List<R> call() throws IOException {
+            final List<R> results = new ArrayList<R>();
+            if (start >= end) {
+                return results;
+            }
+            buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(1024, end - start + 1)));
+            buffer.limit(0);
+            bufferPosition = start > 0 ? start - 1 : 0;
+
+            // --- skip to the first line starting in the range ---
+            int prev = start > 0 ? read() : -1;
+            int b = read();
+            while (b != -1 && !(prev == -1 || prev == LF || prev == CR && b != LF)) {
+                prev = b;
+                b = read();
+            }
+
+            // --- process the lines starting in the range ---
+            while (b != -1 && position() - 1 < end) {
+                int length = 0;
+                while (b != -1 && b != LF && b != CR) {
+                    if (length == line.length) {
+                        final byte[] grown = new byte[line.length * 2];
+                        System.arraycopy(line, 0, grown, 0, length);
+                        line = grown;
+                    }
+                    line[length++] = (byte) b;
+                    b = read();
+                }
+                final R result = processLine(new String(line, 0, length, charset));
+                if (result != null) {
+                    results.add(result);
+                }
+                if (b == CR) {
+                    b = read();
+                    if (b == LF) {
+                        b = read();
+                    }
+                } else if (b == LF) {
+                    b = read();
+                }
+            }
+            return results;
+        }
+
+        /**
+         * Returns the file position following the last byte read.
+         *
+         * @return the file position
+         */
+        private long position() {
+            return bufferPosition + buffer.position();
+        }
+
+        /**
+         * Reads the next byte of the file.
+         *
+         * @return the unsigned byte, -1 at the end of the file
+         * @throws IOException if the file can't be read
+         */
+        private int read() throws IOException {
+            if (!buffer.hasRemaining()) {
+                bufferPosition += buffer.limit();
+                buffer.clear();
+                int read = 0;
+                while (read == 0) {
+                    read = channel.read(buffer, bufferPosition);
+                }
+                buffer.flip();
+                if (read < 0) {
+                    return -1;
+                }
+            }
+            return buffer.get() & 0xFF;
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves a directory tree by copying and deleting each file, with a bounded
+ * number of threads.
+ * <p>
+ * Each source directory is listed by one task, which creates the destination
+ * directory and queues a task for each file and subdirectory. A file task
+ * copies the file, checks the copy has the length of the source, and only
+ * then deletes the source, so copying and deleting proceed together across
+ * the tree. A source directory is deleted by whichever task finishes its last
+ * pending work. Failures are collected and do not stop the move of the rest of
+ * the tree; a source which could not be moved is kept, as are the source
+ * directories containing it.
+ * <p>
+ * As with {@link FileUtils#copyDirectory(File, File)}, symbolic links are
+ * followed when copying; the links themselves are deleted from the source,
+ * not the files they point to.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class ParallelMover {
+
+    /** The executor running the tasks */
+    private final ExecutorService executor;
+    /** The failures */
+    private final List<IOException> failures = new ArrayList<IOException>();
+    /** Released when the root directory is complete */
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * A directory being moved.
+     */
+    private static final class Node {
+        /** The source directory */
+        final File source;
+        /** The destination directory */
+        final File destination;
+        /** The parent node, null for the root */
+        final Node parent;
+        /** Whether the source is a symbolic link, deleted without its contents */
+        final boolean link;
+        /** Whether to delete the sources, false beneath a symbolic link */
+        final boolean deleteSources;
+        /** The work left: the listing, the files and the subdirectories */
+        final AtomicInteger pending = new AtomicInteger(1);
+        /** The last modification time of the source, read before it is emptied */
+        volatile long lastModified;
+        /** Whether something beneath the directory could not be moved */
+        volatile boolean failed;
+
+        Node(final File source, final File destination, final Node parent, final boolean link,
+                final boolean deleteSources) {
+            this.source = source;
+            this.destination = destination;
+            this.parent = parent;
+            this.link = link;
+            this.deleteSources = deleteSources;
+        }
+    }
+
+    /**
+     * Creates a mover.
+     *
+     * @param threads  the maximum number of threads moving files
+     */
+    private ParallelMover(final int threads) {
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Moves a directory tree by copying and deleting each file.
+     *
+     * @param srcDir  the source directory, must exist and not be a symbolic link
+     * @param destDir  the destination directory, must not exist
+     * @param threads  the maximum number of threads moving files
+     * @throws IOExceptionList if any file or directory could not be moved
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    static void move(final File srcDir, final File destDir, final int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        final ParallelMover mover = new ParallelMover(threads);
+        try {
+            mover.submitDirectory(new Node(srcDir, destDir, null, false, true));
+            mover.done.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while moving " + srcDir + " to " + destDir);
+        } finally {
+            mover.executor.shutdownNow();
+        }
+        synchronized (mover.failures) {
+            if (!mover.failures.isEmpty()) {
+                throw new IOExceptionList("Unable to move " + srcDir + " to " + destDir, mover.failures);
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Queues the listing of a directory.
+     *
+     * @param node  the directory
+     */
+    private void submitDirectory(final Node node) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    list(node);
+                } catch (final IOException ex) {
+                    fail(node, ex);
+                } catch (final RuntimeException ex) {
+                    fail(node, new IOException("Unable to move directory " + node.source, ex));
+                } finally {
+                    complete(node);
+                }
+            }
+        });
+    }
+
+    /**
+     * Creates the destination of a directory and queues the move of its
+     * contents.
+     *
+     * @param node  the directory
+     * @throws IOException if the directory can not be listed or created
+     */
+    private void list(final Node node) throws IOException {
+        node.lastModified = node.source.lastModified();
+        final File[] files = node.source.listFiles();
+        if (files == null) {  // null if security restricted
+            throw new IOException("Failed to list contents of " + node.source);
+        }
+        if (!node.destination.mkdirs() && !node.destination.isDirectory()) {
+            throw new IOException("Destination '" + node.destination + "' directory cannot be created");
+        }
+        final List<Node> subdirectories = new ArrayList<Node>();
+        final List<File> leaves = new ArrayList<File>();
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                final boolean link = node.deleteSources && FileUtils.isSymlink(file);
+                subdirectories.add(new Node(file, new File(node.destination, file.getName()), node, link,
+                        node.deleteSources && !link));
+            } else {
+                leaves.add(file);
+            }
+        }
+        node.pending.addAndGet(subdirectories.size() + leaves.size());
+        for (final Node subdirectory : subdirectories) {
+            submitDirectory(subdirectory);
+        }
+        for (final File file : leaves) {
+            submitFile(node, file);
+        }
+    }
+
+    /**
+     * Queues the move of a file.
+     *
+     * @param node  the directory of the file
+     * @param file  the source file
+     */
+    private void submitFile(final Node node, final File file) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    moveFile(node, file);
+                } catch (final IOException ex) {
+                    fail(node, ex);
+                } catch (final RuntimeException ex) {
+                    fail(node, new IOException("Unable to move file " + file, ex));
+                } finally {
+                    complete(node);
+                }
+            }
+        });
+    }
+
+    /**
+     * Copies a file, checks the copy and deletes the source.
+     *
+     * @param node  the directory of the file
+     * @param file  the source file
+     * @throws IOException if the file could not be moved
+     */
+    private void moveFile(final Node node, final File file) throws IOException {
+        final File destFile = new File(node.destination, file.getName());
+        final long length = file.length();
+        FileUtils.copyFile(file, destFile, true);
+        if (destFile.length() != length) {
+            throw new IOException("Failed to copy full contents from '" + file + "' to '" + destFile
+                    + "' Expected length: " + length + " Actual: " + destFile.length());
+        }
+        if (node.deleteSources && !file.delete()) {
+            throw new IOException("Unable to delete file: " + file);
+        }
+    }
+
+    /**
+     * Completes a unit of work of a directory, finishing the directory and
+     * completing its parent once all the work is done.
+     *
+     * @param node  the directory
+     */
+    private void complete(final Node node) {
+        Node current = node;
+        while (current.pending.decrementAndGet() == 0) {
+            if (!current.failed) {
+                current.destination.setLastModified(current.lastModified);
+                if ((current.deleteSources || current.link) && !current.source.delete()) {
+                    fail(current, new IOException("Unable to delete directory " + current.source + "."));
+                }
+            }
+            if (current.parent == null) {
+                done.countDown();
+                return;
+            }
+            if (current.failed) {
+                current.parent.failed = true;
+            }
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Records a failure.
+     *
+     * @param node  the directory where the failure occurred
+     * @param failure  the failure
+     */
+    private void fail(final Node node, final IOException failure) {
+        node.failed = true;
+        synchronized (failures) {
+            failures.add(failure);
+        }
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.Serializable;
+
+/**
+ * A compiled wildcard, for matching many texts against the same wildcard.
+ * <p>
+ * The wildcard uses the characters '?' and '*' to represent a single or
+ * multiple (zero or more) wildcard characters, and matches exactly as
+ * {@link FilenameUtils#wildcardMatch(String, String, IOCase)} does. That
+ * method analyses the wildcard on each call, while this class does it once:
+ * {@link #matches(CharSequence)} allocates no memory, and wildcards of the form
+ * <code>text</code>, <code>text*</code>, <code>*text</code> and <code>*text*</code>
+ * are matched by a direct comparison.
+ * <p>
+ * For example, to count the log files of a list of names:
+ * <pre>
+ * WildcardPattern pattern = new WildcardPattern("*.log", IOCase.SYSTEM);
+ * int count = 0;
+ * for (String name : names) {
+ *     if (pattern.matches(name)) {
+ *         count++;
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * As with <code>wildcardMatch</code>, a '*' directly followed by a '?' is
+ * currently ignored, so that <code>"*?"</code> matches single characters only.
+ * <p>
+ * Instances are immutable and safe for concurrent use.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public final class WildcardPattern implements Serializable {
+
+    private static final long serialVersionUID = 5961718530153271346L;
+
+    /** The wildcard has no wildcard characters. */
+    private static final int EXACT = 0;
+    /** The wildcard has the form <code>text*</code>. */
+    private static final int PREFIX = 1;
+    /** The wildcard has the form <code>*text</code>. */
+    private static final int SUFFIX = 2;
+    /** The wildcard has the form <code>*text*</code>. */
+    private static final int CONTAINS = 3;
+    /** The wildcard only has stars. */
+    private static final int ANY = 4;
+    /** Any other wildcard. */
+    private static final int GENERAL = 5;
+
+    /** The wildcard as given. */
+    private final String wildcard;
+    /** How to handle case sensitivity. */
+    private final IOCase caseSensitivity;
+    /** Whether the comparison is case sensitive. */
+    private final boolean sensitive;
+    /** The form of the wildcard. */
+    private final int kind;
+    /**
+     * The literal text for the direct comparison forms, else the wildcard
+     * without repeated stars, stars followed by '?', case folded if needed.
+     */
+    private final char[] pattern;
+
+    /**
+     * Compiles a case-sensitive wildcard.
+     *
+     * @param wildcard  the wildcard to compile, not null
+     * @throws IllegalArgumentException if the wildcard is null
+     */
+    public WildcardPattern(final String wildcard) {
+        this(wildcard, IOCase.SENSITIVE);
+    }
+
+    /**
+     * Compiles a wildcard specifying case-sensitivity.
+     *
+     * @param wildcard  the wildcard to compile, not null
+     * @param caseSensitivity  how to handle case sensitivity, null means case-sensitive
+     * @throws IllegalArgumentException if the wildcard is null
+     */
+    public WildcardPattern(final String wildcard, final IOCase caseSensitivity) {
+        if (wildcard == null) {
+            throw new IllegalArgumentException("The wildcard must not be null");
+        }
+        this.wildcard = wildcard;
+        this.caseSensitivity = caseSensitivity == null ? IOCase.SENSITIVE : caseSensitivity;
+        this.sensitive = this.caseSensitivity.isCaseSensitive();
+
+        // normalize: "**" is "*", and "*?" is "?" as in FilenameUtils.wildcardMatch
+        final StringBuilder buffer = new StringBuilder(wildcard.length());
+        final int length = wildcard.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = wildcard.charAt(i);
+            if (ch == '*') {
+                int next = i + 1;
+                while (next < length && wildcard.charAt(next) == '*') {
+                    next++;
+                }
+                i = next - 1;
+                if (next < length && wildcard.charAt(next) == '?') {
+                    continue;
+                }
+                buffer.append('*');
+            } else {
+                buffer.append(ch == '?' ? ch : fold(ch));
+            }
+        }
+
+        final int start = buffer.length() > 0 && buffer.charAt(0) == '*' ? 1 : 0;
+        final int end = buffer.length() > start && buffer.charAt(buffer.length() - 1) == '*'
+                ? buffer.length() - 1 : buffer.length();
+        final String text = buffer.substring(start, end);
+        if (text.indexOf('*') >= 0 || text.indexOf('?') >= 0) {
+            kind = GENERAL;
+            pattern = buffer.toString().toCharArray();
+        } else {
+            pattern = text.toCharArray();
+            if (start == 0 && end == buffer.length()) {
+                kind = EXACT;
+            } else if (text.length() == 0) {
+                kind = ANY;
+            } else if (start == 0) {
+                kind = PREFIX;
+            } else if (end == buffer.length()) {
+                kind = SUFFIX;
+            } else {
+                kind = CONTAINS;
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the wildcard, as given.
+     *
+     * @return the wildcard
+     */
+    public String getWildcard() {
+        return wildcard;
+    }
+
+    /**
+     * Returns how case sensitivity is handled.
+     *
+     * @return the case sensitivity, not null
+     */
+    public IOCase getCaseSensitivity() {
+        return caseSensitivity;
+    }
+
+    /**
+     * Checks whether a text matches the wildcard.
+     *
+     * @param text  the text to match, null never matches
+     * @return true if the text matches the wildcard
+     */
+    public boolean matches(final CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        final int textLength = text.length();
+        switch (kind) {
+            case EXACT:
+                return textLength == pattern.length && regionMatches(text, 0);
+            case PREFIX:
+                return textLength >= pattern.length && regionMatches(text, 0);
+            case SUFFIX:
+                return textLength >= pattern.length && regionMatches(text, textLength - pattern.length);
+            case CONTAINS:
+                for (int i = 0; i <= textLength - pattern.length; i++) {
+                    if (regionMatches(text, i)) {
+                        return true;
+                    }
+                }
+                return false;
+            case ANY:
+                return true;
+            default:
+                return matchesGeneral(text);
+        }
+    }
+
+    /**
+     * Provide a String representation of this pattern.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + wildcard + "," + caseSensitivity + ")";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Matches a text against a general wildcard, retrying from the last star
+     * on a mismatch.
+     *
+     * @param text  the text to match
+     * @return true if the text matches
+     */
+    private boolean matchesGeneral(final CharSequence text) {
+        final char[] pattern = this.pattern;
+        final int textLength = text.length();
+        int textIdx = 0;
+        int patternIdx = 0;
+        int starIdx = -1;
+        int starTextIdx = 0;
+        while (textIdx < textLength) {
+            if (patternIdx < pattern.length && pattern[patternIdx] != '*'
+                    && (pattern[patternIdx] == '?' || pattern[patternIdx] == fold(text.charAt(textIdx)))) {
+                patternIdx++;
+                textIdx++;
+            } else if (patternIdx < pattern.length && pattern[patternIdx] == '*') {
+                starIdx = patternIdx++;
+                starTextIdx = textIdx;
+            } else if (starIdx >= 0) {
+                patternIdx = starIdx + 1;
+                textIdx = ++starTextIdx;
+            } else {
+                return false;
+            }
+        }
+        while (patternIdx < pattern.length && pattern[patternIdx] == '*') {
+            patternIdx++;
+        }
+        return patternIdx == pattern.length;
+    }
+
+    /**
+     * Checks whether the literal text appears in a text at a given index.
+     *
+     * @param text  the text to check
+     * @param offset  the index in the text, the text must be long enough
+     * @return true if the literal text is found
+     */
+    private boolean regionMatches(final CharSequence text, final int offset) {
+        final char[] pattern = this.pattern;
+        for (int i = 0; i < pattern.length; i++) {
+            if (pattern[i] != fold(text.charAt(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Folds the case of a character the same way as
+     * {@link String#regionMatches(boolean, int, String, int, int)} compares
+     * characters, if the comparison is case-insensitive.
+     *
+     * @param ch  the character
+     * @return the folded character
+     */
+    private char fold(final char ch) {
+        if (sensitive) {
+            return ch;
+        }
+        return Character.toLowerCase(Character.toUpperCase(ch));
+    }
+
+}
@@ -21,9 +21,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Abstract file {@link Comparator} which provides sorting for file arrays and lists.
+ * <p>
+ * Comparators comparing a value derived from each file, such as its size,
+ * define it as a sort key; sorting then fetches the key of each file once
+ * instead of on every comparison.
  *
  * @version $Id$
  * @since 2.0
@@ -33,8 +38,10 @@ abstract class AbstractFileComparator implements Comparator<File> {
     /**
      * Sort an array of files.
      * <p>
-     * This method uses {@link Arrays#sort(Object[], Comparator)}
-     * and returns the original array.
+     * This method sorts as {@link Arrays#sort(Object[], Comparator)} does,
+     * fetching the sort key of each file only once, and returns the original array.
+     * Sort keys needing file system access are fetched by several threads for
+     * large arrays.
      *
      * @param files The files to sort, may be null
      * @return The sorted array
@@ -42,7 +49,7 @@ abstract class AbstractFileComparator implements Comparator<File> {
      */
     public File[] sort(final File... files) {
         if (files != null) {
-            Arrays.sort(files, this);
+            FileSorter.sort(this, files);
         }
         return files;
     }
@@ -50,8 +57,8 @@ abstract class AbstractFileComparator implements Comparator<File> {
     /**
      * Sort a List of files.
      * <p>
-     * This method uses {@link Collections#sort(List, Comparator)}
-     * and returns the original list.
+     * This method sorts as {@link Collections#sort(List, Comparator)} does,
+     * fetching the sort key of each file only once, and returns the original list.
      *
      * @param files The files to sort, may be null
      * @return The sorted list
@@ -59,11 +66,111 @@ abstract class AbstractFileComparator implements Comparator<File> {
      */
     public List<File> sort(final List<File> files) {
         if (files != null) {
-            Collections.sort(files, this);
+            final File[] array = files.toArray(new File[files.size()]);
+            FileSorter.sort(this, array);
+            copy(array, files);
         }
         return files;
     }
 
+    /**
+     * Sort an array of files using several threads.
+     * <p>
+     * This method sorts as {@link #sort(File...)} does, and gives the same
+     * order, but large arrays are split into slices sorted by separate threads,
+     * then merged. Sort keys, such as case-folded names, are computed once per
+     * file by the thread sorting it.
+     *
+     * @param files The files to sort, may be null
+     * @return The sorted array
+     * @since 2.5
+     */
+    public File[] parallelSort(final File... files) {
+        if (files != null) {
+            FileSorter.parallelSort(this, files, Runtime.getRuntime().availableProcessors());
+        }
+        return files;
+    }
+
+    /**
+     * Sort a List of files using several threads.
+     * <p>
+     * This method sorts as {@link #sort(List)} does, and gives the same
+     * order, but large lists are split into slices sorted by separate threads,
+     * then merged.
+     *
+     * @param files The files to sort, may be null
+     * @return The sorted list
+     * @since 2.5
+     */
+    public List<File> parallelSort(final List<File> files) {
+        if (files != null) {
+            final File[] array = files.toArray(new File[files.size()]);
+            FileSorter.parallelSort(this, array, Runtime.getRuntime().availableProcessors());
+            copy(array, files);
+        }
+        return files;
+    }
+
+    /**
+     * Copies sorted files back into a list.
+     *
+     * @param array  the sorted files
+     * @param files  the list to update, of the same size
+     */
+    private static void copy(final File[] array, final List<File> files) {
+        final ListIterator<File> iterator = files.listIterator();
+        for (final File file : array) {
+            iterator.next();
+            iterator.set(file);
+        }
+    }
+
+    /**
+     * Checks whether this comparator defines sort keys. Comparators overriding
+     * the sort key methods only define them for their own class, as a subclass
+     * may have redefined {@link #compare(Object, Object)}.
+     *
+     * @return true if the sort key methods can be used instead of compare
+     * @since 2.5
+     */
+    boolean isSortKeyed() {
+        return false;
+    }
+
+    /**
+     * Checks whether fetching a sort key accesses the file system.
+     *
+     * @return true if fetching a sort key accesses the file system
+     * @since 2.5
+     */
+    boolean isSortKeyCostly() {
+        return false;
+    }
+
+    /**
+     * Returns the value of a file this comparator compares.
+     *
+     * @param file  the file
+     * @return the sort key, the file itself by default
+     * @since 2.5
+     */
+    Object getSortKey(final File file) {
+        return file;
+    }
+
+    /**
+     * Compares two sort keys, giving the result compare would give for their files.
+     *
+     * @param key1  the first sort key
+     * @param key2  the second sort key
+     * @return the comparison result
+     * @since 2.5
+     */
+    int compareSortKeys(final Object key1, final Object key2) {
+        return compare((File) key1, (File) key2);
+    }
+
     /**
      * String representation of this file comparator.
      *
@@ -38,6 +38,9 @@ import java.util.List;
  *       List&lt;File&gt; list = ...
  *       comparator.sort(list);
  * </pre>
+ * <p>
+ * Sorting fetches the values compared by each delegate once per file, and
+ * {@link #parallelSort(List)} sorts large lists with several threads.
  *
  * @version $Id$
  * @since 2.0
@@ -100,6 +103,50 @@ public class CompositeFileComparator extends AbstractFileComparator implements S
         return result;
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == CompositeFileComparator.class;
+    }
+
+    @Override
+    boolean isSortKeyCostly() {
+        for (final Comparator<File> delegate : delegates) {
+            if (FileSorter.isSortKeyCostly(delegate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sort keys of all the delegate comparators.
+     *
+     * @param file  the file
+     * @return the sort keys, as an Object array
+     */
+    @Override
+    Object getSortKey(final File file) {
+        final Object[] keys = new Object[delegates.length];
+        for (int i = 0; i < delegates.length; i++) {
+            keys[i] = FileSorter.getSortKey(delegates[i], file);
+        }
+        return keys;
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        final Object[] keys1 = (Object[]) key1;
+        final Object[] keys2 = (Object[]) key2;
+        int result = 0;
+        for (int i = 0; i < delegates.length; i++) {
+            result = FileSorter.compareSortKeys(delegates[i], keys1[i], keys2[i]);
+            if (result != 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
     /**
      * String representation of this file comparator.
      *
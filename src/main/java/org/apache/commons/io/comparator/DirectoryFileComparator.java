@@ -78,4 +78,30 @@ public class DirectoryFileComparator extends AbstractFileComparator implements S
             return 2;
         }
     }
+
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == DirectoryFileComparator.class;
+    }
+
+    @Override
+    boolean isSortKeyCostly() {
+        return true;
+    }
+
+    /**
+     * Returns the type of a file.
+     *
+     * @param file  the file
+     * @return the file type, as an Integer
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return Integer.valueOf(getType(file));
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return ((Integer) key1).intValue() - ((Integer) key2).intValue();
+    }
 }
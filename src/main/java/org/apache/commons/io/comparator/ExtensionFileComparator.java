@@ -111,6 +111,28 @@ public class ExtensionFileComparator extends AbstractFileComparator implements S
         return caseSensitivity.checkCompareTo(suffix1, suffix2);
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == ExtensionFileComparator.class;
+    }
+
+    /**
+     * Returns the extension of a file, case folded if the comparison is
+     * case-insensitive.
+     *
+     * @param file  the file
+     * @return the sort key, as a String
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return FileSorter.foldCase(FilenameUtils.getExtension(file.getName()), caseSensitivity);
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return ((String) key1).compareTo((String) key2);
+    }
+
     /**
      * String representation of this file comparator.
      *
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.comparator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOCase;
+
+/**
+ * Sorts files by decorating each with its sort key, sorting the decorated
+ * files, then removing the decoration, so that the key of each file is fetched
+ * once rather than on every comparison.
+ * <p>
+ * Keys needing file system access are fetched by several threads for large arrays.
+ * The parallel sort also sorts with several threads: each sorts a slice of
+ * the decorated files, then the sorted slices are merged pairwise.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class FileSorter {
+
+    /** The number of files from which costly sort keys are fetched by several threads. */
+    static final int PARALLEL_KEY_THRESHOLD = 1000;
+
+    /** The minimum number of files sorted by each thread of a parallel sort. */
+    static final int PARALLEL_SORT_THRESHOLD = 8192;
+
+    /**
+     * A file decorated with its sort key.
+     */
+    static final class Entry {
+        /** The file */
+        final File file;
+        /** The sort key of the file */
+        Object key;
+
+        Entry(final File file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Instances should NOT be constructed in standard programming.
+     */
+    private FileSorter() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sorts an array of files in place, stable.
+     *
+     * @param comparator  the comparator defining the order
+     * @param files  the files to sort, not null
+     */
+    static void sort(final AbstractFileComparator comparator, final File[] files) {
+        if (files.length < 2 || !comparator.isSortKeyed()) {
+            Arrays.sort(files, comparator);
+            return;
+        }
+        final Entry[] entries = decorate(comparator, files);
+        Arrays.sort(entries, entryComparator(comparator));
+        for (int i = 0; i < entries.length; i++) {
+            files[i] = entries[i].file;
+        }
+    }
+
+    /**
+     * Sorts an array of files in place with several threads, stable.
+     *
+     * @param comparator  the comparator defining the order
+     * @param files  the files to sort, not null
+     * @param threads  the maximum number of threads to use
+     */
+    static void parallelSort(final Comparator<File> comparator, final File[] files, final int threads) {
+        final int slices = Math.min(threads, files.length / PARALLEL_SORT_THRESHOLD);
+        if (slices < 2) {
+            if (comparator instanceof AbstractFileComparator) {
+                sort((AbstractFileComparator) comparator, files);
+            } else {
+                Arrays.sort(files, comparator);
+            }
+            return;
+        }
+        final Comparator<Entry> entryComparator = new Comparator<Entry>() {
+            public int compare(final Entry entry1, final Entry entry2) {
+                return compareSortKeys(comparator, entry1.key, entry2.key);
+            }
+        };
+        final int[] bounds = new int[slices + 1];
+        for (int i = 0; i <= slices; i++) {
+            bounds[i] = (int) ((long) files.length * i / slices);
+        }
+        Entry[] entries = new Entry[files.length];
+        Entry[] buffer = new Entry[files.length];
+        final ExecutorService executor = Executors.newFixedThreadPool(slices);
+        try {
+            // decorate and sort each slice
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < slices; i++) {
+                final Entry[] target = entries;
+                final int from = bounds[i];
+                final int to = bounds[i + 1];
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        for (int j = from; j < to; j++) {
+                            target[j] = new Entry(files[j]);
+                            target[j].key = getSortKey(comparator, files[j]);
+                        }
+                        Arrays.sort(target, from, to, entryComparator);
+                        return null;
+                    }
+                }));
+            }
+            await(futures);
+
+            // merge pairs of sorted runs until one is left
+            for (int width = 1; width < slices; width *= 2) {
+                futures.clear();
+                for (int i = 0; i < slices; i += 2 * width) {
+                    final Entry[] source = entries;
+                    final Entry[] target = buffer;
+                    final int from = bounds[i];
+                    final int middle = bounds[Math.min(i + width, slices)];
+                    final int to = bounds[Math.min(i + 2 * width, slices)];
+                    futures.add(executor.submit(new Callable<Void>() {
+                        public Void call() {
+                            merge(source, target, from, middle, to, entryComparator);
+                            return null;
+                        }
+                    }));
+                }
+                await(futures);
+                final Entry[] swap = entries;
+                entries = buffer;
+                buffer = swap;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < entries.length; i++) {
+            files[i] = entries[i].file;
+        }
+    }
+
+    /**
+     * Returns the sort key of a file for a comparator.
+     *
+     * @param comparator  the comparator
+     * @param file  the file
+     * @return the sort key, the file itself if the comparator has no sort keys
+     */
+    static Object getSortKey(final Comparator<File> comparator, final File file) {
+        if (comparator instanceof AbstractFileComparator && ((AbstractFileComparator) comparator).isSortKeyed()) {
+            return ((AbstractFileComparator) comparator).getSortKey(file);
+        }
+        return file;
+    }
+
+    /**
+     * Compares two sort keys of a comparator.
+     *
+     * @param comparator  the comparator
+     * @param key1  the first sort key, from {@link #getSortKey(Comparator, File)}
+     * @param key2  the second sort key, from {@link #getSortKey(Comparator, File)}
+     * @return the comparison result, as the comparator would return for the files
+     */
+    static int compareSortKeys(final Comparator<File> comparator, final Object key1, final Object key2) {
+        if (comparator instanceof AbstractFileComparator && ((AbstractFileComparator) comparator).isSortKeyed()) {
+            return ((AbstractFileComparator) comparator).compareSortKeys(key1, key2);
+        }
+        return comparator.compare((File) key1, (File) key2);
+    }
+
+    /**
+     * Checks whether fetching the sort keys of a comparator accesses the file system.
+     *
+     * @param comparator  the comparator
+     * @return true if fetching a sort key accesses the file system
+     */
+    static boolean isSortKeyCostly(final Comparator<File> comparator) {
+        return comparator instanceof AbstractFileComparator
+                && ((AbstractFileComparator) comparator).isSortKeyed()
+                && ((AbstractFileComparator) comparator).isSortKeyCostly();
+    }
+
+    /**
+     * Folds the case of a text for case-insensitive sort keys, so that
+     * comparing folded texts with {@link String#compareTo(String)} gives the
+     * result of {@link String#compareToIgnoreCase(String)}.
+     *
+     * @param text  the text to fold
+     * @param caseSensitivity  the case sensitivity, the text is returned unchanged if case-sensitive
+     * @return the folded text
+     */
+    static String foldCase(final String text, final IOCase caseSensitivity) {
+        if (caseSensitivity.isCaseSensitive()) {
+            return text;
+        }
+        final char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Compares two long values.
+     *
+     * @param value1  the first value
+     * @param value2  the second value
+     * @return -1, 0 or 1 as the first value is less than, equal to or greater than the second
+     */
+    static int compareLongs(final long value1, final long value2) {
+        return value1 < value2 ? -1 : value1 == value2 ? 0 : 1;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Decorates the files with their sort keys.
+     *
+     * @param comparator  the comparator defining the keys
+     * @param files  the files
+     * @return the decorated files, in the same order
+     */
+    static Entry[] decorate(final AbstractFileComparator comparator, final File[] files) {
+        final Entry[] entries = new Entry[files.length];
+        for (int i = 0; i < files.length; i++) {
+            entries[i] = new Entry(files[i]);
+        }
+        final int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                files.length / PARALLEL_KEY_THRESHOLD);
+        if (threads < 2 || !comparator.isSortKeyCostly()) {
+            fetchSortKeys(comparator, entries, 0, entries.length);
+            return entries;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            final int chunk = (entries.length + threads - 1) / threads;
+            for (int start = 0; start < entries.length; start += chunk) {
+                final int from = start;
+                final int to = Math.min(start + chunk, entries.length);
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        fetchSortKeys(comparator, entries, from, to);
+                        return null;
+                    }
+                }));
+            }
+            await(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+        return entries;
+    }
+
+    /**
+     * Fetches the sort keys of a range of decorated files.
+     *
+     * @param comparator  the comparator defining the keys
+     * @param entries  the decorated files
+     * @param from  the first index, inclusive
+     * @param to  the last index, exclusive
+     */
+    private static void fetchSortKeys(final AbstractFileComparator comparator, final Entry[] entries,
+            final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            entries[i].key = comparator.getSortKey(entries[i].file);
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted runs, taking from the first run on ties.
+     *
+     * @param source  the entries holding the runs
+     * @param target  the entries receiving the merged run
+     * @param from  the start of the first run, inclusive
+     * @param middle  the end of the first run and start of the second
+     * @param to  the end of the second run, exclusive
+     * @param comparator  the entry comparator
+     */
+    private static void merge(final Entry[] source, final Entry[] target, final int from, final int middle,
+            final int to, final Comparator<Entry> comparator) {
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && comparator.compare(source[left], source[right]) <= 0) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+
+    /**
+     * Returns a comparator of decorated files comparing their sort keys.
+     *
+     * @param comparator  the comparator defining the keys
+     * @return the comparator of decorated files
+     */
+    static Comparator<Entry> entryComparator(final AbstractFileComparator comparator) {
+        return new Comparator<Entry>() {
+            public int compare(final Entry entry1, final Entry entry2) {
+                return comparator.compareSortKeys(entry1.key, entry2.key);
+            }
+        };
+    }
+
+    /**
+     * Waits for tasks to complete, rethrowing their failure.
+     *
+     * @param futures  the tasks
+     * @throws IllegalStateException if the current thread is interrupted
+     */
+    static void await(final List<Future<?>> futures) {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sorting files", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
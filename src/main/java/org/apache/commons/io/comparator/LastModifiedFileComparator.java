@@ -76,4 +76,30 @@ public class LastModifiedFileComparator extends AbstractFileComparator implement
             return 0;
         }
     }
+
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == LastModifiedFileComparator.class;
+    }
+
+    @Override
+    boolean isSortKeyCostly() {
+        return true;
+    }
+
+    /**
+     * Returns the last modified date of a file.
+     *
+     * @param file  the file
+     * @return the last modified date, as a Long
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return Long.valueOf(file.lastModified());
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return FileSorter.compareLongs(((Long) key1).longValue(), ((Long) key2).longValue());
+    }
 }
@@ -104,6 +104,28 @@ public class NameFileComparator extends AbstractFileComparator implements Serial
         return caseSensitivity.checkCompareTo(file1.getName(), file2.getName());
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == NameFileComparator.class;
+    }
+
+    /**
+     * Returns the name of a file, case folded if the comparison is
+     * case-insensitive.
+     *
+     * @param file  the file
+     * @return the sort key, as a String
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return FileSorter.foldCase(file.getName(), caseSensitivity);
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return ((String) key1).compareTo((String) key2);
+    }
+
     /**
      * String representation of this file comparator.
      *
@@ -105,6 +105,28 @@ public class PathFileComparator extends AbstractFileComparator implements Serial
         return caseSensitivity.checkCompareTo(file1.getPath(), file2.getPath());
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == PathFileComparator.class;
+    }
+
+    /**
+     * Returns the path of a file, case folded if the comparison is
+     * case-insensitive.
+     *
+     * @param file  the file
+     * @return the sort key, as a String
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return FileSorter.foldCase(file.getPath(), caseSensitivity);
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return ((String) key1).compareTo((String) key2);
+    }
+
     /**
      * String representation of this file comparator.
      *
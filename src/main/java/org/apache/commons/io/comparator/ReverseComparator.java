@@ -56,6 +56,32 @@ class ReverseComparator extends AbstractFileComparator implements Serializable {
         return delegate.compare(file2, file1); // parameters switched round
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return true;
+    }
+
+    @Override
+    boolean isSortKeyCostly() {
+        return FileSorter.isSortKeyCostly(delegate);
+    }
+
+    /**
+     * Returns the sort key of the delegate comparator.
+     *
+     * @param file  the file
+     * @return the sort key
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return FileSorter.getSortKey(delegate, file);
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return FileSorter.compareSortKeys(delegate, key2, key1); // parameters switched round
+    }
+
     /**
      * String representation of this file comparator.
      *
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.Serializable;
 import java.util.Comparator;
 
+import org.apache.commons.io.FileAttributes;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -108,18 +109,8 @@ public class SizeFileComparator extends AbstractFileComparator implements Serial
      * 
      */
     public int compare(final File file1, final File file2) {
-        long size1 = 0;
-        if (file1.isDirectory()) {
-            size1 = sumDirectoryContents && file1.exists() ? FileUtils.sizeOfDirectory(file1) : 0;
-        } else {
-            size1 = file1.length();
-        }
-        long size2 = 0;
-        if (file2.isDirectory()) {
-            size2 = sumDirectoryContents && file2.exists() ? FileUtils.sizeOfDirectory(file2) : 0;
-        } else {
-            size2 = file2.length();
-        }
+        final long size1 = getSize(file1);
+        final long size2 = getSize(file2);
         final long result = size1 - size2;
         if (result < 0) {
             return -1;
@@ -130,6 +121,48 @@ public class SizeFileComparator extends AbstractFileComparator implements Serial
         }
     }
 
+    @Override
+    boolean isSortKeyed() {
+        return getClass() == SizeFileComparator.class;
+    }
+
+    @Override
+    boolean isSortKeyCostly() {
+        return true;
+    }
+
+    /**
+     * Returns the size of a file, so that directory contents are summed once
+     * per directory when sorting.
+     *
+     * @param file  the file
+     * @return the size, as a Long
+     */
+    @Override
+    Object getSortKey(final File file) {
+        return Long.valueOf(getSize(file));
+    }
+
+    @Override
+    int compareSortKeys(final Object key1, final Object key2) {
+        return FileSorter.compareLongs(((Long) key1).longValue(), ((Long) key2).longValue());
+    }
+
+    /**
+     * Returns the size of a file, or of a directory according to
+     * sumDirectoryContents.
+     *
+     * @param file  the file
+     * @return the size
+     */
+    private long getSize(final File file) {
+        final FileAttributes attributes = new FileAttributes(file);
+        if (attributes.isDirectory()) {
+            return sumDirectoryContents && attributes.exists() ? FileUtils.sizeOfDirectory(file) : 0;
+        }
+        return attributes.length();
+    }
+
     /**
      * String representation of this file comparator.
      *
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.Serializable;
 import java.util.Date;
 
+import org.apache.commons.io.FileAttributes;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -48,7 +49,7 @@ import org.apache.commons.io.FileUtils;
  * @see FileFilterUtils#ageFileFilter(long, boolean)
  * @since 1.2
  */
-public class AgeFileFilter extends AbstractFileFilter implements Serializable {
+public class AgeFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = -2132740084016138541L;
 
@@ -146,6 +147,19 @@ public class AgeFileFilter extends AbstractFileFilter implements Serializable {
         return acceptOlder ? !newer : newer;
     }
 
+    /**
+     * Checks to see if the last modification of the file matches cutoff
+     * favorably.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if the filename matches
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        final boolean newer = attributes.exists() && attributes.lastModified() > cutoff;
+        return acceptOlder ? !newer : newer;
+    }
+
     /**
      * Provide a String representaion of this file filter.
      *
@@ -156,4 +170,15 @@ public class AgeFileFilter extends AbstractFileFilter implements Serializable {
         final String condition = acceptOlder ? "<=" : ">";
         return super.toString() + "(" + condition + cutoff + ")";
     }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
@@ -22,12 +22,22 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * A {@link java.io.FileFilter} providing conditional AND logic across a list of
  * file filters. This filter returns {@code true} if all filters in the
  * list return {@code true}. Otherwise, it returns {@code false}.
  * Checking of the file filter list stops when the first filter returns
  * {@code false}.
+ * <p>
+ * The filters are evaluated from the cheapest to the most expensive according
+ * to their {@link FilterCost}, and within the same cost class the filters
+ * which rejected files most often so far are evaluated first. Filters which do
+ * not implement {@link CostedFileFilter} are evaluated in list order relative
+ * to all the other filters. How often each filter was evaluated and stopped the checking
+ * is available from {@link #getEvaluationCount(int)} and
+ * {@link #getShortCircuitCount(int)}.
  *
  * @since 1.0
  * @version $Id$
@@ -36,13 +46,16 @@ import java.util.List;
  */
 public class AndFileFilter
         extends AbstractFileFilter
-        implements ConditionalFileFilter, Serializable {
+        implements ConditionalFileFilter, AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 7215974688563965257L;
 
     /** The list of file filters. */
     private final List<IOFileFilter> fileFilters;
 
+    /** The evaluation order of the file filters, created on demand. */
+    private transient volatile FilterEvaluationOrder evaluationOrder;
+
     /**
      * Constructs a new instance of <code>AndFileFilter</code>.
      *
@@ -88,6 +101,7 @@ public class AndFileFilter
      */
     public void addFileFilter(final IOFileFilter ioFileFilter) {
         this.fileFilters.add(ioFileFilter);
+        this.evaluationOrder = null;
     }
 
     /**
@@ -101,7 +115,9 @@ public class AndFileFilter
      * {@inheritDoc}
      */
     public boolean removeFileFilter(final IOFileFilter ioFileFilter) {
-        return this.fileFilters.remove(ioFileFilter);
+        final boolean removed = this.fileFilters.remove(ioFileFilter);
+        this.evaluationOrder = null;
+        return removed;
     }
 
     /**
@@ -110,6 +126,7 @@ public class AndFileFilter
     public void setFileFilters(final List<IOFileFilter> fileFilters) {
         this.fileFilters.clear();
         this.fileFilters.addAll(fileFilters);
+        this.evaluationOrder = null;
     }
 
     /**
@@ -117,11 +134,23 @@ public class AndFileFilter
      */
     @Override
     public boolean accept(final File file) {
+        return accept(new FileAttributes(file));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The attributes are shared by all the filters, so each attribute
+     * of the file is read at most once.
+     *
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
         if (this.fileFilters.isEmpty()) {
             return false;
         }
-        for (final IOFileFilter fileFilter : fileFilters) {
-            if (!fileFilter.accept(file)) {
+        for (final FilterEvaluationOrder.Branch branch : getEvaluationOrder().next()) {
+            if (branch.count(!FileFilterUtils.accept(branch.filter, attributes))) {
                 return false;
             }
         }
@@ -136,14 +165,64 @@ public class AndFileFilter
         if (this.fileFilters.isEmpty()) {
             return false;
         }
-        for (final IOFileFilter fileFilter : fileFilters) {
-            if (!fileFilter.accept(file, name)) {
+        for (final FilterEvaluationOrder.Branch branch : getEvaluationOrder().next()) {
+            if (branch.count(!branch.filter.accept(file, name))) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Returns the most expensive cost of the file filters.
+     *
+     * @return the cost class of this filter
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return getEvaluationOrder().getCost();
+    }
+
+    /**
+     * Returns how many times a file filter has been evaluated since the
+     * list of file filters was last changed.
+     *
+     * @param index  the position of the filter in {@link #getFileFilters()}
+     * @return the number of evaluations
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @since 2.5
+     */
+    public long getEvaluationCount(final int index) {
+        return getEvaluationOrder().getEvaluationCount(index);
+    }
+
+    /**
+     * Returns how many times a file filter rejected a file, stopping the
+     * checking, since the list of file filters was last changed.
+     *
+     * @param index  the position of the filter in {@link #getFileFilters()}
+     * @return the number of short-circuits
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @since 2.5
+     */
+    public long getShortCircuitCount(final int index) {
+        return getEvaluationOrder().getShortCircuitCount(index);
+    }
+
+    /**
+     * Returns the evaluation order of the file filters, creating it if needed.
+     *
+     * @return the evaluation order
+     */
+    private FilterEvaluationOrder getEvaluationOrder() {
+        FilterEvaluationOrder order = this.evaluationOrder;
+        if (order == null) {
+            order = new FilterEvaluationOrder(this.fileFilters);
+            this.evaluationOrder = order;
+        }
+        return order;
+    }
+
     /**
      * Provide a String representaion of this file filter.
      *
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import org.apache.commons.io.FileAttributes;
+
+/**
+ * An extension of {@link IOFileFilter} for filters which decide on the
+ * attributes of a file (type, size, last modification time, visibility or
+ * permissions) rather than only on its name.
+ * <p>
+ * Such filters can be evaluated against a {@link FileAttributes} view which
+ * reads each attribute from the file system at most once. The composite filters
+ * {@link AndFileFilter}, {@link OrFileFilter} and {@link NotFileFilter} build a
+ * single view per file and share it between all their members, so combining
+ * several attribute filters, for example with {@link FileFilterUtils#and(IOFileFilter...)},
+ * does not stat the same file repeatedly.
+ *
+ * @since 2.5
+ * @version $Id$
+ * @see FileFilterUtils#accept(IOFileFilter, FileAttributes)
+ */
+public interface AttributeFileFilter extends IOFileFilter {
+
+    /**
+     * Checks to see if the file described by the attributes should be accepted
+     * by this filter.
+     * <p>
+     * The result must be the same as calling {@link #accept(java.io.File)} with
+     * {@link FileAttributes#getFile()}.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if this file matches the test
+     */
+    boolean accept(FileAttributes attributes);
+
+}
@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts <code>File</code>s that can be read.
  * <p>
@@ -60,7 +62,7 @@ import java.io.Serializable;
  * @since 1.3
  * @version $Id$
  */
-public class CanReadFileFilter extends AbstractFileFilter implements Serializable {
+public class CanReadFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 3179904805251622989L;
 
@@ -92,4 +94,26 @@ public class CanReadFileFilter extends AbstractFileFilter implements Serializabl
         return file.canRead();
     }
 
+    /**
+     * Checks to see if the file can be read.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return {@code true} if the file can be
+     *  read, otherwise {@code false}.
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return attributes.canRead();
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts <code>File</code>s that can be written to.
  * <p>
@@ -52,7 +54,7 @@ import java.io.Serializable;
  * @since 1.3
  * @version $Id$
  */
-public class CanWriteFileFilter extends AbstractFileFilter implements Serializable {
+public class CanWriteFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 5132005214688990379L;
 
@@ -80,4 +82,26 @@ public class CanWriteFileFilter extends AbstractFileFilter implements Serializab
         return file.canWrite();
     }
 
+    /**
+     * Checks to see if the file can be written to.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return {@code true} if the file can be
+     *  written to, otherwise {@code false}.
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return attributes.canWrite();
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
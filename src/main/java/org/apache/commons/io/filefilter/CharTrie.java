@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOCase;
+
+/**
+ * A character trie used to look up many filename prefixes, suffixes or names
+ * at once, in time proportional to the length of the filename rather than to
+ * the number of keys.
+ * <p>
+ * A reversed trie stores its keys from the last to the first character and is
+ * used to look up suffixes. When case-insensitive, characters are folded the same
+ * way as {@link String#regionMatches(boolean, int, String, int, int)} compares them,
+ * so lookups agree with the {@link IOCase} check methods.
+ * <p>
+ * Besides marking complete keys, nodes can hold arbitrary values which callers
+ * retrieve while walking the trie with {@link #root()} and
+ * {@link #next(Node, String, int)}.
+ * <p>
+ * Instances are built once and are then safe for concurrent lookups.
+ *
+ * @param <V> the type of the values held by the nodes
+ * @version $Id$
+ * @since 2.5
+ */
+final class CharTrie<V> {
+
+    private static final char[] NO_LABELS = new char[0];
+
+    /**
+     * A node of the trie, reached by the characters of a key read so far.
+     *
+     * @param <V> the type of the values held by the node
+     */
+    static final class Node<V> {
+
+        /** The sorted labels of the edges to the children */
+        private char[] labels = NO_LABELS;
+        /** The children, parallel to the labels */
+        private Node<V>[] children;
+        /** Whether a key ends at this node */
+        private boolean terminal;
+        /** The values added for the key ending at this node, null if none */
+        private List<V> values;
+
+        /**
+         * Returns the child reached by a folded character.
+         *
+         * @param ch  the folded character
+         * @return the child, null if none
+         */
+        Node<V> child(final char ch) {
+            final char[] labels = this.labels;
+            int low = 0;
+            int high = labels.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char label = labels[mid];
+                if (label < ch) {
+                    low = mid + 1;
+                } else if (label > ch) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the child for a folded character, adding it if needed.
+         *
+         * @param ch  the folded character
+         * @return the child
+         */
+        @SuppressWarnings("unchecked")
+        private Node<V> addChild(final char ch) {
+            int index = 0;
+            while (index < labels.length && labels[index] < ch) {
+                index++;
+            }
+            if (index < labels.length && labels[index] == ch) {
+                return children[index];
+            }
+            final char[] newLabels = new char[labels.length + 1];
+            final Node<V>[] newChildren = new Node[labels.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            if (children != null) {
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index, newChildren, index + 1, labels.length - index);
+            }
+            final Node<V> child = new Node<V>();
+            newLabels[index] = ch;
+            newChildren[index] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        /**
+         * Tests whether a key added with {@link CharTrie#add(String)} ends at this node.
+         *
+         * @return true if a key ends here
+         */
+        boolean isTerminal() {
+            return terminal;
+        }
+
+        /**
+         * Returns the values added for the key ending at this node.
+         *
+         * @return the values, null if none
+         */
+        List<V> getValues() {
+            return values;
+        }
+    }
+
+    /** The root node, reached by the empty key */
+    private final Node<V> root = new Node<V>();
+    /** Whether characters are compared case-sensitively */
+    private final boolean caseSensitive;
+    /** Whether keys are stored from their last character */
+    private final boolean reversed;
+
+    /**
+     * Constructs an empty trie.
+     *
+     * @param caseSensitivity  how to handle case sensitivity, null means case-sensitive
+     * @param reversed  true to store and look up keys from their last character
+     */
+    CharTrie(final IOCase caseSensitivity, final boolean reversed) {
+        this.caseSensitive = caseSensitivity == null || caseSensitivity.isCaseSensitive();
+        this.reversed = reversed;
+    }
+
+    /**
+     * Returns the root node, to walk the trie with {@link #next(Node, String, int)}.
+     *
+     * @return the root node
+     */
+    Node<V> root() {
+        return root;
+    }
+
+    /**
+     * Tests whether the trie stores its keys from their last character.
+     *
+     * @return true if the trie is reversed
+     */
+    boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * Adds a complete key.
+     *
+     * @param key  the key to add, not null
+     */
+    void add(final String key) {
+        node(key).terminal = true;
+    }
+
+    /**
+     * Adds a value under a key, without marking the key as complete.
+     *
+     * @param key  the key to add, not null
+     * @param value  the value to hold
+     */
+    void add(final String key, final V value) {
+        final Node<V> node = node(key);
+        if (node.values == null) {
+            node.values = new ArrayList<V>(1);
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Moves from a node to its child for a character of a string, in the
+     * direction of the trie.
+     *
+     * @param node  the current node
+     * @param str  the string being looked up
+     * @param count  the number of characters of the string already read
+     * @return the child, null if none or the string has been fully read
+     */
+    Node<V> next(final Node<V> node, final String str, final int count) {
+        if (count >= str.length()) {
+            return null;
+        }
+        final char ch = reversed ? str.charAt(str.length() - 1 - count) : str.charAt(count);
+        return node.child(fold(ch));
+    }
+
+    /**
+     * Tests whether the trie contains a complete key equal to a string.
+     *
+     * @param str  the string to look up, not null
+     * @return true if the string is a key
+     */
+    boolean contains(final String str) {
+        Node<V> node = root;
+        for (int count = 0; node != null && count < str.length(); count++) {
+            node = next(node, str, count);
+        }
+        return node != null && node.terminal;
+    }
+
+    /**
+     * Tests whether the trie contains a complete key which starts a string, or
+     * ends it in the case of a reversed trie.
+     *
+     * @param str  the string to look up, not null
+     * @return true if a key starts (ends) the string
+     */
+    boolean containsKeyOf(final String str) {
+        Node<V> node = root;
+        int count = 0;
+        while (node != null) {
+            if (node.terminal) {
+                return true;
+            }
+            node = next(node, str, count++);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the node reached by a key, adding nodes as needed.
+     *
+     * @param key  the key
+     * @return the node
+     */
+    private Node<V> node(final String key) {
+        Node<V> node = root;
+        final int length = key.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = reversed ? key.charAt(length - 1 - i) : key.charAt(i);
+            node = node.addChild(fold(ch));
+        }
+        return node;
+    }
+
+    /**
+     * Folds the case of a character if the trie is case-insensitive.
+     *
+     * @param ch  the character
+     * @return the folded character
+     */
+    private char fold(final char ch) {
+        if (caseSensitive) {
+            return ch;
+        }
+        return Character.toLowerCase(Character.toUpperCase(ch));
+    }
+
+}
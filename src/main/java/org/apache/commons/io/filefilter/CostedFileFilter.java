@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+/**
+ * An extension of {@link IOFileFilter} for filters which declare how
+ * expensive they are to evaluate.
+ * <p>
+ * {@link AndFileFilter} and {@link OrFileFilter} evaluate cheaper filters
+ * first. Filters declaring a cost other than {@link FilterCost#UNKNOWN} must
+ * therefore not depend on being evaluated after any other filter of the
+ * composite, which is the case for all the filters of this package.
+ *
+ * @since 2.5
+ * @version $Id$
+ * @see FileFilterUtils#getCost(IOFileFilter)
+ */
+public interface CostedFileFilter extends IOFileFilter {
+
+    /**
+     * Returns the cost class of this filter.
+     *
+     * @return the cost class, not null
+     */
+    FilterCost getCost();
+
+}
@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts <code>File</code>s that are directories.
  * <p>
@@ -38,7 +40,7 @@ import java.io.Serializable;
  *
  * @see FileFilterUtils#directoryFileFilter()
  */
-public class DirectoryFileFilter extends AbstractFileFilter implements Serializable {
+public class DirectoryFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = -5148237843784525732L;
     /**
@@ -71,4 +73,25 @@ public class DirectoryFileFilter extends AbstractFileFilter implements Serializa
         return file.isDirectory();
     }
 
+    /**
+     * Checks to see if the file is a directory.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if the file is a directory
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return attributes.isDirectory();
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
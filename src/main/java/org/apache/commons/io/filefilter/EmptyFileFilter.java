@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts files or directories that are empty.
  * <p>
@@ -51,7 +53,7 @@ import java.io.Serializable;
  * @since 1.3
  * @version $Id$
  */
-public class EmptyFileFilter extends AbstractFileFilter implements Serializable {
+public class EmptyFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 3631422087512832211L;
 
@@ -84,4 +86,31 @@ public class EmptyFileFilter extends AbstractFileFilter implements Serializable
         }
     }
 
+    /**
+     * Checks to see if the file is empty.
+     *
+     * @param attributes  the attributes of the file or directory to check
+     * @return {@code true} if the file or directory
+     *  is <i>empty</i>, otherwise {@code false}.
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        if (attributes.isDirectory()) {
+            final File[] files = attributes.getFile().listFiles();
+            return files == null || files.length == 0;
+        } else {
+            return attributes.length() == 0;
+        }
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
@@ -27,7 +27,7 @@ import java.io.Serializable;
  *
  * @see FileFilterUtils#falseFileFilter()
  */
-public class FalseFileFilter implements IOFileFilter, Serializable {
+public class FalseFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 6210271677940926200L;
     /**
@@ -70,4 +70,14 @@ public class FalseFileFilter implements IOFileFilter, Serializable {
         return false;
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter does not access the file system.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
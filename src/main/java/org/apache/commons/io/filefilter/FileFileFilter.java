@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts <code>File</code>s that are files (not directories).
  * <p>
@@ -37,7 +39,7 @@ import java.io.Serializable;
  * @version $Id$
  * @see FileFilterUtils#fileFileFilter()
  */
-public class FileFileFilter extends AbstractFileFilter implements Serializable {
+public class FileFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 5345244090827540862L;
     /** Singleton instance of file filter */
@@ -60,4 +62,25 @@ public class FileFileFilter extends AbstractFileFilter implements Serializable {
         return file.isFile();
     }
 
+    /**
+     * Checks to see if the file is a file.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if the file is a file
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return attributes.isFile();
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
@@ -22,11 +22,15 @@ import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
+import org.apache.commons.io.FileAttributes;
 import org.apache.commons.io.IOCase;
 
 /**
@@ -39,6 +43,13 @@ import org.apache.commons.io.IOCase;
  */
 public class FileFilterUtils {
 
+    /**
+     * Whether each class of {@link AttributeFileFilter} accepts attributes as
+     * it accepts files, see {@link #acceptsAttributes(Class)}.
+     */
+    private static final Map<Class<?>, Boolean> ATTRIBUTE_CLASSES =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+
     /**
      * FileFilterUtils is not normally instantiated.
      */
@@ -283,6 +294,66 @@ public class FileFilterUtils {
         return acceptedFiles;
     }
 
+    /**
+     * Applies a filter to the file described by a {@link FileAttributes} view.
+     * <p>
+     * If the filter is an {@link AttributeFileFilter} it is given the view, so
+     * that attributes already read by other filters are not read again, otherwise
+     * it is given the file itself. A subclass overriding <code>accept(File)</code>
+     * but not <code>accept(FileAttributes)</code> is also given the file, so that
+     * its own check is kept.
+     *
+     * @param filter  the filter to apply, must not be null
+     * @param attributes  the attributes of the file to check
+     * @return true if the filter accepts the file
+     * @since 2.5
+     */
+    public static boolean accept(final IOFileFilter filter, final FileAttributes attributes) {
+        if (filter instanceof AttributeFileFilter && acceptsAttributes(filter.getClass())) {
+            return ((AttributeFileFilter) filter).accept(attributes);
+        }
+        return filter.accept(attributes.getFile());
+    }
+
+    /**
+     * Checks whether a class of filter declares <code>accept(FileAttributes)</code>
+     * in the class declaring <code>accept(File)</code> or in a subclass of it.
+     *
+     * @param filterClass  the class of an {@link AttributeFileFilter}
+     * @return false if <code>accept(File)</code> is overridden after <code>accept(FileAttributes)</code>
+     */
+    private static boolean acceptsAttributes(final Class<?> filterClass) {
+        Boolean accepts = ATTRIBUTE_CLASSES.get(filterClass);
+        if (accepts == null) {
+            try {
+                final Class<?> fileClass = filterClass.getMethod("accept", File.class).getDeclaringClass();
+                final Class<?> attributesClass =
+                        filterClass.getMethod("accept", FileAttributes.class).getDeclaringClass();
+                accepts = Boolean.valueOf(fileClass.isAssignableFrom(attributesClass));
+            } catch (final NoSuchMethodException ex) {
+                accepts = Boolean.FALSE;
+            }
+            ATTRIBUTE_CLASSES.put(filterClass, accepts);
+        }
+        return accepts.booleanValue();
+    }
+
+    /**
+     * Returns the cost class of a filter.
+     *
+     * @param filter  the filter
+     * @return the cost declared by the filter if it is a {@link CostedFileFilter},
+     * otherwise {@link FilterCost#UNKNOWN}
+     * @since 2.5
+     */
+    public static FilterCost getCost(final IOFileFilter filter) {
+        if (filter instanceof CostedFileFilter) {
+            return ((CostedFileFilter) filter).getCost();
+        }
+        return FilterCost.UNKNOWN;
+    }
+
+    //-----------------------------------------------------------------------
     /**
      * Returns a filter that returns true if the filename starts with the specified text.
      *
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+/**
+ * The cost class of a file filter: what a filter has to access in order to
+ * decide on a file.
+ * <p>
+ * The constants are declared from the cheapest to the most expensive, and
+ * {@link AndFileFilter} and {@link OrFileFilter} evaluate their filters in that
+ * order so that cheap filters get the chance to short-circuit the expensive ones.
+ *
+ * @since 2.5
+ * @version $Id$
+ * @see CostedFileFilter
+ */
+public enum FilterCost {
+
+    /**
+     * The filter only looks at the file name or path, no file system access is needed.
+     */
+    NAME,
+
+    /**
+     * The filter reads file system metadata, such as the file type, size,
+     * last modification time or permissions.
+     */
+    METADATA,
+
+    /**
+     * The filter opens the file and reads some of its content.
+     */
+    CONTENT,
+
+    /**
+     * The cost of the filter is not known. This is the cost of filters which do
+     * not implement {@link CostedFileFilter}; they are never re-ordered relative
+     * to the other filters of a composite.
+     */
+    UNKNOWN;
+
+    /**
+     * Returns the more expensive of this cost and another.
+     *
+     * @param other  the other cost
+     * @return the more expensive cost
+     */
+    FilterCost max(final FilterCost other) {
+        return other.compareTo(this) > 0 ? other : this;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The order in which a conditional filter evaluates its filters, together
+ * with how often each of them has been evaluated and has short-circuited the
+ * evaluation.
+ * <p>
+ * Filters are ordered by {@link FilterCost}, and within the same cost class by
+ * how often they short-circuited so far, so that the filters most likely to
+ * decide the outcome come first. The order is recomputed every
+ * {@link #REORDER_INTERVAL} evaluations. Filters of {@link FilterCost#UNKNOWN}
+ * cost keep their position: no filter is moved across them.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class FilterEvaluationOrder {
+
+    /** The number of evaluations between two re-orderings. */
+    static final int REORDER_INTERVAL = 1024;
+
+    /**
+     * A filter of the conditional filter and its statistics.
+     */
+    static final class Branch {
+
+        /** The filter */
+        final IOFileFilter filter;
+        /** The position of the filter in the conditional filter's list */
+        final int index;
+        /** The cost class of the filter */
+        final FilterCost cost;
+        /** The number of evaluations */
+        private final AtomicLong evaluations = new AtomicLong();
+        /** The number of evaluations which short-circuited */
+        private final AtomicLong shortCircuits = new AtomicLong();
+
+        Branch(final IOFileFilter filter, final int index) {
+            this.filter = filter;
+            this.index = index;
+            this.cost = FileFilterUtils.getCost(filter);
+        }
+
+        /**
+         * Records an evaluation of the filter.
+         *
+         * @param shortCircuited  whether the result decided the outcome
+         * @return the shortCircuited argument
+         */
+        boolean count(final boolean shortCircuited) {
+            evaluations.incrementAndGet();
+            if (shortCircuited) {
+                shortCircuits.incrementAndGet();
+            }
+            return shortCircuited;
+        }
+    }
+
+    /** The filters in insertion order */
+    private final Branch[] branches;
+    /** The filters in evaluation order */
+    private volatile Branch[] order;
+    /** The total number of evaluations */
+    private final AtomicLong evaluations = new AtomicLong();
+
+    /**
+     * Constructs the evaluation order of a list of filters.
+     *
+     * @param filters  the filters, in insertion order
+     */
+    FilterEvaluationOrder(final List<IOFileFilter> filters) {
+        branches = new Branch[filters.size()];
+        for (int i = 0; i < branches.length; i++) {
+            branches[i] = new Branch(filters.get(i), i);
+        }
+        order = sort();
+    }
+
+    /**
+     * Returns the filters in the order they should be evaluated for the
+     * next file, counting the evaluation.
+     *
+     * @return the filters in evaluation order, must not be modified
+     */
+    Branch[] next() {
+        if (evaluations.incrementAndGet() % REORDER_INTERVAL == 0) {
+            order = sort();
+        }
+        return order;
+    }
+
+    /**
+     * Returns the most expensive cost of the filters.
+     *
+     * @return the cost, {@link FilterCost#NAME} if there are no filters
+     */
+    FilterCost getCost() {
+        FilterCost cost = FilterCost.NAME;
+        for (final Branch branch : branches) {
+            cost = cost.max(branch.cost);
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the number of times a filter has been evaluated.
+     *
+     * @param index  the position of the filter in insertion order
+     * @return the number of evaluations
+     */
+    long getEvaluationCount(final int index) {
+        return branches[index].evaluations.get();
+    }
+
+    /**
+     * Returns the number of times a filter short-circuited the evaluation.
+     *
+     * @param index  the position of the filter in insertion order
+     * @return the number of short-circuits
+     */
+    long getShortCircuitCount(final int index) {
+        return branches[index].shortCircuits.get();
+    }
+
+    /**
+     * Sorts the filters by cost and observed short-circuit rate.
+     *
+     * @return the filters in evaluation order
+     */
+    private Branch[] sort() {
+        final double[] rates = new double[branches.length];
+        for (final Branch branch : branches) {
+            // smoothed so that filters never evaluated yet rank as even
+            rates[branch.index] = (branch.shortCircuits.get() + 1.0) / (branch.evaluations.get() + 2.0);
+        }
+        final Comparator<Branch> comparator = new Comparator<Branch>() {
+            public int compare(final Branch branch1, final Branch branch2) {
+                final int result = branch1.cost.compareTo(branch2.cost);
+                if (result != 0) {
+                    return result;
+                }
+                final double rate1 = rates[branch1.index];
+                final double rate2 = rates[branch2.index];
+                if (rate1 != rate2) {
+                    return rate1 > rate2 ? -1 : 1;
+                }
+                return branch1.index - branch2.index;
+            }
+        };
+        final Branch[] sorted = branches.clone();
+        int start = 0;
+        for (int i = 0; i <= sorted.length; i++) {
+            if (i == sorted.length || sorted[i].cost == FilterCost.UNKNOWN) {
+                Arrays.sort(sorted, start, i, comparator);
+                start = i + 1;
+            }
+        }
+        return sorted;
+    }
+
+}
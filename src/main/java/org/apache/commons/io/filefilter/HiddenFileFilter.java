@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter accepts <code>File</code>s that are hidden.
  * <p>
@@ -48,7 +50,7 @@ import java.io.Serializable;
  * @since 1.3
  * @version $Id$
  */
-public class HiddenFileFilter extends AbstractFileFilter implements Serializable {
+public class HiddenFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 8930842316112759062L;
 
@@ -76,4 +78,26 @@ public class HiddenFileFilter extends AbstractFileFilter implements Serializable
         return file.isHidden();
     }
 
+    /**
+     * Checks to see if the file is hidden.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return {@code true} if the file is
+     *  <i>hidden</i>, otherwise {@code false}.
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return attributes.isHidden();
+    }
+
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
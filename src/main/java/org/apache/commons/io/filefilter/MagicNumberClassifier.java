@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Classifies files by the first of many magic numbers they contain.
+ * <p>
+ * Each magic number is registered with a type name and the byte offset it
+ * appears at, as for {@link MagicNumberFileFilter}. Classifying a file opens it
+ * once and reads, in a single read, the header range covering all the
+ * registered magic numbers. The header is then checked against the magic
+ * numbers indexed by offset and first byte, so only the magic numbers which
+ * can match are compared. Combining many <code>MagicNumberFileFilter</code>s
+ * with an {@link OrFileFilter} instead opens and reads each file once per
+ * filter.
+ * <pre>
+ * MagicNumberClassifier classifier = new MagicNumberClassifier();
+ * classifier.addMagicNumber("class", new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+ * classifier.addMagicNumber("pdf", "%PDF");
+ * classifier.addMagicNumber("tar", "ustar", 257);
+ * String type = classifier.classify(new File("archive.tar"));
+ * </pre>
+ * <p>
+ * As a file filter, this accepts the files matching any of the magic numbers.
+ * <p>
+ * The header range runs from the smallest offset to the end of the magic number
+ * reaching furthest into the file, so registering magic numbers at distant
+ * offsets makes every file read a large header.
+ *
+ * @version $Id$
+ * @since 2.5
+ * @see MagicNumberFileFilter
+ */
+public class MagicNumberClassifier extends AbstractFileFilter implements CostedFileFilter, Serializable {
+
+    private static final long serialVersionUID = 2402566104397373916L;
+
+    /** The registered magic numbers, in registration order. */
+    private final List<Signature> signatures = new ArrayList<Signature>();
+
+    /** The magic numbers indexed by offset and first byte, created on demand. */
+    private transient volatile Index index;
+
+    /**
+     * Constructs a new classifier without any magic number.
+     */
+    public MagicNumberClassifier() {
+        super();
+    }
+
+    /**
+     * Registers a magic number found at the start of files of a type.
+     *
+     * @param type  the type name returned for matching files, not null
+     * @param magicNumber  the magic number to look for, not null or empty
+     * @throws IllegalArgumentException if the type or magic number is null, or
+     * the magic number contains no bytes
+     */
+    public void addMagicNumber(final String type, final byte[] magicNumber) {
+        addMagicNumber(type, magicNumber, 0);
+    }
+
+    /**
+     * Registers a magic number found at the start of files of a type.
+     *
+     * @param type  the type name returned for matching files, not null
+     * @param magicNumber  the magic number to look for, converted to bytes
+     * using the platform default charset, not null or empty
+     * @throws IllegalArgumentException if the type or magic number is null, or
+     * the magic number is the empty String
+     */
+    public void addMagicNumber(final String type, final String magicNumber) {
+        addMagicNumber(type, magicNumber, 0);
+    }
+
+    /**
+     * Registers a magic number found at an offset in files of a type.
+     *
+     * @param type  the type name returned for matching files, not null
+     * @param magicNumber  the magic number to look for, converted to bytes
+     * using the platform default charset, not null or empty
+     * @param offset  the byte offset of the magic number in the files
+     * @throws IllegalArgumentException if the type or magic number is null, the
+     * magic number is the empty String, or the offset is negative
+     */
+    public void addMagicNumber(final String type, final String magicNumber, final long offset) {
+        if (magicNumber == null) {
+            throw new IllegalArgumentException("The magic number cannot be null");
+        }
+        addMagicNumber(type, magicNumber.getBytes(Charset.defaultCharset()), offset);
+    }
+
+    /**
+     * Registers a magic number found at an offset in files of a type.
+     *
+     * @param type  the type name returned for matching files, not null
+     * @param magicNumber  the magic number to look for, copied, not null or empty
+     * @param offset  the byte offset of the magic number in the files
+     * @throws IllegalArgumentException if the type or magic number is null, the
+     * magic number contains no bytes, or the offset is negative
+     */
+    public void addMagicNumber(final String type, final byte[] magicNumber, final long offset) {
+        if (type == null) {
+            throw new IllegalArgumentException("The type cannot be null");
+        }
+        if (magicNumber == null) {
+            throw new IllegalArgumentException("The magic number cannot be null");
+        }
+        if (magicNumber.length == 0) {
+            throw new IllegalArgumentException("The magic number must contain at least one byte");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset cannot be negative");
+        }
+        signatures.add(new Signature(signatures.size(), type, magicNumber.clone(), offset));
+        this.index = null;
+    }
+
+    /**
+     * Returns the registered type names, in registration order, one for each
+     * magic number.
+     *
+     * @return the type names, unmodifiable
+     */
+    public List<String> getTypes() {
+        final List<String> types = new ArrayList<String>(signatures.size());
+        for (final Signature signature : signatures) {
+            types.add(signature.type);
+        }
+        return Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Classifies a file by its magic number.
+     * <p>
+     * If the file matches several magic numbers, the type of the magic number
+     * registered first is returned. If any {@link IOException} occurs while
+     * reading the file, the file is not classified.
+     *
+     * @param file  the file to classify, may be null
+     * @return the type of the first registered magic number found in the
+     * file, null if none is found or the file is not a readable normal file
+     */
+    public String classify(final File file) {
+        final Index index = getIndex();
+        if (file == null || index.length == 0 || !file.isFile() || !file.canRead()) {
+            return null;
+        }
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            final byte[] header = new byte[index.length];
+            randomAccessFile.seek(index.start);
+            int count = 0;
+            int read;
+            while (count < header.length && (read = randomAccessFile.read(header, count, header.length - count)) > 0) {
+                count += read;
+            }
+            return classify(index, header, count);
+        } catch (final IOException ioe) {
+            // Do nothing, fall through and do not classify the file
+        } finally {
+            IOUtils.closeQuietly(randomAccessFile);
+        }
+        return null;
+    }
+
+    /**
+     * Accepts the provided file if it contains any of the magic numbers.
+     *
+     * @param file the file to accept or reject
+     * @return {@code true} if {@link #classify(File)} finds a type for the file
+     */
+    @Override
+    public boolean accept(final File file) {
+        return classify(file) != null;
+    }
+
+    /**
+     * Returns {@link FilterCost#CONTENT} as this filter reads the file content.
+     *
+     * @return {@link FilterCost#CONTENT}
+     */
+    public FilterCost getCost() {
+        return FilterCost.CONTENT;
+    }
+
+    /**
+     * Provide a String representation of this file filter.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder();
+        buffer.append(super.toString());
+        buffer.append("(");
+        for (int i = 0; i < signatures.size(); i++) {
+            if (i > 0) {
+                buffer.append(",");
+            }
+            final Signature signature = signatures.get(i);
+            buffer.append(signature.type);
+            buffer.append("@");
+            buffer.append(signature.offset);
+        }
+        buffer.append(")");
+        return buffer.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the first registered magic number present in a header.
+     *
+     * @param index  the magic number index
+     * @param header  the header bytes, starting at the index start offset
+     * @param count  the number of header bytes read
+     * @return the type of the matching magic number, null if none
+     */
+    private static String classify(final Index index, final byte[] header, final int count) {
+        Signature found = null;
+        for (int i = 0; i < index.offsets.length; i++) {
+            final int position = index.offsets[i];
+            if (position >= count) {
+                break;
+            }
+            final Signature[] bucket = index.buckets[i][header[position] & 0xFF];
+            if (bucket == null) {
+                continue;
+            }
+            for (final Signature signature : bucket) {
+                if (found != null && signature.order > found.order) {
+                    break;
+                }
+                if (signature.matches(header, position, count)) {
+                    found = signature;
+                    break;
+                }
+            }
+        }
+        return found == null ? null : found.type;
+    }
+
+    /**
+     * Returns the index of the magic numbers, building it if needed.
+     *
+     * @return the index
+     */
+    private Index getIndex() {
+        Index index = this.index;
+        if (index == null) {
+            index = new Index(signatures);
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * A registered magic number.
+     */
+    private static final class Signature implements Serializable {
+
+        private static final long serialVersionUID = -7453167420418719573L;
+
+        /** The registration order */
+        private final int order;
+        /** The type name */
+        private final String type;
+        /** The magic number bytes */
+        private final byte[] magicNumber;
+        /** The offset of the magic number in the file */
+        private final long offset;
+
+        Signature(final int order, final String type, final byte[] magicNumber, final long offset) {
+            this.order = order;
+            this.type = type;
+            this.magicNumber = magicNumber;
+            this.offset = offset;
+        }
+
+        /**
+         * Checks whether the magic number is found in a header.
+         *
+         * @param header  the header bytes
+         * @param position  the position of the magic number in the header
+         * @param count  the number of header bytes read
+         * @return true if the magic number matches
+         */
+        boolean matches(final byte[] header, final int position, final int count) {
+            if (position + magicNumber.length > count) {
+                return false;
+            }
+            for (int i = 1; i < magicNumber.length; i++) {
+                if (header[position + i] != magicNumber[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The magic numbers grouped by offset, then by first byte, each group in
+     * registration order, with the header range covering them all.
+     */
+    private static final class Index {
+
+        /** The file offset of the header */
+        final long start;
+        /** The header length */
+        final int length;
+        /** The distinct magic number positions in the header, ascending */
+        final int[] offsets;
+        /** For each position, the magic numbers by first byte, or null */
+        final Signature[][][] buckets;
+
+        Index(final List<Signature> signatures) {
+            long min = Long.MAX_VALUE;
+            long max = 0;
+            final Map<Long, List<Signature>> byOffset = new TreeMap<Long, List<Signature>>();
+            for (final Signature signature : signatures) {
+                min = Math.min(min, signature.offset);
+                max = Math.max(max, signature.offset + signature.magicNumber.length);
+                List<Signature> list = byOffset.get(Long.valueOf(signature.offset));
+                if (list == null) {
+                    list = new ArrayList<Signature>();
+                    byOffset.put(Long.valueOf(signature.offset), list);
+                }
+                list.add(signature);
+            }
+            if (signatures.isEmpty()) {
+                min = 0;
+            }
+            if (max - min > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The magic numbers span more than " + Integer.MAX_VALUE + " bytes");
+            }
+            start = min;
+            length = (int) (max - min);
+            offsets = new int[byOffset.size()];
+            buckets = new Signature[byOffset.size()][][];
+            int i = 0;
+            for (final Map.Entry<Long, List<Signature>> entry : byOffset.entrySet()) {
+                offsets[i] = (int) (entry.getKey().longValue() - min);
+                final List<List<Signature>> byFirstByte = new ArrayList<List<Signature>>(256);
+                for (int b = 0; b < 256; b++) {
+                    byFirstByte.add(null);
+                }
+                for (final Signature signature : entry.getValue()) {
+                    final int first = signature.magicNumber[0] & 0xFF;
+                    List<Signature> list = byFirstByte.get(first);
+                    if (list == null) {
+                        list = new ArrayList<Signature>();
+                        byFirstByte.set(first, list);
+                    }
+                    list.add(signature);
+                }
+                buckets[i] = new Signature[256][];
+                for (int b = 0; b < 256; b++) {
+                    final List<Signature> list = byFirstByte.get(b);
+                    if (list != null) {
+                        buckets[i][b] = list.toArray(new Signature[list.size()]);
+                    }
+                }
+                i++;
+            }
+        }
+    }
+
+}
@@ -67,7 +67,7 @@ import org.apache.commons.io.IOUtils;
  * @see FileFilterUtils#magicNumberFileFilter(String, long)
  */
 public class MagicNumberFileFilter extends AbstractFileFilter implements
-        Serializable {
+        CostedFileFilter, Serializable {
 
     /**
      * The serialization version unique identifier.
@@ -271,4 +271,15 @@ public class MagicNumberFileFilter extends AbstractFileFilter implements
         builder.append(")");
         return builder.toString();
     }
+
+    /**
+     * Returns {@link FilterCost#CONTENT} as this filter reads the file content.
+     *
+     * @return {@link FilterCost#CONTENT}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.CONTENT;
+    }
+
 }
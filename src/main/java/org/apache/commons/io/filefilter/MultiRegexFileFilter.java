@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+
+/**
+ * Filters files using several regular expressions at once.
+ * <p>
+ * The regular expressions are combined into a single {@link Pattern}, one
+ * alternative each, so a file is checked with one match whatever the number of
+ * regular expressions, and the capturing group of each alternative identifies
+ * which regular expression matched, see {@link #indexOfMatch(String)}. Each
+ * thread reuses its own {@link Matcher}, so checking a file does not create one.
+ * <p>
+ * By default the regular expressions are matched against the file name. When a
+ * base directory is given, they are matched against the path of the file
+ * relative to that directory instead, using '/' as the separator whatever the
+ * system, and files outside the base directory are rejected.
+ * <pre>
+ * File dir = new File("src");
+ * List&lt;String&gt; patterns = Arrays.asList("main/java/.*\\.java", "test/java/.*Test\\.java");
+ * Collection&lt;File&gt; files = FileUtils.listFiles(dir,
+ *     new MultiRegexFileFilter(dir, patterns, 0), TrueFileFilter.INSTANCE);
+ * </pre>
+ * <p>
+ * Regular expressions containing back references, named groups, unterminated
+ * quotes or embedded comments can not be combined, as the combined pattern would
+ * not keep their meaning, nor can literal patterns; in these cases the regular
+ * expressions are checked one after the other, still reusing the matchers.
+ *
+ * @version $Id$
+ * @since 2.5
+ * @see RegexFileFilter
+ */
+public class MultiRegexFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
+
+    private static final long serialVersionUID = -1870432751283519437L;
+
+    /** The regular expressions as given */
+    private final List<String> regexes;
+    /** The base directory for relative path matching, null to match names */
+    private final File baseDirectory;
+    /** The combined pattern, null if the regular expressions are matched one by one */
+    private final Pattern combined;
+    /** The capturing group of each regular expression in the combined pattern */
+    private final int[] groups;
+    /** The separately compiled patterns, used when they can not be combined */
+    private final Pattern[] patterns;
+
+    /** The matchers of each thread, created on demand. */
+    private transient volatile ThreadLocal<Matcher[]> matchers;
+
+    /**
+     * Construct a new filter matching file names against regular expressions.
+     *
+     * @param regexes  the regular expressions to match
+     * @throws IllegalArgumentException if the regular expressions are null or contain null
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public MultiRegexFileFilter(final String... regexes) {
+        this(null, regexes == null ? null : Arrays.asList(regexes), 0);
+    }
+
+    /**
+     * Construct a new filter matching file names against regular expressions
+     * with the specified case sensitivity.
+     *
+     * @param regexes  the regular expressions to match
+     * @param caseSensitivity  how to handle case sensitivity, null means case-sensitive
+     * @throws IllegalArgumentException if the regular expressions are null or contain null
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public MultiRegexFileFilter(final List<String> regexes, final IOCase caseSensitivity) {
+        this(null, regexes, caseSensitivity != null && !caseSensitivity.isCaseSensitive()
+                ? Pattern.CASE_INSENSITIVE : 0);
+    }
+
+    /**
+     * Construct a new filter matching file names against regular expressions
+     * with the specified flags.
+     *
+     * @param regexes  the regular expressions to match
+     * @param flags  pattern flags - e.g. {@link Pattern#CASE_INSENSITIVE}
+     * @throws IllegalArgumentException if the regular expressions are null or contain null
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public MultiRegexFileFilter(final List<String> regexes, final int flags) {
+        this(null, regexes, flags);
+    }
+
+    /**
+     * Construct a new filter matching relative paths against regular expressions
+     * with the specified flags.
+     *
+     * @param baseDirectory  the directory the paths are relative to, null to match file names
+     * @param regexes  the regular expressions to match
+     * @param flags  pattern flags - e.g. {@link Pattern#CASE_INSENSITIVE}
+     * @throws IllegalArgumentException if the regular expressions are null or contain null
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public MultiRegexFileFilter(final File baseDirectory, final List<String> regexes, final int flags) {
+        if (regexes == null) {
+            throw new IllegalArgumentException("The list of regular expressions must not be null");
+        }
+        this.regexes = Collections.unmodifiableList(new ArrayList<String>(regexes));
+        this.baseDirectory = baseDirectory == null ? null : baseDirectory.getAbsoluteFile();
+        this.groups = new int[this.regexes.size()];
+
+        final Pattern[] compiled = new Pattern[this.regexes.size()];
+        final StringBuilder alternation = new StringBuilder();
+        boolean combinable = (flags & Pattern.LITERAL) == 0;
+        int group = 1;
+        for (int i = 0; i < compiled.length; i++) {
+            final String regex = this.regexes.get(i);
+            if (regex == null) {
+                throw new IllegalArgumentException("The list of regular expressions must not contain null");
+            }
+            compiled[i] = Pattern.compile(regex, flags);
+            combinable &= isCombinable(regex);
+            if (i > 0) {
+                alternation.append('|');
+            }
+            alternation.append('(').append(regex);
+            if ((flags & Pattern.COMMENTS) != 0) {
+                alternation.append('\n'); // ends any trailing comment
+            }
+            alternation.append(')');
+            groups[i] = group;
+            group += compiled[i].matcher("").groupCount() + 1;
+        }
+        final Pattern pattern = combinable ? compileCombined(alternation.toString(), flags, group - 1) : null;
+        if (pattern != null) {
+            this.combined = pattern;
+            this.patterns = null;
+        } else {
+            this.combined = null;
+            this.patterns = compiled;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the regular expressions, in the order given.
+     *
+     * @return the regular expressions, unmodifiable
+     */
+    public List<String> getRegexes() {
+        return regexes;
+    }
+
+    /**
+     * Returns the directory the matched paths are relative to.
+     *
+     * @return the absolute base directory, null if file names are matched
+     */
+    public File getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    /**
+     * Checks to see if the file name, or relative path, matches one of the
+     * regular expressions.
+     *
+     * @param file  the file to check
+     * @return true if one of the regular expressions matches
+     */
+    @Override
+    public boolean accept(final File file) {
+        return indexOfMatch(file) >= 0;
+    }
+
+    /**
+     * Checks to see if the file name, or relative path, matches one of the
+     * regular expressions.
+     *
+     * @param dir  the file directory, only used when matching relative paths
+     * @param name  the file name
+     * @return true if one of the regular expressions matches
+     */
+    @Override
+    public boolean accept(final File dir, final String name) {
+        if (baseDirectory == null) {
+            return indexOfMatch(name) >= 0;
+        }
+        return indexOfMatch(new File(dir, name)) >= 0;
+    }
+
+    /**
+     * Finds the first regular expression matching the file name, or the path
+     * relative to the base directory.
+     *
+     * @param file  the file to check
+     * @return the index of the first matching regular expression, -1 if none
+     * matches or the file is outside the base directory
+     */
+    public int indexOfMatch(final File file) {
+        final String text = getMatchedText(file);
+        return text == null ? -1 : indexOfMatch(text);
+    }
+
+    /**
+     * Finds the first regular expression matching a text in its entirety.
+     *
+     * @param text  the text to check, not null
+     * @return the index of the first matching regular expression, -1 if none
+     */
+    public int indexOfMatch(final String text) {
+        final Matcher[] matchers = getMatchers();
+        if (combined == null) {
+            for (int i = 0; i < matchers.length; i++) {
+                if (matchers[i].reset(text).matches()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final Matcher matcher = matchers[0].reset(text);
+        if (matcher.matches()) {
+            for (int i = 0; i < groups.length; i++) {
+                if (matcher.start(groups[i]) >= 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file path.
+     *
+     * @return {@link FilterCost#NAME}
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
+    /**
+     * Provide a String representation of this file filter.
+     *
+     * @return a String representation
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder();
+        buffer.append(super.toString());
+        buffer.append("(");
+        if (baseDirectory != null) {
+            buffer.append(baseDirectory);
+            buffer.append(":");
+        }
+        buffer.append(regexes);
+        buffer.append(")");
+        return buffer.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns the text to match for a file.
+     *
+     * @param file  the file
+     * @return the file name, or the relative path, null if the file is outside
+     * the base directory
+     */
+    private String getMatchedText(final File file) {
+        if (baseDirectory == null) {
+            return file.getName();
+        }
+        final String base = baseDirectory.getPath();
+        final String path = file.getAbsolutePath();
+        if (!path.startsWith(base)) {
+            return null;
+        }
+        if (path.length() == base.length()) {
+            return "";
+        }
+        if (base.endsWith(File.separator)) {
+            return FilenameUtils.separatorsToUnix(path.substring(base.length()));
+        }
+        if (path.charAt(base.length()) != File.separatorChar) {
+            return null;
+        }
+        return FilenameUtils.separatorsToUnix(path.substring(base.length() + 1));
+    }
+
+    /**
+     * Returns the matchers of the current thread, creating them if needed.
+     *
+     * @return the matchers, one for the combined pattern or one for each pattern
+     */
+    private Matcher[] getMatchers() {
+        ThreadLocal<Matcher[]> local = this.matchers;
+        if (local == null) {
+            local = new ThreadLocal<Matcher[]>();
+            this.matchers = local;
+        }
+        Matcher[] threadMatchers = local.get();
+        if (threadMatchers == null) {
+            if (combined != null) {
+                threadMatchers = new Matcher[] { combined.matcher("") };
+            } else {
+                threadMatchers = new Matcher[patterns.length];
+                for (int i = 0; i < patterns.length; i++) {
+                    threadMatchers[i] = patterns[i].matcher("");
+                }
+            }
+            local.set(threadMatchers);
+        }
+        return threadMatchers;
+    }
+
+    /**
+     * Compiles the combined pattern, checking it has the expected groups.
+     *
+     * @param alternation  the regular expressions as alternatives
+     * @param flags  pattern flags
+     * @param groupCount  the number of capturing groups of the alternatives
+     * @return the combined pattern, null if the alternatives do not combine
+     */
+    private static Pattern compileCombined(final String alternation, final int flags, final int groupCount) {
+        try {
+            final Pattern pattern = Pattern.compile(alternation, flags);
+            return pattern.matcher("").groupCount() == groupCount ? pattern : null;
+        } catch (final PatternSyntaxException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a regular expression keeps its meaning as an alternative
+     * of the combined pattern. Back references, named groups, unterminated
+     * quotes and embedded comments flags do not.
+     *
+     * @param regex  the regular expression
+     * @return true if the regular expression can be combined
+     */
+    private static boolean isCombinable(final String regex) {
+        final int length = regex.length();
+        for (int i = 0; i < length - 1; i++) {
+            final char ch = regex.charAt(i);
+            final char next = regex.charAt(i + 1);
+            if (ch == '\\') {
+                if (next >= '1' && next <= '9' || next == 'k') {
+                    return false; // back reference
+                }
+                if (next == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return false; // quote up to the end
+                    }
+                    i = end;
+                }
+                i++;
+            } else if (ch == '(' && next == '?' && i + 2 < length) {
+                final char kind = regex.charAt(i + 2);
+                if (kind == '<' && i + 3 < length && regex.charAt(i + 3) != '=' && regex.charAt(i + 3) != '!') {
+                    return false; // named group
+                }
+                for (int j = i + 2; j < length; j++) {
+                    final char flag = regex.charAt(j);
+                    if (flag == 'x') {
+                        return false; // comments flag
+                    }
+                    if (!Character.isLetter(flag) && flag != '-') {
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+}
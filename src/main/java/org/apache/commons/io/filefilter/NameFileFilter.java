@@ -35,13 +35,16 @@ import org.apache.commons.io.IOCase;
  *     System.out.println(files[i]);
  * }
  * </pre>
+ * <p>
+ * The names are held in a trie, so the time to check a name depends on
+ * the length of the name rather than on the number of names.
  *
  * @since 1.0
  * @version $Id$
  * @see FileFilterUtils#nameFileFilter(String)
  * @see FileFilterUtils#nameFileFilter(String, IOCase)
  */
-public class NameFileFilter extends AbstractFileFilter implements Serializable {
+public class NameFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 176844364689077340L;
     /** The filenames to search for */
@@ -49,6 +52,9 @@ public class NameFileFilter extends AbstractFileFilter implements Serializable {
     /** Whether the comparison is case sensitive. */
     private final IOCase caseSensitivity;
 
+    /** The names looked up as a trie, created on demand. */
+    private transient volatile CharTrie<String> trie;
+
     /**
      * Constructs a new case-sensitive name file filter for a single name.
      *
@@ -140,12 +146,7 @@ public class NameFileFilter extends AbstractFileFilter implements Serializable {
     @Override
     public boolean accept(final File file) {
         final String name = file.getName();
-        for (final String name2 : this.names) {
-            if (caseSensitivity.checkEquals(name, name2)) {
-                return true;
-            }
-        }
-        return false;
+        return getTrie().contains(name);
     }
 
     /**
@@ -157,12 +158,24 @@ public class NameFileFilter extends AbstractFileFilter implements Serializable {
      */
     @Override
     public boolean accept(final File dir, final String name) {
-        for (final String name2 : names) {
-            if (caseSensitivity.checkEquals(name, name2)) {
-                return true;
+        return getTrie().contains(name);
+    }
+
+    /**
+     * Returns the names as a trie, building it if needed.
+     *
+     * @return the trie
+     */
+    private CharTrie<String> getTrie() {
+        CharTrie<String> charTrie = this.trie;
+        if (charTrie == null) {
+            charTrie = new CharTrie<String>(caseSensitivity, false);
+            for (final String name : names) {
+                charTrie.add(name);
             }
+            this.trie = charTrie;
         }
-        return false;
+        return charTrie;
     }
 
     /**
@@ -187,4 +200,14 @@ public class NameFileFilter extends AbstractFileFilter implements Serializable {
         return buffer.toString();
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file name.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * This filter produces a logical NOT of the filters specified.
  *
@@ -26,7 +28,7 @@ import java.io.Serializable;
  * @version $Id$
  * @see FileFilterUtils#notFileFilter(IOFileFilter)
  */
-public class NotFileFilter extends AbstractFileFilter implements Serializable {
+public class NotFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 6131563330944994230L;
     /** The filter */
@@ -56,6 +58,17 @@ public class NotFileFilter extends AbstractFileFilter implements Serializable {
         return ! filter.accept(file);
     }
 
+    /**
+     * Returns the logical NOT of the underlying filter's return value for the same attributes.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if the filter returns false
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        return ! FileFilterUtils.accept(filter, attributes);
+    }
+
     /**
      * Returns the logical NOT of the underlying filter's return value for the same arguments.
      *
@@ -68,6 +81,16 @@ public class NotFileFilter extends AbstractFileFilter implements Serializable {
         return ! filter.accept(file, name);
     }
 
+    /**
+     * Returns the cost class of the underlying filter.
+     *
+     * @return the cost class of the underlying filter
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FileFilterUtils.getCost(filter);
+    }
+
     /**
      * Provide a String representaion of this file filter.
      *
@@ -35,13 +35,16 @@ import org.apache.commons.io.IOCase;
  *     System.out.println(files[i]);
  * }
  * </pre>
+ * <p>
+ * The prefixes are held in a trie, so the time to check a name depends on
+ * the length of the name rather than on the number of prefixes.
  *
  * @since 1.0
  * @version $Id$
  * @see FileFilterUtils#prefixFileFilter(String)
  * @see FileFilterUtils#prefixFileFilter(String, IOCase)
  */
-public class PrefixFileFilter extends AbstractFileFilter implements Serializable {
+public class PrefixFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 8533897440809599867L;
 
@@ -51,6 +54,9 @@ public class PrefixFileFilter extends AbstractFileFilter implements Serializable
     /** Whether the comparison is case sensitive. */
     private final IOCase caseSensitivity;
 
+    /** The prefixes looked up as a trie, created on demand. */
+    private transient volatile CharTrie<String> trie;
+
     /**
      * Constructs a new Prefix file filter for a single prefix.
      *
@@ -147,12 +153,7 @@ public class PrefixFileFilter extends AbstractFileFilter implements Serializable
     @Override
     public boolean accept(final File file) {
         final String name = file.getName();
-        for (final String prefix : this.prefixes) {
-            if (caseSensitivity.checkStartsWith(name, prefix)) {
-                return true;
-            }
-        }
-        return false;
+        return getTrie().containsKeyOf(name);
     }
 
     /**
@@ -164,12 +165,24 @@ public class PrefixFileFilter extends AbstractFileFilter implements Serializable
      */
     @Override
     public boolean accept(final File file, final String name) {
-        for (final String prefix : prefixes) {
-            if (caseSensitivity.checkStartsWith(name, prefix)) {
-                return true;
+        return getTrie().containsKeyOf(name);
+    }
+
+    /**
+     * Returns the prefixes as a trie, building it if needed.
+     *
+     * @return the trie
+     */
+    private CharTrie<String> getTrie() {
+        CharTrie<String> charTrie = this.trie;
+        if (charTrie == null) {
+            charTrie = new CharTrie<String>(caseSensitivity, false);
+            for (final String prefix : prefixes) {
+                charTrie.add(prefix);
             }
+            this.trie = charTrie;
         }
-        return false;
+        return charTrie;
     }
 
     /**
@@ -194,4 +207,14 @@ public class PrefixFileFilter extends AbstractFileFilter implements Serializable
         return buffer.toString();
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file name.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
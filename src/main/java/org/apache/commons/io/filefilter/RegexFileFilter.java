@@ -42,7 +42,7 @@ import org.apache.commons.io.IOCase;
  * @version $Id$
  * @since 1.4
  */
-public class RegexFileFilter extends AbstractFileFilter implements Serializable {
+public class RegexFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 4269646126155225062L;
     /** The regular expression pattern that will be used to match filenames */
@@ -120,4 +120,14 @@ public class RegexFileFilter extends AbstractFileFilter implements Serializable
         return pattern.matcher(name).matches();
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file name.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
@@ -19,6 +19,8 @@ package org.apache.commons.io.filefilter;
 import java.io.File;
 import java.io.Serializable;
 
+import org.apache.commons.io.FileAttributes;
+
 /**
  * Filters files based on size, can filter either smaller files or
  * files equal to or larger than a given threshold.
@@ -40,7 +42,7 @@ import java.io.Serializable;
  * @see FileFilterUtils#sizeFileFilter(long, boolean)
  * @see FileFilterUtils#sizeRangeFileFilter(long, long)
  */
-public class SizeFileFilter extends AbstractFileFilter implements Serializable {
+public class SizeFileFilter extends AbstractFileFilter implements AttributeFileFilter, CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 7388077430788600069L;
     /** The size threshold. */
@@ -94,6 +96,18 @@ public class SizeFileFilter extends AbstractFileFilter implements Serializable {
         return acceptLarger ? !smaller : smaller;
     }
 
+    /**
+     * Checks to see if the size of the file is favorable.
+     *
+     * @param attributes  the attributes of the file to check
+     * @return true if the filename matches
+     * @since 2.5
+     */
+    public boolean accept(final FileAttributes attributes) {
+        final boolean smaller = attributes.length() < size;
+        return acceptLarger ? !smaller : smaller;
+    }
+
     /**
      * Provide a String representaion of this file filter.
      *
@@ -105,4 +119,14 @@ public class SizeFileFilter extends AbstractFileFilter implements Serializable {
         return super.toString() + "(" + condition + size + ")";
     }
 
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
@@ -36,13 +36,16 @@ import org.apache.commons.io.IOCase;
  *     System.out.println(files[i]);
  * }
  * </pre>
+ * <p>
+ * The suffixes are held in a trie, so the time to check a name depends on
+ * the length of the name rather than on the number of suffixes.
  *
  * @since 1.0
  * @version $Id$
  * @see FileFilterUtils#suffixFileFilter(String)
  * @see FileFilterUtils#suffixFileFilter(String, IOCase)
  */
-public class SuffixFileFilter extends AbstractFileFilter implements Serializable {
+public class SuffixFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = -3389157631240246157L;
 
@@ -52,6 +55,9 @@ public class SuffixFileFilter extends AbstractFileFilter implements Serializable
     /** Whether the comparison is case sensitive. */
     private final IOCase caseSensitivity;
 
+    /** The suffixes looked up as a trie, created on demand. */
+    private transient volatile CharTrie<String> trie;
+
     /**
      * Constructs a new Suffix file filter for a single extension.
      *
@@ -148,12 +154,7 @@ public class SuffixFileFilter extends AbstractFileFilter implements Serializable
     @Override
     public boolean accept(final File file) {
         final String name = file.getName();
-        for (final String suffix : this.suffixes) {
-            if (caseSensitivity.checkEndsWith(name, suffix)) {
-                return true;
-            }
-        }
-        return false;
+        return getTrie().containsKeyOf(name);
     }
 
     /**
@@ -165,12 +166,24 @@ public class SuffixFileFilter extends AbstractFileFilter implements Serializable
      */
     @Override
     public boolean accept(final File file, final String name) {
-        for (final String suffix : this.suffixes) {
-            if (caseSensitivity.checkEndsWith(name, suffix)) {
-                return true;
+        return getTrie().containsKeyOf(name);
+    }
+
+    /**
+     * Returns the suffixes as a trie, building it if needed.
+     *
+     * @return the trie
+     */
+    private CharTrie<String> getTrie() {
+        CharTrie<String> charTrie = this.trie;
+        if (charTrie == null) {
+            charTrie = new CharTrie<String>(caseSensitivity, true);
+            for (final String suffix : suffixes) {
+                charTrie.add(suffix);
             }
+            this.trie = charTrie;
         }
-        return false;
+        return charTrie;
     }
 
     /**
@@ -195,4 +208,14 @@ public class SuffixFileFilter extends AbstractFileFilter implements Serializable
         return buffer.toString();
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file name.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
@@ -26,7 +26,7 @@ import java.io.Serializable;
  * @version $Id$
  * @see FileFilterUtils#trueFileFilter()
  */
-public class TrueFileFilter implements IOFileFilter, Serializable {
+public class TrueFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = 8782512160909720199L;
     /**
@@ -69,4 +69,14 @@ public class TrueFileFilter implements IOFileFilter, Serializable {
         return true;
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter does not access the file system.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
@@ -35,6 +35,9 @@ import org.apache.commons.io.IOCase;
  * The check is case-sensitive by default.
  * See {@link FilenameUtils#wildcardMatchOnSystem} for more information.
  * <p>
+ * The wildcards are compiled on first use, so that the time taken to check a
+ * file depends little on the number of wildcards.
+ * <p>
  * For example:
  * <pre>
  * File dir = new File(".");
@@ -48,13 +51,15 @@ import org.apache.commons.io.IOCase;
  * @version $Id$
  * @since 1.3
  */
-public class WildcardFileFilter extends AbstractFileFilter implements Serializable {
+public class WildcardFileFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = -7426486598995782105L;
     /** The wildcards that will be used to match filenames. */
     private final String[] wildcards;
     /** Whether the comparison is case sensitive. */
     private final IOCase caseSensitivity;
+    /** The compiled wildcards, created on demand. */
+    private transient volatile WildcardMatcher matcher;
 
     /**
      * Construct a new case-sensitive wildcard filter for a single wildcard.
@@ -146,12 +151,7 @@ public class WildcardFileFilter extends AbstractFileFilter implements Serializab
      */
     @Override
     public boolean accept(final File dir, final String name) {
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(name, wildcard, caseSensitivity)) {
-                return true;
-            }
-        }
-        return false;
+        return getMatcher().matches(name);
     }
 
     /**
@@ -162,13 +162,21 @@ public class WildcardFileFilter extends AbstractFileFilter implements Serializab
      */
     @Override
     public boolean accept(final File file) {
-        final String name = file.getName();
-        for (final String wildcard : wildcards) {
-            if (FilenameUtils.wildcardMatch(name, wildcard, caseSensitivity)) {
-                return true;
-            }
+        return getMatcher().matches(file.getName());
+    }
+
+    /**
+     * Returns the compiled wildcards, compiling them if needed.
+     *
+     * @return the wildcard matcher
+     */
+    private WildcardMatcher getMatcher() {
+        WildcardMatcher wildcardMatcher = this.matcher;
+        if (wildcardMatcher == null) {
+            wildcardMatcher = new WildcardMatcher(wildcards, caseSensitivity);
+            this.matcher = wildcardMatcher;
         }
-        return false;
+        return wildcardMatcher;
     }
 
     /**
@@ -193,4 +201,14 @@ public class WildcardFileFilter extends AbstractFileFilter implements Serializab
         return buffer.toString();
     }
 
+    /**
+     * Returns {@link FilterCost#NAME} as this filter only looks at the file name.
+     *
+     * @return {@link FilterCost#NAME}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.NAME;
+    }
+
 }
@@ -50,7 +50,7 @@ import org.apache.commons.io.FilenameUtils;
  * filtering which it shouldn't do, but that can't be removed due to compatability.
  */
 @Deprecated
-public class WildcardFilter extends AbstractFileFilter implements Serializable {
+public class WildcardFilter extends AbstractFileFilter implements CostedFileFilter, Serializable {
 
     private static final long serialVersionUID = -5037645902506953517L;
     /** The wildcards that will be used to match filenames. */
@@ -141,4 +141,14 @@ public class WildcardFilter extends AbstractFileFilter implements Serializable {
         return false;
     }
 
+    /**
+     * Returns {@link FilterCost#METADATA} as this filter reads the file metadata.
+     *
+     * @return {@link FilterCost#METADATA}
+     * @since 2.5
+     */
+    public FilterCost getCost() {
+        return FilterCost.METADATA;
+    }
+
 }
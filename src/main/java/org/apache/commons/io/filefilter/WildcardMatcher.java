@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.WildcardPattern;
+
+/**
+ * Matches filenames against many wildcards at once.
+ * <p>
+ * The wildcards are compiled once into tries keyed on their literal parts:
+ * <ul>
+ * <li>wildcards without <code>?</code> or <code>*</code> are looked up as whole names</li>
+ * <li>wildcards of the form <code>text*</code> and <code>*text</code> are looked up
+ * as prefixes and suffixes, and match without further checks</li>
+ * <li>other wildcards are indexed by the literal text before their first, or else
+ * after their last, wildcard character, and are only matched in full against names
+ * which start or end with that text, using a precompiled {@link WildcardPattern}</li>
+ * </ul>
+ * So the cost of matching a name depends on its length and on the few wildcards
+ * sharing its literal prefix or suffix, rather than on the number of wildcards.
+ * Only wildcards starting and ending with a wildcard character, such as
+ * <code>*text*</code>, are matched against every name.
+ * <p>
+ * The result is the same as {@link FilenameUtils#wildcardMatch(String, String, IOCase)}
+ * returning true for any of the wildcards. Instances are safe for concurrent use.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+final class WildcardMatcher {
+
+    /** The exact names */
+    private final CharTrie<String> names;
+    /** The prefixes, holding the wildcards indexed by their literal prefix */
+    private final CharTrie<WildcardPattern> prefixes;
+    /** The suffixes, holding the wildcards indexed by their literal suffix */
+    private final CharTrie<WildcardPattern> suffixes;
+    /** The wildcards which cannot be indexed */
+    private final WildcardPattern[] others;
+    /** Whether a wildcard matches every name */
+    private final boolean matchAll;
+    /** Whether a wildcard is null, matching a null name */
+    private final boolean matchNull;
+
+    /**
+     * Compiles wildcards.
+     *
+     * @param wildcards  the wildcards, null elements only match null names
+     * @param caseSensitivity  how to handle case sensitivity, null means case-sensitive
+     */
+    WildcardMatcher(final String[] wildcards, final IOCase caseSensitivity) {
+        names = new CharTrie<String>(caseSensitivity, false);
+        prefixes = new CharTrie<WildcardPattern>(caseSensitivity, false);
+        suffixes = new CharTrie<WildcardPattern>(caseSensitivity, true);
+        final List<WildcardPattern> unindexed = new ArrayList<WildcardPattern>();
+        boolean all = false;
+        boolean nullWildcard = false;
+        for (final String wildcard : wildcards) {
+            if (wildcard == null) {
+                nullWildcard = true;
+                continue;
+            }
+            final int first = indexOfWildcard(wildcard);
+            if (first < 0) {
+                names.add(wildcard);
+                continue;
+            }
+            final int last = lastIndexOfWildcard(wildcard);
+            if (wildcard.indexOf('?') < 0) {
+                // only stars, check for the text* and *text forms
+                int start = 0;
+                while (start < wildcard.length() && wildcard.charAt(start) == '*') {
+                    start++;
+                }
+                int end = wildcard.length();
+                while (end > start && wildcard.charAt(end - 1) == '*') {
+                    end--;
+                }
+                final String text = wildcard.substring(start, end);
+                if (text.length() == 0) {
+                    all = true;
+                    continue;
+                }
+                if (text.indexOf('*') < 0) {
+                    if (start == 0) {
+                        prefixes.add(text);
+                        continue;
+                    }
+                    if (end == wildcard.length()) {
+                        suffixes.add(text);
+                        continue;
+                    }
+                }
+            }
+            final WildcardPattern pattern = new WildcardPattern(wildcard, caseSensitivity);
+            if (first > 0) {
+                prefixes.add(wildcard.substring(0, first), pattern);
+            } else if (last < wildcard.length() - 1) {
+                suffixes.add(wildcard.substring(last + 1), pattern);
+            } else {
+                unindexed.add(pattern);
+            }
+        }
+        this.others = unindexed.toArray(new WildcardPattern[unindexed.size()]);
+        this.matchAll = all;
+        this.matchNull = nullWildcard;
+    }
+
+    /**
+     * Tests whether a name matches any of the wildcards.
+     *
+     * @param name  the name to match
+     * @return true if the name matches
+     */
+    boolean matches(final String name) {
+        if (name == null) {
+            return matchNull;
+        }
+        if (matchAll || names.contains(name)) {
+            return true;
+        }
+        if (matches(prefixes, name) || matches(suffixes, name)) {
+            return true;
+        }
+        for (final WildcardPattern pattern : others) {
+            if (pattern.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks a trie along a name, checking the keys and wildcards met.
+     *
+     * @param trie  the trie to walk
+     * @param name  the name to match
+     * @return true if the name matches
+     */
+    private boolean matches(final CharTrie<WildcardPattern> trie, final String name) {
+        CharTrie.Node<WildcardPattern> node = trie.root();
+        int count = 0;
+        while (node != null) {
+            if (node.isTerminal()) {
+                return true;
+            }
+            final List<WildcardPattern> patterns = node.getValues();
+            if (patterns != null) {
+                for (final WildcardPattern pattern : patterns) {
+                    if (pattern.matches(name)) {
+                        return true;
+                    }
+                }
+            }
+            node = trie.next(node, name, count++);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the first wildcard character.
+     *
+     * @param wildcard  the wildcard
+     * @return the index, -1 if none
+     */
+    private static int indexOfWildcard(final String wildcard) {
+        for (int i = 0; i < wildcard.length(); i++) {
+            final char ch = wildcard.charAt(i);
+            if (ch == '?' || ch == '*') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last wildcard character.
+     *
+     * @param wildcard  the wildcard
+     * @return the index, -1 if none
+     */
+    private static int lastIndexOfWildcard(final String wildcard) {
+        for (int i = wildcard.length() - 1; i >= 0; i--) {
+            final char ch = wildcard.charAt(i);
+            if (ch == '?' || ch == '*') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
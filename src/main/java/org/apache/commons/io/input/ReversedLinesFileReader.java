@@ -21,6 +21,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 
@@ -29,11 +31,21 @@ import org.apache.commons.io.Charsets;
 /**
  * Reads lines in a file reversely (similar to a BufferedReader, but starting at
  * the last line). Useful for e.g. searching in log files.
+ * <p>
+ * By default the file is read in blocks. A reader created with
+ * {@link #ReversedLinesFileReader(File, int, Charset, boolean) memoryMapped}
+ * set maps the file into memory instead, in windows of 64 MB, and scans the
+ * mapped bytes backwards without copying them, which is much faster on large
+ * files. Mapped windows are only released when garbage collected, and on some
+ * platforms keep the file from being deleted until then.
  *
  * @since 2.2
  */
 public class ReversedLinesFileReader implements Closeable {
 
+    /** The size of the windows the file is mapped in. */
+    private static final int MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+
     private final int blockSize;
     private final Charset encoding;
 
@@ -45,9 +57,13 @@ public class ReversedLinesFileReader implements Closeable {
     private final byte[][] newLineSequences;
     private final int avoidNewlineSplitBufferSize;
     private final int byteDecrement;
+    private final byte newLineLastByte;
+    private final byte carriageReturnLastByte;
 
     private FilePart currentFilePart;
 
+    private final MappedFile mappedFile;
+
     private boolean trailingNewlineOfFileSkipped = false;
 
     /**
@@ -91,8 +107,49 @@ public class ReversedLinesFileReader implements Closeable {
      * @throws IOException  if an I/O error occurs
      * @since 2.3
      */
-    @SuppressWarnings("deprecation") // unavoidable until Java 7
     public ReversedLinesFileReader(final File file, final int blockSize, final Charset encoding) throws IOException {
+        this(file, blockSize, encoding, 0);
+    }
+
+    /**
+     * Creates a ReversedLinesFileReader with the given block size and encoding,
+     * optionally memory mapping the file.
+     *
+     * @param file
+     *            the file to be read
+     * @param blockSize
+     *            size of the internal buffer (for ideal performance this should
+     *            match with the block size of the underlying file system),
+     *            unused when memory mapping the file.
+     * @param encoding
+     *            the encoding of the file
+     * @param memoryMapped
+     *            whether to memory map the file rather than read it in blocks
+     * @throws IOException  if an I/O error occurs
+     * @since 2.5
+     */
+    public ReversedLinesFileReader(final File file, final int blockSize, final Charset encoding,
+            final boolean memoryMapped) throws IOException {
+        this(file, blockSize, encoding, memoryMapped ? MAP_WINDOW_SIZE : 0);
+    }
+
+    /**
+     * Creates a ReversedLinesFileReader with the given block size and encoding,
+     * optionally memory mapping the file in windows of the given size.
+     *
+     * @param file
+     *            the file to be read
+     * @param blockSize
+     *            size of the internal buffer, unused when memory mapping the file.
+     * @param encoding
+     *            the encoding of the file
+     * @param mapWindowSize
+     *            the size of the mapped windows, 0 to read the file in blocks
+     * @throws IOException  if an I/O error occurs
+     */
+    @SuppressWarnings("deprecation") // unavoidable until Java 7
+    ReversedLinesFileReader(final File file, final int blockSize, final Charset encoding, final int mapWindowSize)
+            throws IOException {
         this.blockSize = blockSize;
         this.encoding = encoding;
 
@@ -107,7 +164,6 @@ public class ReversedLinesFileReader implements Closeable {
                 lastBlockLength = blockSize;
             }
         }
-        currentFilePart = new FilePart(totalBlockCount, lastBlockLength, null);
 
         // --- check & prepare encoding ---
         final Charset charset = Charsets.toCharset(encoding);
@@ -142,6 +198,16 @@ public class ReversedLinesFileReader implements Closeable {
         newLineSequences = new byte[][] { "\r\n".getBytes(encoding), "\n".getBytes(encoding), "\r".getBytes(encoding) };
 
         avoidNewlineSplitBufferSize = newLineSequences[0].length;
+        // every new line sequence ends with the last byte of \n or \r, which is checked first
+        newLineLastByte = newLineSequences[1][newLineSequences[1].length - 1];
+        carriageReturnLastByte = newLineSequences[2][newLineSequences[2].length - 1];
+
+        if (mapWindowSize > 0) {
+            mappedFile = new MappedFile(randomAccessFile.getChannel(), mapWindowSize);
+        } else {
+            mappedFile = null;
+            currentFilePart = new FilePart(totalBlockCount, lastBlockLength, null);
+        }
     }
 
     /**
@@ -170,8 +236,8 @@ public class ReversedLinesFileReader implements Closeable {
      */
     public String readLine() throws IOException {
 
-        String line = currentFilePart.readLine();
-        while (line == null) {
+        String line = mappedFile != null ? mappedFile.readLine() : currentFilePart.readLine();
+        while (line == null && mappedFile == null) {
             currentFilePart = currentFilePart.rollOver();
             if (currentFilePart != null) {
                 line = currentFilePart.readLine();
@@ -345,6 +411,9 @@ public class ReversedLinesFileReader implements Closeable {
          * @return length of newline sequence or 0 if none found
          */
         private int getNewLineMatchByteCount(final byte[] data, final int i) {
+            if (data[i] != newLineLastByte && data[i] != carriageReturnLastByte) {
+                return 0;
+            }
             for (final byte[] newLineSequence : newLineSequences) {
                 boolean match = true;
                 for (int j = newLineSequence.length - 1; j >= 0; j--) {
@@ -359,4 +428,151 @@ public class ReversedLinesFileReader implements Closeable {
         }
     }
 
+
+    /**
+     * Reads the lines of a memory mapped file, scanning backwards from the
+     * end of the unread bytes.
+     */
+    private class MappedFile {
+
+        private final FileChannel channel;
+        private final int windowSize;
+
+        /** The mapped window, null until the first read */
+        private MappedByteBuffer window;
+        /** The file position of the first byte of the window */
+        private long windowStart;
+        /** The file position following the last unread byte */
+        private long position;
+        /** The buffer receiving the bytes of lines, reused across lines */
+        private byte[] lineBuffer = new byte[128];
+
+        /**
+         * ctor
+         * @param channel the channel of the file
+         * @param windowSize the size of the mapped windows
+         */
+        private MappedFile(final FileChannel channel, final int windowSize) {
+            this.channel = channel;
+            this.windowSize = windowSize;
+            this.position = totalByteLength;
+        }
+
+        /**
+         * Reads a line.
+         *
+         * @return the line or null if the start of the file is reached
+         * @throws IOException if there is an error mapping the file
+         */
+        private String readLine() throws IOException {
+            if (position <= 0) {
+                return null;
+            }
+            long i = position - 1;
+            while (i >= 0) {
+                // --- scan the window for the last byte of a newline ---
+                final MappedByteBuffer buffer = mapWindow(i);
+                int local = (int) (i - windowStart);
+                while (local >= 0) {
+                    final byte b = buffer.get(local);
+                    if (b == newLineLastByte || b == carriageReturnLastByte) {
+                        break;
+                    }
+                    local -= byteDecrement;
+                }
+                i = windowStart + local;
+                if (local < 0) {
+                    continue; // previous window
+                }
+
+                // --- check for newline ---
+                final int newLineMatchByteCount = getNewLineMatchByteCount(i);
+                if (newLineMatchByteCount > 0) {
+                    final String line = decode(i + 1, position);
+                    position = i - newLineMatchByteCount + 1;
+                    return line;
+                }
+                i -= byteDecrement;
+            }
+            // there is no line break anymore, this is the first line of the file
+            final String line = decode(0, position);
+            position = 0;
+            return line;
+        }
+
+        /**
+         * Decodes the bytes of a line.
+         *
+         * @param start the file position of the line
+         * @param end the file position following the line
+         * @return the line
+         * @throws IOException if there is an error mapping the file
+         */
+        private String decode(final long start, final long end) throws IOException {
+            final int length = (int) (end - start);
+            if (lineBuffer.length < length) {
+                lineBuffer = new byte[Math.max(length, lineBuffer.length * 2)];
+            }
+            long pos = start;
+            int offset = 0;
+            while (offset < length) {
+                final MappedByteBuffer buffer = mapWindow(pos);
+                buffer.position((int) (pos - windowStart));
+                final int count = Math.min(length - offset, buffer.remaining());
+                buffer.get(lineBuffer, offset, count);
+                offset += count;
+                pos += count;
+            }
+            return new String(lineBuffer, 0, length, encoding);
+        }
+
+        /**
+         * Finds the new-line sequence ending at a file position and return its length.
+         *
+         * @param i the file position of the last byte of the sequence
+         * @return length of newline sequence or 0 if none found
+         * @throws IOException if there is an error mapping the file
+         */
+        private int getNewLineMatchByteCount(final long i) throws IOException {
+            for (final byte[] newLineSequence : newLineSequences) {
+                boolean match = true;
+                for (int j = newLineSequence.length - 1; j >= 0 && match; j--) {
+                    final long k = i + j - (newLineSequence.length - 1);
+                    match = k >= 0 && byteAt(k) == newLineSequence[j];
+                }
+                if (match) {
+                    return newLineSequence.length;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the byte at a file position.
+         *
+         * @param pos the file position
+         * @return the byte
+         * @throws IOException if there is an error mapping the file
+         */
+        private byte byteAt(final long pos) throws IOException {
+            return mapWindow(pos).get((int) (pos - windowStart));
+        }
+
+        /**
+         * Maps the window containing a file position, unless already mapped.
+         *
+         * @param pos the file position
+         * @return the window
+         * @throws IOException if there is an error mapping the file
+         */
+        private MappedByteBuffer mapWindow(final long pos) throws IOException {
+            if (window == null || pos < windowStart || pos >= windowStart + window.capacity()) {
+                windowStart = pos / windowSize * windowSize;
+                final long size = Math.min(windowSize, totalByteLength - windowStart);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            }
+            return window;
+        }
+    }
+
 }
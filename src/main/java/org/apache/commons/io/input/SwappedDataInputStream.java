@@ -19,33 +19,235 @@ package org.apache.commons.io.input;
 import static org.apache.commons.io.IOUtils.EOF;
 
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-
-import org.apache.commons.io.EndianUtils;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * DataInput for systems relying on little endian data formats.
  * When read, values will be changed from little endian to big 
  * endian formats for internal usage. 
  * <p>
+ * The stream is buffered internally: bytes are read from the delegate in
+ * blocks and values are decoded from a little endian {@link ByteBuffer}.
+ * Whole arrays of primitive values can be read at once with the
+ * <code>readFully</code> methods. Since bytes are read ahead, the delegate
+ * should not be read directly while this stream is in use. Mark and reset
+ * are supported by keeping the bytes read since the mark in the buffer,
+ * which grows as needed up to the read limit.
+ * <p>
  * <b>Origin of code: </b>Avalon Excalibur (IO)
  *
+ * @see org.apache.commons.io.output.SwappedDataOutputStream
+ *
  * @version CVS $Revision: 1302050 $
  */
 public class SwappedDataInputStream extends ProxyInputStream
     implements DataInput
 {
 
+    /** The default size of the buffer. */
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+
+    /** The bytes read ahead, between the position and the limit. */
+    private ByteBuffer buffer;
+
+    /** The position of the mark in the buffer, or -1 if none. */
+    private int markPosition = -1;
+
+    /** The number of bytes which may be read before the mark is dropped. */
+    private int markLimit;
+
     /**
      * Constructs a SwappedDataInputStream.
      *
      * @param input InputStream to read from
      */
     public SwappedDataInputStream( final InputStream input )
+    {
+        this( input, DEFAULT_BUFFER_SIZE );
+    }
+
+    /**
+     * Constructs a SwappedDataInputStream with the specified buffer size.
+     *
+     * @param input InputStream to read from
+     * @param bufferSize the size of the buffer, at least 8 bytes
+     * @throws IllegalArgumentException if the buffer size is less than 8
+     * @since 2.5
+     */
+    public SwappedDataInputStream( final InputStream input, final int bufferSize )
     {
         super( input );
+        if( bufferSize < 8 )
+        {
+            throw new IllegalArgumentException( "Buffer size must be at least 8: " + bufferSize );
+        }
+        buffer = ByteBuffer.allocate( bufferSize ).order( ByteOrder.LITTLE_ENDIAN );
+        buffer.flip();
+    }
+
+    /**
+     * Reads a byte from the buffer, refilling it if needed.
+     * @return the byte read or -1 if the end of stream
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public int read()
+        throws IOException
+    {
+        if( !fill( 1 ) )
+        {
+            return EOF;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    /**
+     * Reads bytes from the buffer, refilling it if needed.
+     * @param data the buffer to read the bytes into
+     * @return the number of bytes read or -1 if the end of stream
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public int read( final byte[] data )
+        throws IOException
+    {
+        return read( data, 0, data.length );
+    }
+
+    /**
+     * Reads bytes from the buffer, refilling it if needed. Reads at least
+     * as large as the buffer bypass it once it is empty.
+     * @param data the buffer to read the bytes into
+     * @param offset The start offset
+     * @param length The maximum number of bytes to read
+     * @return the number of bytes read or -1 if the end of stream
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public int read( final byte[] data, final int offset, final int length )
+        throws IOException
+    {
+        if( length == 0 )
+        {
+            return 0;
+        }
+        if( !buffer.hasRemaining() && length >= buffer.capacity() && markPosition < 0 )
+        {
+            return super.read( data, offset, length );
+        }
+        if( !fill( 1 ) )
+        {
+            return EOF;
+        }
+        final int count = Math.min( length, buffer.remaining() );
+        buffer.get( data, offset, count );
+        return count;
+    }
+
+    /**
+     * Skips bytes of the buffer, then of the delegate. While a mark is
+     * held, skipped bytes are read into the buffer.
+     * @param count the number of bytes to skip
+     * @return the number of bytes skipped
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public long skip( final long count )
+        throws IOException
+    {
+        if( count <= 0 )
+        {
+            return 0;
+        }
+        long skipped = 0;
+        while( markPosition >= 0 && skipped < count )
+        {
+            if( !fill( 1 ) )
+            {
+                return skipped;
+            }
+            final int n = (int) Math.min( count - skipped, buffer.remaining() );
+            buffer.position( buffer.position() + n );
+            skipped += n;
+        }
+        if( skipped == count )
+        {
+            return skipped;
+        }
+        return skipped + skipUnmarked( count - skipped );
+    }
+
+    /**
+     * Skips bytes of the buffer, then of the delegate.
+     * @param count the number of bytes to skip, positive
+     * @return the number of bytes skipped
+     * @throws IOException if an I/O error occurs
+     */
+    private long skipUnmarked( final long count )
+        throws IOException
+    {
+        final int buffered = buffer.remaining();
+        if( count <= buffered )
+        {
+            buffer.position( buffer.position() + (int) count );
+            return count;
+        }
+        buffer.position( buffer.limit() );
+        return buffered + super.skip( count - buffered );
+    }
+
+    /**
+     * Returns the number of buffered bytes plus the delegate's <code>available()</code>.
+     * @return the number of bytes that can be read without blocking
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public int available()
+        throws IOException
+    {
+        return buffer.remaining() + super.available();
+    }
+
+    /**
+     * Marks the current position, keeping the bytes read from then on in
+     * the buffer. The delegate is not marked.
+     * @param readlimit the number of bytes which may be read before the mark is dropped
+     */
+    @Override
+    public synchronized void mark( final int readlimit )
+    {
+        markPosition = buffer.position();
+        markLimit = readlimit;
+    }
+
+    /**
+     * Moves back to the marked position in the buffer.
+     * @throws IOException if there is no mark or it has been dropped
+     */
+    @Override
+    public synchronized void reset()
+        throws IOException
+    {
+        if( markPosition < 0 )
+        {
+            throw new IOException( "Resetting to invalid mark" );
+        }
+        buffer.position( markPosition );
+    }
+
+    /**
+     * Returns true, as marks are kept in the buffer.
+     * @return true
+     */
+    @Override
+    public boolean markSupported()
+    {
+        return true;
     }
 
     /**
@@ -61,7 +263,7 @@ public class SwappedDataInputStream extends ProxyInputStream
     }
 
     /**
-     * Invokes the delegate's <code>read()</code> method.
+     * Reads a byte from the buffer.
      * @return the byte read or -1 if the end of stream
      * @throws IOException if an I/O error occurs
      * @throws EOFException if an end of file is reached unexpectedly
@@ -69,7 +271,7 @@ public class SwappedDataInputStream extends ProxyInputStream
     public byte readByte()
         throws IOException, EOFException
     {
-        return (byte)in.read();
+        return (byte)read();
     }
 
     /**
@@ -85,7 +287,7 @@ public class SwappedDataInputStream extends ProxyInputStream
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedDouble(InputStream)}. 
+     * Decodes a little endian "double" value from the buffer.
      * @return the read long
      * @throws IOException if an I/O error occurs
      * @throws EOFException if an end of file is reached unexpectedly
@@ -93,11 +295,12 @@ public class SwappedDataInputStream extends ProxyInputStream
     public double readDouble()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedDouble( in );
+        require( 8 );
+        return buffer.getDouble();
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedFloat(InputStream)}. 
+     * Decodes a little endian "float" value from the buffer.
      * @return the read long
      * @throws IOException if an I/O error occurs
      * @throws EOFException if an end of file is reached unexpectedly
@@ -105,7 +308,8 @@ public class SwappedDataInputStream extends ProxyInputStream
     public float readFloat()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedFloat( in );
+        require( 4 );
+        return buffer.getFloat();
     }
 
     /**
@@ -151,7 +355,7 @@ public class SwappedDataInputStream extends ProxyInputStream
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedInteger(InputStream)}. 
+     * Decodes a little endian "int" value from the buffer.
      * @return the read long
      * @throws EOFException if an end of file is reached unexpectedly
      * @throws IOException if an I/O error occurs
@@ -159,7 +363,8 @@ public class SwappedDataInputStream extends ProxyInputStream
     public int readInt()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedInteger( in );
+        require( 4 );
+        return buffer.getInt();
     }
 
     /**
@@ -176,7 +381,7 @@ public class SwappedDataInputStream extends ProxyInputStream
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedLong(InputStream)}. 
+     * Decodes a little endian "long" value from the buffer.
      * @return the read long
      * @throws EOFException if an end of file is reached unexpectedly
      * @throws IOException if an I/O error occurs
@@ -184,11 +389,12 @@ public class SwappedDataInputStream extends ProxyInputStream
     public long readLong()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedLong( in );
+        require( 8 );
+        return buffer.getLong();
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedShort(InputStream)}. 
+     * Decodes a little endian "short" value from the buffer.
      * @return the read long
      * @throws EOFException if an end of file is reached unexpectedly
      * @throws IOException if an I/O error occurs
@@ -196,11 +402,12 @@ public class SwappedDataInputStream extends ProxyInputStream
     public short readShort()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedShort( in );
+        require( 2 );
+        return buffer.getShort();
     }
 
     /**
-     * Invokes the delegate's <code>read()</code> method.
+     * Reads a byte from the buffer.
      * @return the byte read or -1 if the end of stream
      * @throws EOFException if an end of file is reached unexpectedly
      * @throws IOException if an I/O error occurs
@@ -208,11 +415,11 @@ public class SwappedDataInputStream extends ProxyInputStream
     public int readUnsignedByte()
         throws IOException, EOFException
     {
-        return in.read();
+        return read();
     }
 
     /**
-     * Delegates to {@link EndianUtils#readSwappedUnsignedShort(InputStream)}. 
+     * Decodes a little endian unsigned "short" value from the buffer.
      * @return the read long
      * @throws EOFException if an end of file is reached unexpectedly
      * @throws IOException if an I/O error occurs
@@ -220,24 +427,27 @@ public class SwappedDataInputStream extends ProxyInputStream
     public int readUnsignedShort()
         throws IOException, EOFException
     {
-        return EndianUtils.readSwappedUnsignedShort( in );
+        require( 2 );
+        return buffer.getShort() & 0xffff;
     }
 
     /**
-     * Not currently supported - throws {@link UnsupportedOperationException}.
+     * Reads a string in modified UTF-8 preceded by its little endian
+     * unsigned "short" length, as written by
+     * {@link org.apache.commons.io.output.SwappedDataOutputStream#writeUTF(String)}.
      * @return UTF String read
      * @throws EOFException if an end of file is reached unexpectedly
+     * @throws java.io.UTFDataFormatException if the bytes are not valid modified UTF-8
      * @throws IOException if an I/O error occurs
      */
     public String readUTF()
         throws IOException, EOFException
     {
-        throw new UnsupportedOperationException( 
-                "Operation not supported: readUTF()" );
+        return DataInputStream.readUTF( this );
     }
 
     /**
-     * Invokes the delegate's <code>skip(int)</code> method.
+     * Skips bytes, delegating to {@link #skip(long)}.
      * @param count the number of bytes to skip
      * @return the number of bytes to skipped or -1 if the end of stream
      * @throws EOFException if an end of file is reached unexpectedly
@@ -246,7 +456,232 @@ public class SwappedDataInputStream extends ProxyInputStream
     public int skipBytes( final int count )
         throws IOException, EOFException
     {
-        return (int)in.skip( count );
+        return (int)skip( count );
+    }
+
+    /**
+     * Reads little endian "short" values into an array.
+     * @param data the array to read the values into
+     * @param offset The index of the first value to read into
+     * @param length The number of values to read
+     * @throws EOFException if an end of file is reached unexpectedly
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public void readFully( final short[] data, final int offset, final int length )
+        throws IOException, EOFException
+    {
+        checkBounds( data.length, offset, length );
+        int done = 0;
+        while( done < length )
+        {
+            final int count = buffered( 2, length - done );
+            buffer.asShortBuffer().get( data, offset + done, count );
+            buffer.position( buffer.position() + count * 2 );
+            done += count;
+        }
+    }
+
+    /**
+     * Reads little endian "int" values into an array.
+     * @param data the array to read the values into
+     * @param offset The index of the first value to read into
+     * @param length The number of values to read
+     * @throws EOFException if an end of file is reached unexpectedly
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public void readFully( final int[] data, final int offset, final int length )
+        throws IOException, EOFException
+    {
+        checkBounds( data.length, offset, length );
+        int done = 0;
+        while( done < length )
+        {
+            final int count = buffered( 4, length - done );
+            buffer.asIntBuffer().get( data, offset + done, count );
+            buffer.position( buffer.position() + count * 4 );
+            done += count;
+        }
+    }
+
+    /**
+     * Reads little endian "long" values into an array.
+     * @param data the array to read the values into
+     * @param offset The index of the first value to read into
+     * @param length The number of values to read
+     * @throws EOFException if an end of file is reached unexpectedly
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public void readFully( final long[] data, final int offset, final int length )
+        throws IOException, EOFException
+    {
+        checkBounds( data.length, offset, length );
+        int done = 0;
+        while( done < length )
+        {
+            final int count = buffered( 8, length - done );
+            buffer.asLongBuffer().get( data, offset + done, count );
+            buffer.position( buffer.position() + count * 8 );
+            done += count;
+        }
+    }
+
+    /**
+     * Reads little endian "float" values into an array.
+     * @param data the array to read the values into
+     * @param offset The index of the first value to read into
+     * @param length The number of values to read
+     * @throws EOFException if an end of file is reached unexpectedly
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public void readFully( final float[] data, final int offset, final int length )
+        throws IOException, EOFException
+    {
+        checkBounds( data.length, offset, length );
+        int done = 0;
+        while( done < length )
+        {
+            final int count = buffered( 4, length - done );
+            buffer.asFloatBuffer().get( data, offset + done, count );
+            buffer.position( buffer.position() + count * 4 );
+            done += count;
+        }
+    }
+
+    /**
+     * Reads little endian "double" values into an array.
+     * @param data the array to read the values into
+     * @param offset The index of the first value to read into
+     * @param length The number of values to read
+     * @throws EOFException if an end of file is reached unexpectedly
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     * @since 2.5
+     */
+    public void readFully( final double[] data, final int offset, final int length )
+        throws IOException, EOFException
+    {
+        checkBounds( data.length, offset, length );
+        int done = 0;
+        while( done < length )
+        {
+            final int count = buffered( 8, length - done );
+            buffer.asDoubleBuffer().get( data, offset + done, count );
+            buffer.position( buffer.position() + count * 8 );
+            done += count;
+        }
+    }
+
+    /**
+     * Ensures the buffer holds at least the specified number of bytes,
+     * reading from the delegate as needed. Bytes from a held mark on are
+     * kept, growing the buffer if needed; the mark is dropped once more
+     * than its read limit has been read.
+     * @param count the number of bytes needed, at most the buffer capacity
+     * @return false if the end of stream is reached first
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean fill( final int count )
+        throws IOException
+    {
+        if( buffer.remaining() >= count )
+        {
+            return true;
+        }
+        if( markPosition >= 0 && buffer.position() - markPosition >= markLimit )
+        {
+            markPosition = -1;
+        }
+        final int keep = markPosition >= 0 ? markPosition : buffer.position();
+        final int offset = buffer.position() - keep;
+        if( offset + count > buffer.capacity() )
+        {
+            final long grown = Math.max( buffer.capacity() * 2L, offset + count );
+            final ByteBuffer larger = ByteBuffer.allocate( (int) Math.min( grown, Integer.MAX_VALUE - 8 ) );
+            buffer.position( keep );
+            buffer = larger.order( ByteOrder.LITTLE_ENDIAN ).put( buffer );
+        }
+        else
+        {
+            buffer.position( keep );
+            buffer.compact();
+        }
+        if( markPosition >= 0 )
+        {
+            markPosition = 0;
+        }
+        try
+        {
+            while( buffer.position() < offset + count )
+            {
+                final int n = super.read( buffer.array(), buffer.position(), buffer.remaining() );
+                if( EOF == n )
+                {
+                    return false;
+                }
+                buffer.position( buffer.position() + n );
+            }
+            return true;
+        }
+        finally
+        {
+            buffer.flip();
+            buffer.position( offset );
+        }
+    }
+
+    /**
+     * Ensures the buffer holds at least the specified number of bytes.
+     * @param count the number of bytes needed, at most the buffer capacity
+     * @throws EOFException if the end of stream is reached first
+     * @throws IOException if an I/O error occurs
+     */
+    private void require( final int count )
+        throws IOException, EOFException
+    {
+        if( !fill( count ) )
+        {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Ensures the buffer holds at least one value and returns how many of
+     * the wanted values it holds.
+     * @param size the number of bytes of each value
+     * @param wanted the number of values wanted
+     * @return the number of values which can be decoded from the buffer
+     * @throws EOFException if the end of stream is reached first
+     * @throws IOException if an I/O error occurs
+     */
+    private int buffered( final int size, final int wanted )
+        throws IOException, EOFException
+    {
+        require( size );
+        return Math.min( wanted, buffer.remaining() / size );
+    }
+
+    /**
+     * Checks an array range.
+     * @param arrayLength the length of the array
+     * @param offset the index of the first value
+     * @param length the number of values
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    private static void checkBounds( final int arrayLength, final int offset, final int length )
+    {
+        if( offset < 0 || length < 0 || offset > arrayLength - length )
+        {
+            throw new IndexOutOfBoundsException( "Offset " + offset + " and length " + length
+                    + " out of bounds for array of length " + arrayLength );
+        }
     }
 
 }
@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * DataOutput for systems relying on little endian data formats,
+ * the counterpart of {@link org.apache.commons.io.input.SwappedDataInputStream}.
+ * When written, values will be changed to little endian formats.
+ * <p>
+ * The stream is buffered internally: values are encoded into a little
+ * endian {@link ByteBuffer} which is written to the delegate in blocks, when
+ * full and on {@link #flush()} or {@link #close()}. Whole arrays of primitive
+ * values can be written at once with the <code>write</code> methods taking
+ * arrays.
+ *
+ * @version $Id$
+ * @since 2.5
+ */
+public class SwappedDataOutputStream extends ProxyOutputStream implements DataOutput {
+
+    /** The default size of the buffer. */
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+
+    /** The bytes not yet written, up to the position. */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a SwappedDataOutputStream.
+     *
+     * @param output  the OutputStream to write to
+     */
+    public SwappedDataOutputStream(final OutputStream output) {
+        this(output, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a SwappedDataOutputStream with the specified buffer size.
+     *
+     * @param output  the OutputStream to write to
+     * @param bufferSize  the size of the buffer, at least 8 bytes
+     * @throws IllegalArgumentException if the buffer size is less than 8
+     */
+    public SwappedDataOutputStream(final OutputStream output, final int bufferSize) {
+        super(output);
+        if (bufferSize < 8) {
+            throw new IllegalArgumentException("Buffer size must be at least 8: " + bufferSize);
+        }
+        buffer = ByteBuffer.allocate(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Buffers a byte.
+     *
+     * @param b  the byte to write, the 24 high-order bits are ignored
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(final int b) throws IOException {
+        reserve(1);
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Buffers bytes.
+     *
+     * @param data  the bytes to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(final byte[] data) throws IOException {
+        write(data, 0, data.length);
+    }
+
+    /**
+     * Buffers bytes. Writes at least as large as the buffer bypass it.
+     *
+     * @param data  the bytes to write
+     * @param offset  the start offset
+     * @param length  the number of bytes to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(final byte[] data, final int offset, final int length) throws IOException {
+        if (length >= buffer.capacity()) {
+            flushBuffer();
+            super.write(data, offset, length);
+        } else {
+            reserve(length);
+            buffer.put(data, offset, length);
+        }
+    }
+
+    /**
+     * Writes a boolean as a byte, 1 for true and 0 for false.
+     *
+     * @param value  the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeBoolean(final boolean value) throws IOException {
+        write(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value  the byte to write, the 24 high-order bits are ignored
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeByte(final int value) throws IOException {
+        write(value);
+    }
+
+    /**
+     * Writes a little endian "short" value.
+     *
+     * @param value  the value to write, the 16 high-order bits are ignored
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeShort(final int value) throws IOException {
+        reserve(2);
+        buffer.putShort((short) value);
+    }
+
+    /**
+     * Writes a little endian "char" value.
+     *
+     * @param value  the value to write, the 16 high-order bits are ignored
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeChar(final int value) throws IOException {
+        writeShort(value);
+    }
+
+    /**
+     * Writes a little endian "int" value.
+     *
+     * @param value  the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeInt(final int value) throws IOException {
+        reserve(4);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a little endian "long" value.
+     *
+     * @param value  the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeLong(final long value) throws IOException {
+        reserve(8);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a little endian "float" value.
+     *
+     * @param value  the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeFloat(final float value) throws IOException {
+        reserve(4);
+        buffer.putFloat(value);
+    }
+
+    /**
+     * Writes a little endian "double" value.
+     *
+     * @param value  the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeDouble(final double value) throws IOException {
+        reserve(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes the low byte of each character of a string.
+     *
+     * @param text  the string to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeBytes(final String text) throws IOException {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            write(text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes each character of a string as a little endian "char" value.
+     *
+     * @param text  the string to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeChars(final String text) throws IOException {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            writeChar(text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a string in modified UTF-8 preceded by its length in bytes as
+     * a little endian unsigned "short" value, as read by
+     * {@link org.apache.commons.io.input.SwappedDataInputStream#readUTF()}.
+     *
+     * @param text  the string to write
+     * @throws UTFDataFormatException if the encoded string is longer than 65535 bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeUTF(final String text) throws IOException {
+        final int length = text.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            final char ch = text.charAt(i);
+            utfLength += ch >= 0x0001 && ch <= 0x007F ? 1 : ch <= 0x07FF ? 2 : 3;
+        }
+        if (utfLength > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + utfLength + " bytes");
+        }
+        writeShort(utfLength);
+        for (int i = 0; i < length; i++) {
+            final char ch = text.charAt(i);
+            reserve(3);
+            if (ch >= 0x0001 && ch <= 0x007F) {
+                buffer.put((byte) ch);
+            } else if (ch <= 0x07FF) {
+                buffer.put((byte) (0xC0 | ch >> 6));
+                buffer.put((byte) (0x80 | ch & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | ch >> 12));
+                buffer.put((byte) (0x80 | ch >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | ch & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Writes "short" values of an array as little endian values.
+     *
+     * @param data  the array to write the values of
+     * @param offset  the index of the first value to write
+     * @param length  the number of values to write
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    public void write(final short[] data, final int offset, final int length) throws IOException {
+        checkBounds(data.length, offset, length);
+        int done = 0;
+        while (done < length) {
+            final int count = reserve(2, length - done);
+            buffer.asShortBuffer().put(data, offset + done, count);
+            buffer.position(buffer.position() + count * 2);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes "int" values of an array as little endian values.
+     *
+     * @param data  the array to write the values of
+     * @param offset  the index of the first value to write
+     * @param length  the number of values to write
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    public void write(final int[] data, final int offset, final int length) throws IOException {
+        checkBounds(data.length, offset, length);
+        int done = 0;
+        while (done < length) {
+            final int count = reserve(4, length - done);
+            buffer.asIntBuffer().put(data, offset + done, count);
+            buffer.position(buffer.position() + count * 4);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes "long" values of an array as little endian values.
+     *
+     * @param data  the array to write the values of
+     * @param offset  the index of the first value to write
+     * @param length  the number of values to write
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    public void write(final long[] data, final int offset, final int length) throws IOException {
+        checkBounds(data.length, offset, length);
+        int done = 0;
+        while (done < length) {
+            final int count = reserve(8, length - done);
+            buffer.asLongBuffer().put(data, offset + done, count);
+            buffer.position(buffer.position() + count * 8);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes "float" values of an array as little endian values.
+     *
+     * @param data  the array to write the values of
+     * @param offset  the index of the first value to write
+     * @param length  the number of values to write
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    public void write(final float[] data, final int offset, final int length) throws IOException {
+        checkBounds(data.length, offset, length);
+        int done = 0;
+        while (done < length) {
+            final int count = reserve(4, length - done);
+            buffer.asFloatBuffer().put(data, offset + done, count);
+            buffer.position(buffer.position() + count * 4);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes "double" values of an array as little endian values.
+     *
+     * @param data  the array to write the values of
+     * @param offset  the index of the first value to write
+     * @param length  the number of values to write
+     * @throws IOException if an I/O error occurs
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    public void write(final double[] data, final int offset, final int length) throws IOException {
+        checkBounds(data.length, offset, length);
+        int done = 0;
+        while (done < length) {
+            final int count = reserve(8, length - done);
+            buffer.asDoubleBuffer().put(data, offset + done, count);
+            buffer.position(buffer.position() + count * 8);
+            done += count;
+        }
+    }
+
+    /**
+     * Writes the buffered bytes, then flushes the delegate.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        super.flush();
+    }
+
+    /**
+     * Writes the buffered bytes, then closes the delegate.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            super.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the buffered bytes to the delegate.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void flushBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            final int length = buffer.position();
+            buffer.clear();
+            super.write(buffer.array(), 0, length);
+        }
+    }
+
+    /**
+     * Ensures the buffer has room for the specified number of bytes.
+     *
+     * @param count  the number of bytes, at most the buffer capacity
+     * @throws IOException if an I/O error occurs
+     */
+    private void reserve(final int count) throws IOException {
+        if (buffer.remaining() < count) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Ensures the buffer has room for at least one value and returns for
+     * how many of the wanted values it has room.
+     *
+     * @param size  the number of bytes of each value
+     * @param wanted  the number of values wanted
+     * @return the number of values which can be encoded into the buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private int reserve(final int size, final int wanted) throws IOException {
+        reserve(size);
+        return Math.min(wanted, buffer.remaining() / size);
+    }
+
+    /**
+     * Checks an array range.
+     *
+     * @param arrayLength  the length of the array
+     * @param offset  the index of the first value
+     * @param length  the number of values
+     * @throws IndexOutOfBoundsException if offset or length are out of the array bounds
+     */
+    private static void checkBounds(final int arrayLength, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " and length " + length
+                    + " out of bounds for array of length " + arrayLength);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test ChecksumManifest for correctness.
+ */
+public class ChecksumManifestTestCase extends FileBasedTestCase {
+
+    private final File root;
+    private final File sub;
+    private final File manifestFile;
+
+    public ChecksumManifestTestCase(final String name) {
+        super(name);
+        root = new File(getTestDirectory(), "root");
+        sub = new File(root, "sub");
+        manifestFile = new File(getTestDirectory(), "manifest.txt");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        sub.mkdirs();
+        createFile(new File(root, "b.txt"), 10);
+        createFile(new File(root, "a b.txt"), 100);
+        createFile(new File(sub, "c.txt"), 1000);
+        createFile(new File(sub, "d\\e.txt"), 0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testBuild() throws Exception {
+        final ChecksumManifest manifest = ChecksumManifest.build(root, "SHA-256", null, 3);
+        assertEquals("SHA-256", manifest.getAlgorithm());
+        assertEquals(4, manifest.getHashedCount());
+        final List<String> paths = new ArrayList<String>();
+        for (final ChecksumManifest.Entry entry : manifest.getEntries()) {
+            paths.add(entry.getPath());
+        }
+        assertEquals("[a b.txt, b.txt, sub/c.txt, sub/d\\e.txt]", paths.toString());
+
+        final File c = new File(sub, "c.txt");
+        final ChecksumManifest.Entry entry = manifest.getEntry("sub/c.txt");
+        assertEquals(1000, entry.getLength());
+        assertEquals(c.lastModified(), entry.getLastModified());
+        assertEquals(FileHasher.toHex(FileUtils.digest(c, "SHA-256")), entry.getDigest());
+        assertNull(manifest.getEntry("missing.txt"));
+
+        final ChecksumManifest single = ChecksumManifest.build(root, "SHA-256", null, 1);
+        assertEquals(toString(manifest), toString(single));
+    }
+
+    public void testIncremental() throws Exception {
+        ChecksumManifest.build(root, "MD5").write(manifestFile);
+        final ChecksumManifest previous = ChecksumManifest.read(manifestFile);
+        assertEquals(0, previous.getHashedCount());
+        assertEquals(4, previous.getEntries().size());
+
+        ChecksumManifest manifest = ChecksumManifest.build(root, "MD5", previous, 2);
+        assertEquals(0, manifest.getHashedCount());
+        assertEquals(toString(previous), toString(manifest));
+
+        // a changed file and an added file are hashed, a removed file is dropped
+        final File b = new File(root, "b.txt");
+        createFile(b, 20);
+        createFile(new File(sub, "f.txt"), 5);
+        FileUtils.forceDelete(new File(root, "a b.txt"));
+        manifest = ChecksumManifest.build(root, "MD5", previous, 2);
+        assertEquals(2, manifest.getHashedCount());
+        assertEquals(4, manifest.getEntries().size());
+        assertNull(manifest.getEntry("a b.txt"));
+        assertEquals(20, manifest.getEntry("b.txt").getLength());
+        assertEquals(FileHasher.toHex(FileUtils.digest(b, "MD5")), manifest.getEntry("b.txt").getDigest());
+
+        // another algorithm hashes every file
+        assertEquals(4, ChecksumManifest.build(root, "SHA-1", previous, 2).getHashedCount());
+    }
+
+    public void testReadWrite() throws Exception {
+        final ChecksumManifest manifest = ChecksumManifest.build(root, "SHA-1");
+        final String text = toString(manifest);
+        assertTrue(text, text.startsWith("# SHA-1\n"));
+        assertTrue(text, text.endsWith(" sub/d\\\\e.txt\n"));
+        assertEquals(text, toString(ChecksumManifest.read(new StringReader(text))));
+        assertEquals("sub/d\\e.txt", ChecksumManifest.read(new StringReader(text)).getEntry("sub/d\\e.txt").getPath());
+
+        final String newline = "# MD5\n00 1 2 a\\nb\n";
+        assertNotNull(ChecksumManifest.read(new StringReader(newline)).getEntry("a\nb"));
+        assertEquals(newline, toString(ChecksumManifest.read(new StringReader(newline))));
+
+        try {
+            ChecksumManifest.read(new StringReader("00 1 2 a\n"));
+            fail();
+        } catch (final IOException ex) {
+            // expected
+        }
+        try {
+            ChecksumManifest.read(new StringReader("# MD5\n00 x 2 a\n"));
+            fail();
+        } catch (final IOException ex) {
+            // expected
+        }
+    }
+
+    private static String toString(final ChecksumManifest manifest) throws Exception {
+        final StringWriter writer = new StringWriter();
+        manifest.write(writer);
+        return writer.toString();
+    }
+
+}
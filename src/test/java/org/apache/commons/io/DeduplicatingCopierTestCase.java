@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test DeduplicatingCopier for correctness.
+ */
+public class DeduplicatingCopierTestCase extends FileBasedTestCase {
+
+    private final File previous;
+    private final File release;
+    private final File mirror;
+
+    public DeduplicatingCopierTestCase(final String name) {
+        super(name);
+        previous = new File(getTestDirectory(), "previous");
+        release = new File(getTestDirectory(), "release");
+        mirror = new File(getTestDirectory(), "mirror");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        new File(previous, "lib").mkdirs();
+        new File(release, "libs").mkdirs();
+        FileUtils.writeStringToFile(new File(previous, "lib/a.jar"), "unchanged content", "UTF-8");
+        FileUtils.writeStringToFile(new File(previous, "b.txt"), "old text", "UTF-8");
+        // moved but unchanged
+        FileUtils.writeStringToFile(new File(release, "libs/a.jar"), "unchanged content", "UTF-8");
+        // same length, other content
+        FileUtils.writeStringToFile(new File(release, "b.txt"), "new text", "UTF-8");
+        FileUtils.writeStringToFile(new File(release, "c.txt"), "added", "UTF-8");
+        createFile(new File(release, "empty.txt"), 0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testCopyDirectory() throws Exception {
+        final DeduplicatingCopier copier = new DeduplicatingCopier(previous);
+        copier.copyDirectory(release, mirror);
+        assertEquals(Java7Support.isAtLeastJava7() ? 1 : 0, copier.getLinkedCount());
+        assertEquals(4 - copier.getLinkedCount(), copier.getCopiedCount());
+        assertEquals(0, copier.getSkippedCount());
+        assertEquals("unchanged content", FileUtils.readFileToString(new File(mirror, "libs/a.jar"), "UTF-8"));
+        assertEquals("new text", FileUtils.readFileToString(new File(mirror, "b.txt"), "UTF-8"));
+        assertEquals("added", FileUtils.readFileToString(new File(mirror, "c.txt"), "UTF-8"));
+        assertEquals(0, new File(mirror, "empty.txt").length());
+        final File c = new File(release, "c.txt");
+        assertEquals(c.lastModified(), new File(mirror, "c.txt").lastModified());
+
+        // a second copy skips every file, linked files being compared by content
+        final DeduplicatingCopier again = new DeduplicatingCopier(previous);
+        again.copyDirectory(release, mirror);
+        assertEquals(4, again.getSkippedCount());
+        assertEquals(0, again.getCopiedCount() + again.getLinkedCount());
+
+        // a changed file is replaced without modifying the file it is linked to
+        FileUtils.writeStringToFile(new File(release, "libs/a.jar"), "changed", "UTF-8");
+        FileUtils.copyDirectoryDeduplicated(release, mirror, previous);
+        assertEquals("changed", FileUtils.readFileToString(new File(mirror, "libs/a.jar"), "UTF-8"));
+        assertEquals("unchanged content", FileUtils.readFileToString(new File(previous, "lib/a.jar"), "UTF-8"));
+    }
+
+    public void testSkipWithoutLinks() throws Exception {
+        FileUtils.copyDirectory(release, mirror);
+        final File b = new File(mirror, "b.txt");
+        b.setLastModified(b.lastModified() - 60000);
+        FileUtils.writeStringToFile(new File(mirror, "c.txt"), "ADDED", "UTF-8");
+
+        final DeduplicatingCopier copier = new DeduplicatingCopier();
+        copier.copyDirectory(release, mirror);
+        assertEquals(3, copier.getSkippedCount());
+        assertEquals(1, copier.getCopiedCount());
+        assertEquals(0, copier.getLinkedCount());
+        assertEquals("added", FileUtils.readFileToString(new File(mirror, "c.txt"), "UTF-8"));
+    }
+
+    public void testCopyIntoSource() throws Exception {
+        final File inner = new File(release, "mirror");
+        final DeduplicatingCopier copier = new DeduplicatingCopier();
+        copier.copyDirectory(release, inner);
+        assertEquals(4, copier.getCopiedCount());
+        assertFalse(new File(inner, "mirror").exists());
+        try {
+            copier.copyDirectory(release, release);
+            fail();
+        } catch (final IOException ex) {
+            // expected
+        }
+    }
+
+}
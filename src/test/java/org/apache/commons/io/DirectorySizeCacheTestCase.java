@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test DirectorySizeCache for correctness.
+ */
+public class DirectorySizeCacheTestCase extends FileBasedTestCase {
+
+    private final File root;
+    private final File sub1;
+    private final File sub2;
+    private final File sub11;
+
+    public DirectorySizeCacheTestCase(final String name) {
+        super(name);
+        root = new File(getTestDirectory(), "root");
+        sub1 = new File(root, "sub1");
+        sub2 = new File(root, "sub2");
+        sub11 = new File(sub1, "sub11");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        sub11.mkdirs();
+        sub2.mkdirs();
+        createFile(new File(root, "a.txt"), 10);
+        createFile(new File(sub1, "b.txt"), 100);
+        createFile(new File(sub11, "c.txt"), 1000);
+        createFile(new File(sub2, "d.txt"), 10000);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testSizeOfDirectory() throws Exception {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        assertEquals(0, cache.size());
+        assertEquals(11110, cache.sizeOfDirectory(root));
+        assertEquals(4, cache.size());
+        assertEquals(11110, cache.sizeOfDirectory(root));
+        assertEquals(11110, cache.sizeOfDirectory(root, 3));
+        assertEquals(1100, cache.sizeOfDirectory(sub1));
+        assertEquals(4, cache.size());
+
+        // an added file changes the directory modification time
+        createFile(new File(sub11, "e.txt"), 5);
+        touchDirectory(sub11);
+        assertEquals(11115, cache.sizeOfDirectory(root));
+        assertEquals(11115, cache.sizeOfDirectory(root, 3));
+
+        // a removed directory is forgotten
+        FileUtils.deleteDirectory(sub1);
+        touchDirectory(root);
+        assertEquals(10010, cache.sizeOfDirectory(root, 2));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(10010, cache.sizeOfDirectory(root));
+        assertTrue(cache.toString().startsWith("DirectorySizeCache"));
+    }
+
+    public void testFileRewrittenInPlace() throws Exception {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        final File file = new File(sub2, "d.txt");
+        assertEquals(11110, cache.sizeOfDirectory(root));
+        final long lastModified = sub2.lastModified();
+        final OutputStream out = FileUtils.openOutputStream(file, true);
+        try {
+            out.write(new byte[10]);
+        } finally {
+            out.close();
+        }
+        sub2.setLastModified(lastModified);
+        // the directory did not change, so the cached size is still used
+        assertEquals(11110, cache.sizeOfDirectory(root));
+        cache.clear();
+        assertEquals(11120, cache.sizeOfDirectory(root));
+    }
+
+    public void testInvalidArguments() throws Exception {
+        final DirectorySizeCache cache = new DirectorySizeCache();
+        try {
+            cache.sizeOfDirectory(new File(root, "a.txt"));
+            fail("Exception expected.");
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            cache.sizeOfDirectory(new File(root, "missing"));
+            fail("Exception expected.");
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            cache.sizeOfDirectory(root, 0);
+            fail("Exception expected.");
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    /**
+     * Moves the modification time of a directory forward, whatever the file
+     * system time resolution.
+     */
+    private static void touchDirectory(final File directory) {
+        assertTrue(directory.setLastModified(directory.lastModified() + 10000));
+    }
+
+}
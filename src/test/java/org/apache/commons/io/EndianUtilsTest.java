@@ -20,6 +20,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
@@ -292,4 +297,106 @@ public class EndianUtilsTest extends TestCase {
         assertEquals("readSwappedUnsignedInteger(InputStream) was incorrect", expected, actual);
     }
 
+    public void testBulkStreams() throws IOException {
+        final Random random = new Random(3);
+        // spans several blocks and ends in a partial one
+        final int count = 3000;
+        final short[] shorts = new short[count];
+        final int[] ints = new int[count];
+        final long[] longs = new long[count];
+        final float[] floats = new float[count];
+        final double[] doubles = new double[count];
+        for (int i = 0; i < count; i++) {
+            shorts[i] = (short) random.nextInt();
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            floats[i] = random.nextFloat() - 0.5f;
+            doubles[i] = random.nextGaussian();
+        }
+        for (final ByteOrder order : new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            final ByteBuffer expected = ByteBuffer.allocate(count * 26).order(order);
+            expected.asShortBuffer().put(shorts);
+            expected.position(count * 2);
+            expected.asIntBuffer().put(ints);
+            expected.position(count * 6);
+            expected.asLongBuffer().put(longs);
+            expected.position(count * 14);
+            expected.asFloatBuffer().put(floats);
+            expected.position(count * 18);
+            expected.asDoubleBuffer().put(doubles);
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            EndianUtils.writeShorts(out, order, shorts, 0, count);
+            EndianUtils.writeIntegers(out, order, ints, 0, count);
+            EndianUtils.writeLongs(Channels.newChannel(out), order, longs, 0, count);
+            EndianUtils.writeFloats(out, order, floats, 0, count);
+            EndianUtils.writeDoubles(Channels.newChannel(out), order, doubles, 0, count);
+            assertTrue(order.toString(), Arrays.equals(expected.array(), out.toByteArray()));
+
+            final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+            final short[] shorts2 = new short[count + 2];
+            EndianUtils.readShorts(Channels.newChannel(in), order, shorts2, 1, count);
+            assertTrue(Arrays.equals(shorts, Arrays.copyOfRange(shorts2, 1, count + 1)));
+            final int[] ints2 = new int[count];
+            EndianUtils.readIntegers(in, order, ints2, 0, count);
+            assertTrue(Arrays.equals(ints, ints2));
+            final long[] longs2 = new long[count];
+            EndianUtils.readLongs(in, order, longs2, 0, count);
+            assertTrue(Arrays.equals(longs, longs2));
+            final float[] floats2 = new float[count];
+            EndianUtils.readFloats(Channels.newChannel(in), order, floats2, 0, count);
+            assertTrue(Arrays.equals(floats, floats2));
+            final double[] doubles2 = new double[count];
+            EndianUtils.readDoubles(in, order, doubles2, 0, count);
+            assertTrue(Arrays.equals(doubles, doubles2));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    public void testBulkSwappedMatchesScalar() throws IOException {
+        final int[] ints = new int[] {0x01020304, -1, 0x80000000};
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EndianUtils.writeIntegers(out, ByteOrder.LITTLE_ENDIAN, ints, 0, ints.length);
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        for (final int value : ints) {
+            assertEquals(value, EndianUtils.readSwappedInteger(in));
+        }
+    }
+
+    public void testBulkEOFException() throws IOException {
+        final long[] longs = new long[2];
+        try {
+            EndianUtils.readLongs(new ByteArrayInputStream(new byte[12]), ByteOrder.BIG_ENDIAN, longs, 0, 2);
+            fail("Expected EOFException");
+        } catch (final EOFException e) {
+            // expected
+        }
+        try {
+            EndianUtils.readLongs(Channels.newChannel(new ByteArrayInputStream(new byte[12])), ByteOrder.BIG_ENDIAN,
+                    longs, 0, 2);
+            fail("Expected EOFException");
+        } catch (final EOFException e) {
+            // expected
+        }
+    }
+
+    public void testBulkBounds() throws IOException {
+        final short[] shorts = new short[4];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EndianUtils.writeShorts(out, ByteOrder.BIG_ENDIAN, shorts, 4, 0);
+        assertEquals(0, out.size());
+        try {
+            EndianUtils.writeShorts(out, ByteOrder.BIG_ENDIAN, shorts, 3, 2);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            EndianUtils.readShorts(new ByteArrayInputStream(new byte[8]), ByteOrder.BIG_ENDIAN, shorts, -1, 1);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test FileAttributes for correctness.
+ */
+public class FileAttributesTestCase extends FileBasedTestCase {
+
+    private final File testFile;
+
+    public FileAttributesTestCase(final String name) {
+        super(name);
+        testFile = new File(getTestDirectory(), "attributes-test.txt");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        getTestDirectory().mkdirs();
+        createFile(testFile, 1234);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testFile() {
+        final FileAttributes attributes = new FileAttributes(testFile);
+        assertSame(testFile, attributes.getFile());
+        assertTrue(attributes.exists());
+        assertTrue(attributes.isFile());
+        assertFalse(attributes.isDirectory());
+        assertEquals(1234, attributes.length());
+        assertEquals(testFile.lastModified() / 1000, attributes.lastModified() / 1000);
+        assertEquals(testFile.isHidden(), attributes.isHidden());
+        assertEquals(testFile.canRead(), attributes.canRead());
+        assertEquals(testFile.canWrite(), attributes.canWrite());
+        assertNotNull(attributes.toString());
+    }
+
+    public void testDirectory() {
+        final FileAttributes attributes = new FileAttributes(getTestDirectory());
+        assertTrue(attributes.exists());
+        assertFalse(attributes.isFile());
+        assertTrue(attributes.isDirectory());
+    }
+
+    public void testMissingFile() {
+        final FileAttributes attributes = new FileAttributes(new File(getTestDirectory(), "missing"));
+        assertFalse(attributes.exists());
+        assertFalse(attributes.isFile());
+        assertFalse(attributes.isDirectory());
+        assertEquals(0, attributes.length());
+        assertEquals(0, attributes.lastModified());
+        assertFalse(attributes.canRead());
+        assertFalse(attributes.canWrite());
+    }
+
+    public void testAttributesAreRetained() throws Exception {
+        final FileAttributes attributes = new FileAttributes(testFile);
+        assertTrue(attributes.exists());
+        assertEquals(1234, attributes.length());
+        final long lastModified = attributes.lastModified();
+        assertTrue(attributes.canRead());
+
+        FileUtils.forceDelete(testFile);
+
+        // values already read are not read again
+        assertTrue(attributes.exists());
+        assertEquals(1234, attributes.length());
+        assertEquals(lastModified, attributes.lastModified());
+        assertTrue(attributes.canRead());
+        // values not read yet reflect the current state
+        assertFalse(attributes.canWrite());
+    }
+
+}
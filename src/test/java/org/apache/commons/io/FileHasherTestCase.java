@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test FileHasher for correctness.
+ */
+public class FileHasherTestCase extends FileBasedTestCase {
+
+    private final File file;
+    private byte[] content;
+
+    public FileHasherTestCase(final String name) {
+        super(name);
+        file = new File(getTestDirectory(), "hashed.bin");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        getTestDirectory().mkdirs();
+        content = new byte[1000003];
+        new Random(content.length).nextBytes(content);
+        FileUtils.writeByteArrayToFile(file, content);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testDigest() throws Exception {
+        final byte[] expected = MessageDigest.getInstance("SHA-256").digest(content);
+        assertTrue(Arrays.equals(expected, new FileHasher("SHA-256").digest(file)));
+        assertTrue(Arrays.equals(expected, FileUtils.digest(file, "SHA-256")));
+
+        final File empty = new File(getTestDirectory(), "empty.bin");
+        createFile(empty, 0);
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", FileHasher.toHex(FileUtils.digest(empty, "MD5")));
+    }
+
+    public void testTreeDigest() throws Exception {
+        final int chunkSize = 100000;
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final MessageDigest root = MessageDigest.getInstance("SHA-1");
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            digest.update(content, offset, Math.min(chunkSize, content.length - offset));
+            root.update(digest.digest());
+        }
+        final byte[] expected = root.digest();
+        for (int threads = 1; threads <= 4; threads++) {
+            final FileHasher hasher = new FileHasher("SHA-1", chunkSize, threads);
+            assertTrue("threads " + threads, Arrays.equals(expected, hasher.treeDigest(file)));
+        }
+
+        // an empty file is one empty chunk
+        final File empty = new File(getTestDirectory(), "empty.bin");
+        createFile(empty, 0);
+        final byte[] emptyChunk = MessageDigest.getInstance("SHA-1").digest();
+        final byte[] expectedEmpty = MessageDigest.getInstance("SHA-1").digest(emptyChunk);
+        assertTrue(Arrays.equals(expectedEmpty, new FileHasher("SHA-1", chunkSize, 3).treeDigest(empty)));
+    }
+
+    public void testChecksum() throws Exception {
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        assertEquals(crc.getValue(), FileUtils.checksumCRC32(file));
+        final Adler32 adler = new Adler32();
+        adler.update(content);
+        assertEquals(adler.getValue(), FileUtils.checksum(file, new Adler32()).getValue());
+    }
+
+    public void testInvalid() throws Exception {
+        try {
+            new FileHasher("NO-SUCH-DIGEST");
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new FileHasher("MD5", 0, 1);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new FileHasher("MD5").digest(getTestDirectory());
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testBuffersReused() throws Exception {
+        final ByteBuffer small = FileHasher.acquire(100);
+        assertFalse(small.isDirect());
+        FileHasher.release(small);
+
+        final ByteBuffer buffer = FileHasher.acquire(1024 * 1024);
+        assertTrue(buffer.isDirect());
+        buffer.put((byte) 1);
+        FileHasher.release(buffer);
+        final ByteBuffer again = FileHasher.acquire(1024 * 1024);
+        assertSame(buffer, again);
+        assertEquals(0, again.position());
+        FileHasher.release(again);
+    }
+
+    public void testToHex() {
+        assertEquals("00017f80ff", FileHasher.toHex(new byte[] {0, 1, 127, -128, -1}));
+        assertEquals("", FileHasher.toHex(new byte[0]));
+    }
+
+}
@@ -850,6 +850,28 @@ public class FileUtilsTestCase extends FileBasedTestCase {
         file.delete();
     }
 
+    public void testSizeOfDirectoryThreads() throws Exception {
+        final File start = new File("src/test/java");
+        final long expected = FileUtils.sizeOfDirectory(start);
+        assertEquals(expected, FileUtils.sizeOfDirectory(start, 1));
+        assertEquals(expected, FileUtils.sizeOfDirectory(start, 4));
+
+        final File file = new File(getTestDirectory(), getName());
+        try {
+            FileUtils.sizeOfDirectory(file, 4);
+            fail("Exception expected.");
+        } catch (final IllegalArgumentException ex) {
+        }
+        file.mkdir();
+        this.createCircularSymLink(file);
+        assertEquals("Unexpected directory size", TEST_DIRECTORY_SIZE, FileUtils.sizeOfDirectory(file, 4));
+        try {
+            FileUtils.sizeOfDirectory(file, 0);
+            fail("Exception expected.");
+        } catch (final IllegalArgumentException ex) {
+        }
+    }
+
     // Compare sizes of a directory tree using long and BigInteger methods
     public void testCompareSizeOf() {
         final File start = new File("src/test/java");
@@ -1682,6 +1704,21 @@ public class FileUtilsTestCase extends FileBasedTestCase {
         assertEquals("Hello /u1234", data);
     }
 
+    public void testReadFileToStringEncodings() throws Exception {
+        final File file = new File(getTestDirectory(), "read.txt");
+        final String text = "caf\u00e9 \u20ac\r\n\ud83d\ude00\nend";
+        for (final String encoding : new String[] {"UTF-8", "ISO-8859-1", "UTF-16LE", "windows-1252"}) {
+            final String expected = new String(text.getBytes(encoding), encoding);
+            FileUtils.writeStringToFile(file, text, encoding);
+            assertEquals(encoding, expected, FileUtils.readFileToString(file, encoding));
+            assertEquals(encoding, Arrays.asList(expected.split("\r\n|\n")), FileUtils.readLines(file, encoding));
+        }
+        FileUtils.writeStringToFile(file, "", "UTF-8");
+        assertEquals("", FileUtils.readFileToString(file, "UTF-8"));
+        assertEquals(0, FileUtils.readLines(file, "UTF-8").size());
+        assertEquals(0, FileUtils.readFileToByteArray(file).length);
+    }
+
     public void testReadFileToByteArray() throws Exception {
         final File file = new File(getTestDirectory(), "read.txt");
         final FileOutputStream out = new FileOutputStream(file);
@@ -1731,6 +1768,19 @@ public class FileUtilsTestCase extends FileBasedTestCase {
         assertEqualContent(text, file);
     }
 
+    public void testWriteLongStringToFile() throws Exception {
+        final File file = new File(getTestDirectory(), "write.txt");
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append(i).append('\u1234');
+        }
+        final String str = builder.toString();
+        FileUtils.writeStringToFile(file, str, Charsets.UTF_8);
+        assertEqualContent(str.getBytes("UTF-8"), file);
+        FileUtils.write(file, builder, Charsets.UTF_8, true);
+        assertEquals(str + str, FileUtils.readFileToString(file, Charsets.UTF_8));
+    }
+
     public void testWriteCharSequence1() throws Exception {
         final File file = new File(getTestDirectory(), "write.txt");
         FileUtils.write(file, "Hello /u1234", "UTF8");
@@ -1796,6 +1846,17 @@ public class FileUtilsTestCase extends FileBasedTestCase {
         assertEquals(expected, actual);
     }
 
+    public void testWriteLinesFrom() throws Exception {
+        final List<String> list = Arrays.asList("hello", "w\u00f6rld", null, "");
+
+        final File file = newFile("lines.txt");
+        FileUtils.writeLinesFrom(file, Charsets.UTF_8, list.iterator(), "*", false);
+        FileUtils.writeLinesFrom(file, Charsets.UTF_8, list.iterator(), "\n", true);
+
+        final String expected = "hello*w\u00f6rld***hello\nw\u00f6rld\n\n\n";
+        assertEquals(expected, FileUtils.readFileToString(file, Charsets.UTF_8));
+    }
+
     public void testWriteLines_3arg_nullSeparator() throws Exception {
         final Object[] data = new Object[]{
                 "hello", new StringBuffer("world"), "", "this is", null, "some text"};
@@ -2171,6 +2232,67 @@ public class FileUtilsTestCase extends FileBasedTestCase {
         }
     }
 
+    public void testDeleteDirectoryThreads() throws Exception {
+        final File outside = new File(getTestDirectory(), "outside");
+        final File outsideFile = new File(outside, "keep.txt");
+        outside.mkdirs();
+        createFile(outsideFile, 10);
+
+        final File root = new File(getTestDirectory(), "root");
+        final File big = new File(root, "big");
+        final File deep = new File(root, "a/b/c/d");
+        big.mkdirs();
+        deep.mkdirs();
+        for (int i = 0; i < ParallelDeleter.BATCH_SIZE * 3 + 1; i++) {
+            createFile(new File(big, "file" + i), 1);
+        }
+        createFile(new File(deep, "deep.txt"), 10);
+        createFile(new File(root, "a/top.txt"), 10);
+        new File(root, "empty").mkdir();
+        if (Java7Support.isAtLeastJava7()) {
+            Java7Support.createSymbolicLink(new File(root, "link"), outside);
+        }
+
+        FileUtils.cleanDirectory(root, 3);
+        assertTrue(root.exists());
+        assertEquals(0, root.list().length);
+        assertTrue(outsideFile.exists());
+
+        deep.mkdirs();
+        createFile(new File(deep, "deep.txt"), 10);
+        FileUtils.deleteDirectory(root, 2);
+        assertFalse(root.exists());
+        assertTrue(outsideFile.exists());
+
+        // missing directories are ignored, as with deleteDirectory
+        FileUtils.deleteDirectory(root, 2);
+        try {
+            FileUtils.cleanDirectory(root, 2);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            FileUtils.deleteDirectory(outside, 0);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            FileUtils.cleanDirectory(outsideFile, 2);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            FileUtils.cleanDirectory(outside, 0);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("The number of threads"));
+        }
+        assertTrue(outsideFile.exists());
+    }
+
     public void testDeleteQuietlyForNull() {
         try {
             FileUtils.deleteQuietly(null);
@@ -2443,6 +2565,79 @@ public class FileUtilsTestCase extends FileBasedTestCase {
 
     }
 
+    public void testMoveDirectoryThreads_Rename() throws Exception {
+        final File dir = getTestDirectory();
+        final File src = new File(dir, "testMoveDirectory1Source");
+        final File testFile = new File(src, "foo/bar");
+        testFile.getParentFile().mkdirs();
+        createFile(testFile, 10);
+        final File destination = new File(dir, "testMoveDirectory1Dest");
+
+        FileUtils.moveDirectory(src, destination, 2);
+
+        assertTrue("Original deleted", !src.exists());
+        assertEquals(10, new File(destination, "foo/bar").length());
+
+        try {
+            FileUtils.moveDirectory(destination, new File(destination, "sub"), 2);
+            fail("Expected IOException when destination is a subdirectory");
+        } catch (final IOException e) {
+            // expected
+        }
+        try {
+            FileUtils.moveDirectory(destination, src, 0);
+            fail("Expected IllegalArgumentException for no threads");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        src.mkdir();
+        try {
+            FileUtils.moveDirectory(destination, src, 2);
+            fail("Expected FileExistsException when dest already exists");
+        } catch (final FileExistsException e) {
+            // expected
+        }
+    }
+
+    public void testMoveDirectoryThreads_CopyDelete() throws Exception {
+        final File dir = getTestDirectory();
+        final File outside = new File(dir, "outside");
+        final File outsideFile = new File(outside, "keep.txt");
+        outside.mkdirs();
+        createFile(outsideFile, 7);
+
+        final File src = new File(dir, "testMoveDirectory2Source");
+        new File(src, "a/b/c").mkdirs();
+        new File(src, "empty").mkdirs();
+        for (int i = 0; i < 50; i++) {
+            createFile(new File(src, "a/file" + i), i);
+        }
+        createFile(new File(src, "a/b/c/deep.txt"), 1000);
+        final File dated = new File(src, "a/b/dated.txt");
+        createFile(dated, 3);
+        dated.setLastModified(1000000000000L);
+        if (Java7Support.isAtLeastJava7()) {
+            Java7Support.createSymbolicLink(new File(src, "link"), outside);
+        }
+        final long size = FileUtils.sizeOfDirectory(src);
+        final File destination = new File(dir, "testMoveDirectory2Dest");
+
+        ParallelMover.move(src, destination, 3);
+
+        assertTrue("Original deleted", !src.exists());
+        assertTrue(new File(destination, "empty").isDirectory());
+        assertEquals(49, new File(destination, "a/file49").length());
+        assertEquals(1000, new File(destination, "a/b/c/deep.txt").length());
+        assertEquals(1000000000000L, new File(destination, "a/b/dated.txt").lastModified());
+        assertTrue("Link target kept", outsideFile.exists());
+        if (Java7Support.isAtLeastJava7()) {
+            assertEquals(7, new File(destination, "link/keep.txt").length());
+            assertEquals(size + 7, FileUtils.sizeOfDirectory(destination));
+        } else {
+            assertEquals(size, FileUtils.sizeOfDirectory(destination));
+        }
+    }
+
     public void testMoveDirectoryToDirectory() throws Exception {
         final File dir = getTestDirectory();
         final File src = new File(dir, "testMoveDirectory1Source");
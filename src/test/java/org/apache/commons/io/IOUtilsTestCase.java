@@ -46,8 +46,11 @@ import java.net.URLConnection;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.Selector;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.io.testtools.FileBasedTestCase;
 import org.junit.Assert;
@@ -763,6 +766,71 @@ public class IOUtilsTestCase extends FileBasedTestCase {
         }
     }
 
+    public void testDecodingFastPath() throws Exception {
+        final Random random = new Random(7);
+        final String[] samples = {"plain ascii\r\nlines\n", "caf\u00e9 \u20ac \ud83d\ude00\rend",
+            "\ufeffbom\n\n"};
+        for (final String encoding : new String[] {"UTF-8", "US-ASCII", "ISO-8859-1"}) {
+            final List<byte[]> inputs = new ArrayList<byte[]>();
+            for (final String sample : samples) {
+                inputs.add(sample.getBytes("UTF-8"));
+            }
+            // malformed UTF-8: truncated, overlong, surrogate and out of range sequences
+            inputs.add(new byte[] {'a', (byte) 0xC3});
+            inputs.add(new byte[] {(byte) 0xC0, (byte) 0x80, 'b', (byte) 0xE0, (byte) 0x80, (byte) 0x80});
+            inputs.add(new byte[] {(byte) 0xED, (byte) 0xA0, (byte) 0x80, '\n', (byte) 0xF4, (byte) 0x90,
+                (byte) 0x80, (byte) 0x80, 'c'});
+            for (int i = 0; i < 20; i++) {
+                final byte[] bytes = new byte[random.nextInt(300)];
+                random.nextBytes(bytes);
+                inputs.add(bytes);
+            }
+            for (final byte[] bytes : inputs) {
+                final String expected = new String(bytes, encoding);
+                final Charset charset = Charset.forName(encoding);
+                assertEquals(expected, IOUtils.toString(new ByteArrayInputStream(bytes), charset));
+                assertEquals(IOUtils.readLines(new StringReader(expected)),
+                        IOUtils.readLines(new ByteArrayInputStream(bytes), charset));
+            }
+        }
+    }
+
+    public void testDecodingFastPathBlocks() throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append(i % 7 == 0 ? "\r" : i % 5 == 0 ? "\r\n" : "\n");
+            for (int j = i * 37 % 100; j > 0; j--) {
+                builder.append(j % 3 == 0 ? '\u00e9' : 'x');
+            }
+        }
+        builder.append("\u20ac").append(new char[20000]).append("\r");
+        final String text = builder.toString();
+        final byte[] bytes = text.getBytes("UTF-8");
+        final List<String> expected = IOUtils.readLines(new StringReader(text));
+        assertEquals(expected, IOUtils.readLines(new ByteArrayInputStream(bytes), Charsets.UTF_8));
+        // short reads end blocks at every position, splitting CR LF pairs
+        final InputStream input = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        assertEquals(expected, IOUtils.readLines(input, Charsets.UTF_8));
+        // a long line read byte by byte is scanned once
+        final char[] longLine = new char[300000];
+        Arrays.fill(longLine, 'x');
+        final InputStream slow = new ByteArrayInputStream((new String(longLine) + "\r\nend").getBytes("UTF-8")) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        assertEquals(Arrays.asList(new String(longLine), "end"), IOUtils.readLines(slow, Charsets.UTF_8));
+        // past the array limit the rest is decoded through a reader
+        assertEquals(text, FastDecoder.toString(new ByteArrayInputStream(bytes), Charsets.UTF_8, 1000));
+        assertEquals(text, FastDecoder.toString(new ByteArrayInputStream(bytes), Charsets.UTF_8, bytes.length));
+    }
+
     public void testReadLines_Reader() throws Exception {
         final File file = newFile("lines.txt");
         Reader in = null;
@@ -19,6 +19,7 @@ package org.apache.commons.io;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -378,6 +379,29 @@ public class IOUtilsWriteTestCase extends FileBasedTestCase {
         assertTrue("Content differs", Arrays.equals(inData, baout.toByteArray()));
     }
 
+    public void testWrite_longStringToOutputStream_Encoding() throws Exception {
+        // longer than the encoder buffer, with surrogate pairs and lone surrogates on the boundaries
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < BufferedEncoder.DEFAULT_BUFFER_SIZE * 3) {
+            builder.append("abc\u00e9\u8364\ud83d\ude00");
+            if (builder.length() % 11 == 0) {
+                builder.append('\udc00');
+            }
+        }
+        for (int length = BufferedEncoder.DEFAULT_BUFFER_SIZE - 2; length < builder.length(); length += 4099) {
+            final String str = builder.substring(0, length);
+            for (final String encoding : new String[] {"UTF-8", "UTF-16", "ISO-8859-1"}) {
+                final ByteArrayOutputStream baout = new ByteArrayOutputStream();
+                IOUtils.write(str, baout, encoding);
+                assertTrue(encoding + " " + length, Arrays.equals(str.getBytes(encoding), baout.toByteArray()));
+
+                final ByteArrayOutputStream sbout = new ByteArrayOutputStream();
+                IOUtils.write(new StringBuilder(str), sbout, Charsets.toCharset(encoding));
+                assertTrue(encoding + " " + length, Arrays.equals(str.getBytes(encoding), sbout.toByteArray()));
+            }
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testWrite_stringToWriter() throws Exception {
         final String str = new String(inData, "US-ASCII");
@@ -665,6 +689,53 @@ public class IOUtilsWriteTestCase extends FileBasedTestCase {
         assertEquals(expected, actual);
     }
 
+    public void testWriteLinesFrom_OutputStream() throws Exception {
+        final List<CharSequence> list = Arrays.<CharSequence>asList(
+            "hello\u8364", new StringBuilder("world"), "", null, new StringBuffer("some text"));
+
+        final ByteArrayOutputStream baout = new ByteArrayOutputStream();
+        final YellOnFlushAndCloseOutputStream out = new YellOnFlushAndCloseOutputStream(baout, true, true);
+
+        IOUtils.writeLinesFrom(list.iterator(), "*", out, Charsets.UTF_8);
+        IOUtils.writeLinesFrom(null, "*", out, Charsets.UTF_8);
+        IOUtils.writeLines(null, "*", out, Charsets.UTF_8);
+
+        assertEquals("hello\u8364*world***some text*", baout.toString("UTF-8"));
+    }
+
+    public void testWriteLinesFrom_OutputStream_nullStream() throws Exception {
+        try {
+            IOUtils.writeLinesFrom(Arrays.asList("hello").iterator(), "*", null, Charsets.UTF_8);
+            fail();
+        } catch (final NullPointerException ex) {}
+    }
+
+    public void testWriteLines_OutputStream_manyLines() throws Exception {
+        // lines crossing the buffer boundaries, with surrogate pairs and unmappable characters
+        final List<Object> list = new ArrayList<Object>();
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            line.append(i % 7 == 0 ? "\ud83d\ude00" : i % 5 == 0 ? "\u00e9" : "x");
+            if (i % 3 == 0) {
+                line.append('\ud800');
+            }
+            list.add(line.toString());
+            if (line.length() > 300) {
+                line.setLength(0);
+            }
+        }
+        for (final String encoding : new String[] {"UTF-8", "US-ASCII", "UTF-16BE"}) {
+            final java.io.ByteArrayOutputStream expected = new java.io.ByteArrayOutputStream();
+            for (final Object item : list) {
+                expected.write(item.toString().getBytes(encoding));
+                expected.write("\r\n".getBytes(encoding));
+            }
+            final ByteArrayOutputStream baout = new ByteArrayOutputStream();
+            IOUtils.writeLines(list, "\r\n", baout, encoding);
+            assertTrue(encoding, Arrays.equals(expected.toByteArray(), baout.toByteArray()));
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testWriteLines_Writer() throws Exception {
         final Object[] data = new Object[] {
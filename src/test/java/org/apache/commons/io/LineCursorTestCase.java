@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test LineCursor for correctness.
+ */
+public class LineCursorTestCase extends FileBasedTestCase {
+
+    public LineCursorTestCase(final String name) {
+        super(name);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testLines() throws Exception {
+        final String[] texts = {"", "a", "\n", "\r", "\r\n", "a\n", "a\r\nb", "\n\n", "\r\r\n\n", "a\rb\r",
+            "first\r\nsecond\n\nfourth\rfifth"};
+        for (final String text : texts) {
+            assertLines(text, 1);
+            assertLines(text, 2);
+            assertLines(text, 8192);
+        }
+    }
+
+    public void testRandomLines() throws Exception {
+        final Random random = new Random(5);
+        final StringBuilder buffer = new StringBuilder();
+        final String[] breaks = {"\n", "\r", "\r\n"};
+        for (int i = 0; i < 2000; i++) {
+            final int length = random.nextInt(20) == 0 ? 20000 : random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                buffer.append((char) ('a' + random.nextInt(26)));
+            }
+            buffer.append(breaks[random.nextInt(breaks.length)]);
+        }
+        final String text = buffer.toString();
+        assertLines(text, 3);
+        assertLines(text, 100);
+        assertLines(text, 8192);
+    }
+
+    public void testLineView() throws Exception {
+        final LineCursor cursor = new LineCursor(new StringReader("hello\nworld"));
+        try {
+            cursor.line();
+            fail();
+        } catch (final IllegalStateException ex) {
+            // expected
+        }
+        assertTrue(cursor.next());
+        final CharSequence line = cursor.line();
+        assertEquals(5, line.length());
+        assertEquals('e', line.charAt(1));
+        assertEquals("ell", line.subSequence(1, 4));
+        assertEquals("hello", line.toString());
+        try {
+            line.charAt(5);
+            fail();
+        } catch (final IndexOutOfBoundsException ex) {
+            // expected
+        }
+        assertTrue(cursor.next());
+        assertSame(line, cursor.line());
+        assertEquals("world", line.toString());
+        assertEquals(2, cursor.getLineCount());
+        assertFalse(cursor.next());
+        cursor.close();
+    }
+
+    public void testFileUtilsLineCursor() throws Exception {
+        getTestDirectory().mkdirs();
+        final File file = new File(getTestDirectory(), "lines.txt");
+        FileUtils.writeStringToFile(file, "caf\u00e9\r\nbar\n", "UTF-8");
+        final LineCursor cursor = FileUtils.lineCursor(file, "UTF-8");
+        try {
+            assertTrue(cursor.next());
+            assertEquals("caf\u00e9", cursor.line().toString());
+            assertTrue(cursor.next());
+            assertEquals("bar", cursor.line().toString());
+            assertFalse(cursor.next());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void assertLines(final String text, final int bufferSize) throws Exception {
+        final List<String> expected = IOUtils.readLines(new StringReader(text));
+        final List<String> actual = new ArrayList<String>();
+        final LineCursor cursor = new LineCursor(new StringReader(text), bufferSize);
+        while (cursor.next()) {
+            actual.add(cursor.line().toString());
+        }
+        assertEquals("'" + text + "' buffer " + bufferSize, expected, actual);
+        assertFalse(cursor.next());
+        cursor.close();
+    }
+
+}
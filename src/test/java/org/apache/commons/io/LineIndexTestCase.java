@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test LineIndex for correctness.
+ */
+public class LineIndexTestCase extends FileBasedTestCase {
+
+    private final File file;
+
+    public LineIndexTestCase(final String name) {
+        super(name);
+        file = new File(getTestDirectory(), "lines.txt");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        getTestDirectory().mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testReadLines() throws Exception {
+        // 0xFF in ISO-8859-1 must not be taken for the start of the file
+        final String text = "first\r\nsecond\n\nfourth \u00e9\u00ff\rfifth\r\r\nseventh\r";
+        final List<String> expected = IOUtils.readLines(new StringReader(text));
+        for (final String encoding : new String[] {"UTF-8", "ISO-8859-1"}) {
+            FileUtils.writeStringToFile(file, text, encoding);
+            for (int threads = 1; threads <= 3; threads++) {
+                final LineIndex index = LineIndex.build(file, Charsets.toCharset(encoding), threads, 3);
+                try {
+                    assertEquals(expected.size(), index.getLineCount());
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertEquals(encoding + " line " + i, expected.get(i), index.readLine(i));
+                    }
+                    assertEquals(expected.subList(2, 6), index.readLines(2, 4));
+                    assertEquals(expected, index.readLines(0, expected.size()));
+                    assertEquals(0, index.readLines(7, 0).size());
+                    assertEquals(7, index.getLineStart(1));
+                } finally {
+                    index.close();
+                }
+            }
+        }
+    }
+
+    public void testManyLines() throws Exception {
+        final Random random = new Random(1);
+        final StringBuilder buffer = new StringBuilder();
+        final String[] breaks = {"\n", "\r", "\r\n"};
+        for (int i = 0; i < 5000; i++) {
+            final int length = random.nextInt(10) == 0 ? 300 : random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                buffer.append((char) ('a' + random.nextInt(26)));
+            }
+            buffer.append(breaks[random.nextInt(breaks.length)]);
+        }
+        final String text = buffer.toString();
+        FileUtils.writeStringToFile(file, text, "US-ASCII");
+        final List<String> expected = IOUtils.readLines(new StringReader(text));
+        final LineIndex index = LineIndex.build(file, Charsets.US_ASCII, 4, 101);
+        try {
+            assertEquals(expected.size(), index.getLineCount());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals("line " + i, expected.get(i), index.readLine(i));
+            }
+        } finally {
+            index.close();
+        }
+    }
+
+    public void testOpenAndUpdate() throws Exception {
+        FileUtils.writeStringToFile(file, "a\nb\r", "UTF-8");
+        final File indexFile = LineIndex.getIndexFile(file);
+        LineIndex index = LineIndex.open(file, Charsets.UTF_8);
+        assertTrue(indexFile.exists());
+        assertEquals(2, index.getLineCount());
+        assertFalse(index.update());
+
+        // the appended line feed completes the carriage return line break
+        FileUtils.writeStringToFile(file, "\nc\nd", "UTF-8", true);
+        assertTrue(index.update());
+        assertEquals(4, index.getLineCount());
+        assertEquals("b", index.readLine(1));
+        assertEquals("d", index.readLine(3));
+        index.close();
+
+        // the saved index is updated when opened
+        index = LineIndex.open(file, Charsets.UTF_8);
+        assertEquals(4, index.getLineCount());
+        assertEquals(file.length(), index.getIndexedLength());
+        FileUtils.writeStringToFile(file, "e\n", "UTF-8", true);
+        index.close();
+        index = LineIndex.open(file, Charsets.UTF_8);
+        assertEquals(4, index.getLineCount());
+        assertEquals("de", index.readLine(3));
+        index.close();
+
+        // a truncated file is indexed again
+        FileUtils.writeStringToFile(file, "x\ny\nz\n", "UTF-8");
+        index = LineIndex.open(file, Charsets.UTF_8);
+        assertEquals(3, index.getLineCount());
+        assertEquals("z", index.readLine(2));
+        index.close();
+
+        // a corrupted index is ignored
+        FileUtils.writeStringToFile(indexFile, "garbage", "UTF-8");
+        index = LineIndex.open(file, Charsets.UTF_8);
+        assertEquals(3, index.getLineCount());
+        index.close();
+    }
+
+    public void testInvalid() throws Exception {
+        FileUtils.writeStringToFile(file, "", "UTF-8");
+        final LineIndex index = LineIndex.build(file, Charsets.UTF_8);
+        assertEquals(0, index.getLineCount());
+        try {
+            index.readLine(0);
+            fail();
+        } catch (final IndexOutOfBoundsException ex) {
+            // expected
+        }
+        try {
+            LineIndex.build(file, Charsets.UTF_16BE);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            LineIndex.build(new File(getTestDirectory(), "missing.txt"), Charsets.UTF_8);
+            fail();
+        } catch (final IOException ex) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.testtools.FileBasedTestCase;
+
+/**
+ * This is used to test ParallelLineProcessor for correctness.
+ */
+public class ParallelLineProcessorTestCase extends FileBasedTestCase {
+
+    private final File file;
+    private String text;
+
+    public ParallelLineProcessorTestCase(final String name) {
+        super(name);
+        file = new File(getTestDirectory(), "lines.txt");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        getTestDirectory().mkdirs();
+        final Random random = new Random(3);
+        final StringBuilder buffer = new StringBuilder();
+        final String[] breaks = {"\n", "\r", "\r\n"};
+        for (int i = 0; i < 3000; i++) {
+            final int length = random.nextInt(10) == 0 ? 200 : random.nextInt(15);
+            for (int j = 0; j < length; j++) {
+                buffer.append(random.nextInt(8) == 0 ? '\u00e9' : (char) ('a' + random.nextInt(26)));
+            }
+            buffer.append(breaks[random.nextInt(breaks.length)]);
+        }
+        buffer.append("last");
+        text = buffer.toString();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(getTestDirectory());
+    }
+
+    public void testOrdered() throws Exception {
+        FileUtils.writeStringToFile(file, text, "UTF-8");
+        final List<String> expected = upperCase(IOUtils.readLines(new StringReader(text)));
+        for (final int threads : new int[] {1, 3}) {
+            for (final int chunkSize : new int[] {1, 7, 1000, 1 << 20}) {
+                final UpperCaser processor = new UpperCaser(threads, true, chunkSize);
+                assertEquals(threads + "/" + chunkSize, expected, processor.run(file, Charsets.UTF_8));
+            }
+        }
+    }
+
+    public void testUnordered() throws Exception {
+        FileUtils.writeStringToFile(file, text, "ISO-8859-1");
+        final List<String> expected = upperCase(IOUtils.readLines(new StringReader(text)));
+        Collections.sort(expected);
+        final List<String> actual = new UpperCaser(4, false, 100).run(file, Charsets.ISO_8859_1);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    public void testSequentialEncoding() throws Exception {
+        FileUtils.writeStringToFile(file, text, "UTF-16LE");
+        final List<String> expected = upperCase(IOUtils.readLines(new StringReader(text)));
+        assertFalse(ParallelLineProcessor.isSplittable(Charsets.UTF_16LE));
+        assertEquals(expected, new UpperCaser(3, true, 10).run(file, Charsets.UTF_16LE));
+    }
+
+    public void testEmptyAndFailure() throws Exception {
+        FileUtils.writeStringToFile(file, "", "UTF-8");
+        assertEquals(0, new UpperCaser(3, true, 10).run(file, Charsets.UTF_8).size());
+
+        FileUtils.writeStringToFile(file, text, "UTF-8");
+        final UpperCaser failing = new UpperCaser(3, true, 100) {
+            @Override
+            protected String processLine(final String line) throws IOException {
+                if (line.equals("last")) {
+                    throw new IOException("failed");
+                }
+                return super.processLine(line);
+            }
+        };
+        try {
+            failing.run(file, Charsets.UTF_8);
+            fail();
+        } catch (final IOException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+    }
+
+    public void testHandledResultsReleased() throws Exception {
+        FileUtils.writeStringToFile(file, text, "UTF-8");
+        final int lines = IOUtils.readLines(new StringReader(text)).size();
+        for (final boolean ordered : new boolean[] {true, false}) {
+            final List<WeakReference<Object>> handled = new ArrayList<WeakReference<Object>>();
+            final int[] retained = new int[] {-1};
+            final ParallelLineProcessor<Object> processor = new ParallelLineProcessor<Object>(3, ordered, 50) {
+                @Override
+                protected Object processLine(final String line) {
+                    return new byte[1024];
+                }
+
+                @Override
+                protected void handleResult(final Object result) {
+                    handled.add(new WeakReference<Object>(result));
+                    if (handled.size() == lines) {
+                        // still processing: the results handled long ago must be collectable
+                        retained[0] = countRetained(handled.subList(0, lines - 100));
+                    }
+                }
+            };
+            processor.process(file, Charsets.UTF_8);
+            assertEquals("ordered=" + ordered, 0, retained[0]);
+        }
+    }
+
+    private static int countRetained(final List<WeakReference<Object>> references) {
+        int retained = 0;
+        for (int attempt = 0; attempt < 20; attempt++) {
+            System.gc();
+            retained = 0;
+            for (final WeakReference<Object> reference : references) {
+                if (reference.get() != null) {
+                    retained++;
+                }
+            }
+            if (retained == 0) {
+                break;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return retained;
+    }
+
+    private static List<String> upperCase(final List<String> lines) {
+        final List<String> result = new ArrayList<String>(lines.size());
+        for (final String line : lines) {
+            result.add(line.toUpperCase());
+        }
+        return result;
+    }
+
+    private static class UpperCaser extends ParallelLineProcessor<String> {
+        private final List<String> results = new ArrayList<String>();
+
+        UpperCaser(final int threads, final boolean ordered, final int chunkSize) {
+            super(threads, ordered, chunkSize);
+        }
+
+        List<String> run(final File file, final Charset charset) throws IOException {
+            results.clear();
+            process(file, charset);
+            return new ArrayList<String>(results);
+        }
+
+        @Override
+        protected String processLine(final String line) throws IOException {
+            return line.toUpperCase();
+        }
+
+        @Override
+        protected void handleResult(final String result) {
+            results.add(result);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io;
+
+import java.util.Random;
+import java.util.Stack;
+
+import junit.framework.TestCase;
+
+public class WildcardPatternTestCase extends TestCase {
+
+    public WildcardPatternTestCase(final String name) {
+        super(name);
+    }
+
+    public void testMatches() {
+        assertMatch("Foo", "Foo", true);
+        assertMatch("Foo", "Fo", false);
+        assertMatch("", "", true);
+        assertMatch("", "*", true);
+        assertMatch("", "?", false);
+        assertMatch("Foo", "Fo*", true);
+        assertMatch("Foo", "Fo?", true);
+        assertMatch("New Bookmarks", "N?w ?o?k??r?s", true);
+        assertMatch("Foo Bar Foo", "F*o Bar*", true);
+        assertMatch("Adobe Acrobat Installer", "Ad*er", true);
+        assertMatch("BarFoo", "*Foo", true);
+        assertMatch("BarFoo", "**Foo", true);
+        assertMatch("Foo", "*Foo", true);
+        assertMatch("FooBar", "*oB*", true);
+        assertMatch("FooBar", "*ob*", false);
+        assertMatch("log.log.abc.log.abc.d", "*log?abc?d", true);
+        assertMatch("log.log", "*log?", false);
+        // same as FilenameUtils.wildcardMatch, see IO-246
+        assertMatch("aaa", "aa*?", true);
+        assertMatch("aaa", "*?", false);
+        assertMatch("a", "*?", true);
+    }
+
+    public void testCaseSensitivity() {
+        assertTrue(new WildcardPattern("*.TXT", IOCase.INSENSITIVE).matches("log.txt"));
+        assertTrue(new WildcardPattern("LOG*", IOCase.INSENSITIVE).matches("log.txt"));
+        assertTrue(new WildcardPattern("L?G.*", IOCase.INSENSITIVE).matches("log.txt"));
+        assertTrue(new WildcardPattern("*OG.T*", IOCase.INSENSITIVE).matches("log.txt"));
+        assertFalse(new WildcardPattern("*.TXT", IOCase.SENSITIVE).matches("log.txt"));
+        assertFalse(new WildcardPattern("*.TXT", null).matches("log.txt"));
+        assertTrue(new WildcardPattern("\u03A3*", IOCase.INSENSITIVE).matches("\u03C2x"));
+        assertEquals(IOCase.SENSITIVE, new WildcardPattern("*").getCaseSensitivity());
+        assertEquals(IOCase.SYSTEM, new WildcardPattern("*", IOCase.SYSTEM).getCaseSensitivity());
+    }
+
+    public void testCharSequence() {
+        final WildcardPattern pattern = new WildcardPattern("a?c*");
+        final StringBuilder text = new StringBuilder("abcdef");
+        assertTrue(pattern.matches(text));
+        text.setCharAt(2, 'x');
+        assertFalse(pattern.matches(text));
+        assertFalse(pattern.matches(null));
+    }
+
+    public void testAccessors() {
+        final WildcardPattern pattern = new WildcardPattern("**.java", IOCase.INSENSITIVE);
+        assertEquals("**.java", pattern.getWildcard());
+        assertEquals("WildcardPattern(**.java,Insensitive)", pattern.toString());
+        try {
+            new WildcardPattern(null);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+        }
+    }
+
+    public void testSameAsBacktrackingMatch() {
+        final Random random = new Random(42);
+        final String patternChars = "ab*?";
+        for (int i = 0; i < 100000; i++) {
+            final String wildcard = randomString(random, patternChars, 7);
+            final String text = randomString(random, "aAb", 8);
+            for (final IOCase caseSensitivity : new IOCase[] { IOCase.SENSITIVE, IOCase.INSENSITIVE }) {
+                assertEquals(wildcard + " " + text + " " + caseSensitivity,
+                        backtrackingMatch(text, wildcard, caseSensitivity),
+                        new WildcardPattern(wildcard, caseSensitivity).matches(text));
+            }
+        }
+    }
+
+    private void assertMatch(final String text, final String wildcard, final boolean expected) {
+        assertEquals(text + " " + wildcard, expected, new WildcardPattern(wildcard).matches(text));
+        assertEquals(text + " " + wildcard, expected, FilenameUtils.wildcardMatch(text, wildcard));
+    }
+
+    private static String randomString(final Random random, final String chars, final int maxLength) {
+        final int length = random.nextInt(maxLength);
+        final StringBuilder buffer = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            buffer.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * The token based backtracking algorithm FilenameUtils.wildcardMatch used up to 2.4.
+     */
+    private static boolean backtrackingMatch(final String filename, final String wildcardMatcher,
+            final IOCase caseSensitivity) {
+        final String[] wcs = FilenameUtils.splitOnTokens(wildcardMatcher);
+        boolean anyChars = false;
+        int textIdx = 0;
+        int wcsIdx = 0;
+        final Stack<int[]> backtrack = new Stack<int[]>();
+        do {
+            if (backtrack.size() > 0) {
+                final int[] array = backtrack.pop();
+                wcsIdx = array[0];
+                textIdx = array[1];
+                anyChars = true;
+            }
+            while (wcsIdx < wcs.length) {
+                if (wcs[wcsIdx].equals("?")) {
+                    textIdx++;
+                    if (textIdx > filename.length()) {
+                        break;
+                    }
+                    anyChars = false;
+                } else if (wcs[wcsIdx].equals("*")) {
+                    anyChars = true;
+                    if (wcsIdx == wcs.length - 1) {
+                        textIdx = filename.length();
+                    }
+                } else {
+                    if (anyChars) {
+                        textIdx = caseSensitivity.checkIndexOf(filename, textIdx, wcs[wcsIdx]);
+                        if (textIdx == -1) {
+                            break;
+                        }
+                        final int repeat = caseSensitivity.checkIndexOf(filename, textIdx + 1, wcs[wcsIdx]);
+                        if (repeat >= 0) {
+                            backtrack.push(new int[] {wcsIdx, repeat});
+                        }
+                    } else {
+                        if (!caseSensitivity.checkRegionMatches(filename, textIdx, wcs[wcsIdx])) {
+                            break;
+                        }
+                    }
+                    textIdx += wcs[wcsIdx].length();
+                    anyChars = false;
+                }
+                wcsIdx++;
+            }
+            if (wcsIdx == wcs.length && textIdx == filename.length()) {
+                return true;
+            }
+        } while (backtrack.size() > 0);
+        return false;
+    }
+
+}
@@ -18,8 +18,10 @@ package org.apache.commons.io.comparator;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.testtools.FileBasedTestCase;
@@ -127,6 +129,62 @@ public abstract class ComparatorAbstractTestCase extends FileBasedTestCase {
         assertSame("more",  moreFile, files.get(2));
     }
 
+    /**
+     * Test sorting many files gives the order of a plain sort, which is stable.
+     */
+    public void testSortArrayLarge() {
+        final File[] candidates = new File[] {equalFile1, moreFile, lessFile, equalFile2};
+        final File[] files = new File[FileSorter.PARALLEL_KEY_THRESHOLD * 3 + 7];
+        final Random random = new Random(files.length);
+        for (int i = 0; i < files.length; i++) {
+            // distinct instances, so that identity checks stability
+            files[i] = new File(candidates[random.nextInt(candidates.length)].getPath());
+        }
+        final File[] expected = files.clone();
+        Arrays.sort(expected, comparator);
+        final File[] expectedReverse = files.clone();
+        Arrays.sort(expectedReverse, reverse);
+
+        final File[] actual = files.clone();
+        assertSame(actual, comparator.sort(actual));
+        final List<File> actualReverse = new ArrayList<File>(Arrays.asList(files));
+        assertSame(actualReverse, ((AbstractFileComparator) reverse).sort(actualReverse));
+        for (int i = 0; i < files.length; i++) {
+            assertSame("index " + i, expected[i], actual[i]);
+            assertSame("reverse index " + i, expectedReverse[i], actualReverse.get(i));
+        }
+    }
+
+    /**
+     * Test the parallel sort gives the order of a plain sort, which is stable.
+     */
+    public void testParallelSort() {
+        final File[] candidates = new File[] {equalFile1, moreFile, lessFile, equalFile2};
+        final File[] files = new File[FileSorter.PARALLEL_SORT_THRESHOLD * 3 + 5];
+        final Random random = new Random(files.length);
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new File(candidates[random.nextInt(candidates.length)].getPath());
+        }
+        final File[] expected = files.clone();
+        Arrays.sort(expected, comparator);
+        final File[] expectedReverse = files.clone();
+        Arrays.sort(expectedReverse, reverse);
+
+        final File[] actual = files.clone();
+        FileSorter.parallelSort(comparator, actual, 4);
+        final File[] actualReverse = files.clone();
+        FileSorter.parallelSort(reverse, actualReverse, 3);
+        final List<File> actualList = new ArrayList<File>(Arrays.asList(files));
+        assertSame(actualList, comparator.parallelSort(actualList));
+        for (int i = 0; i < files.length; i++) {
+            assertSame("index " + i, expected[i], actual[i]);
+            assertSame("reverse index " + i, expectedReverse[i], actualReverse[i]);
+            assertSame("list index " + i, expected[i], actualList.get(i));
+        }
+        assertNull(comparator.parallelSort((File[]) null));
+        assertNull(comparator.parallelSort((List<File>) null));
+    }
+
     /**
      * Test comparator list sort is null safe.
      */
@@ -17,7 +17,9 @@
 package org.apache.commons.io.comparator;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Random;
 
 /**
  * Test case for {@link NameFileComparator}.
@@ -59,4 +61,33 @@ public class NameFileComparatorTest extends ComparatorAbstractTestCase {
         assertTrue("insensitive file1 & file4 > 0", insensitive.compare(equalFile1, lessFile) > 0);
         assertTrue("insensitive file3 & less  > 0", insensitive.compare(file3, lessFile) > 0);
     }
+
+    /** Test sorting with case-folded keys gives the order of the comparison */
+    @SuppressWarnings("unchecked") // generic array creation
+    public void testSortCaseInsensitive() {
+        final String letters = "aAbBzZ_[`\u00e9\u00c9\u0131I\u0130i\u00df\u03c3\u03a3\u03c2";
+        final Random random = new Random(42);
+        final File[] files = new File[500];
+        for (int i = 0; i < files.length; i++) {
+            final StringBuilder name = new StringBuilder();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                name.append(letters.charAt(random.nextInt(letters.length())));
+            }
+            files[i] = new File(i % 2 == 0 ? "x" : "y", name.toString());
+        }
+        final Comparator<File>[] comparators = new Comparator[] {
+            NameFileComparator.NAME_COMPARATOR, NameFileComparator.NAME_INSENSITIVE_COMPARATOR,
+            NameFileComparator.NAME_INSENSITIVE_REVERSE, PathFileComparator.PATH_INSENSITIVE_COMPARATOR,
+            ExtensionFileComparator.EXTENSION_INSENSITIVE_COMPARATOR
+        };
+        for (final Comparator<File> c : comparators) {
+            final File[] expected = files.clone();
+            Arrays.sort(expected, c);
+            final File[] actual = files.clone();
+            ((AbstractFileComparator) c).sort(actual);
+            for (int i = 0; i < files.length; i++) {
+                assertSame(c + " index " + i, expected[i], actual[i]);
+            }
+        }
+    }
 }
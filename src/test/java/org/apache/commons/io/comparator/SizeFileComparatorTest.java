@@ -77,4 +77,34 @@ public class SizeFileComparatorTest extends ComparatorAbstractTestCase {
         assertEquals("less", -1, SizeFileComparator.SIZE_SUMDIR_COMPARATOR.compare(smallerDir, largerDir));
         assertEquals("less", 1,  SizeFileComparator.SIZE_SUMDIR_REVERSE.compare(smallerDir, largerDir));
     }
+
+    /**
+     * Test sorting directories by the size of their contents.
+     */
+    public void testSortDirectorySizes() {
+        final File[] files = new File[] {largerDir, smallerDir, largerFile, smallerFile};
+        ((AbstractFileComparator) SizeFileComparator.SIZE_SUMDIR_COMPARATOR).sort(files);
+        assertSame(smallerDir, files[0]);
+        assertSame(smallerFile, files[1]);
+        assertSame(largerDir, files[2]);
+        assertSame(largerFile, files[3]);
+    }
+
+    /**
+     * Test a subclass redefining compare is used to sort.
+     */
+    public void testSortSubclass() {
+        final SizeFileComparator byDescendingSize = new SizeFileComparator() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public int compare(final File file1, final File file2) {
+                return super.compare(file2, file1);
+            }
+        };
+        final File[] files = new File[] {smallerFile, largerFile};
+        byDescendingSize.sort(files);
+        assertSame(largerFile, files[0]);
+        assertSame(smallerFile, files[1]);
+    }
 }
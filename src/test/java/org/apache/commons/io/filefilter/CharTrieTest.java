@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.filefilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.commons.io.IOCase;
+import org.junit.Test;
+
+public class CharTrieTest {
+
+    @Test
+    public void testContains() {
+        final CharTrie<String> trie = new CharTrie<String>(IOCase.SENSITIVE, false);
+        trie.add("abc");
+        trie.add("abd");
+        trie.add("b");
+        assertTrue(trie.contains("abc"));
+        assertTrue(trie.contains("abd"));
+        assertTrue(trie.contains("b"));
+        assertFalse(trie.contains("ab"));
+        assertFalse(trie.contains("abcd"));
+        assertFalse(trie.contains("ABC"));
+        assertFalse(trie.contains(""));
+        trie.add("");
+        assertTrue(trie.contains(""));
+    }
+
+    @Test
+    public void testContainsKeyOf() {
+        final CharTrie<String> prefixes = new CharTrie<String>(IOCase.SENSITIVE, false);
+        prefixes.add("ab");
+        prefixes.add("xyz");
+        assertTrue(prefixes.containsKeyOf("ab"));
+        assertTrue(prefixes.containsKeyOf("abc"));
+        assertTrue(prefixes.containsKeyOf("xyz.txt"));
+        assertFalse(prefixes.containsKeyOf("a"));
+        assertFalse(prefixes.containsKeyOf("xy"));
+        assertFalse(prefixes.containsKeyOf("cab"));
+
+        final CharTrie<String> suffixes = new CharTrie<String>(IOCase.SENSITIVE, true);
+        suffixes.add(".txt");
+        suffixes.add(".tar.gz");
+        assertTrue(suffixes.isReversed());
+        assertTrue(suffixes.containsKeyOf("a.txt"));
+        assertTrue(suffixes.containsKeyOf("a.tar.gz"));
+        assertFalse(suffixes.containsKeyOf("a.gz"));
+        assertFalse(suffixes.containsKeyOf("a.txt.old"));
+        assertFalse(suffixes.containsKeyOf("a.TXT"));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        final CharTrie<String> trie = new CharTrie<String>(IOCase.INSENSITIVE, true);
+        trie.add(".Txt");
+        assertTrue(trie.containsKeyOf("A.TXT"));
+        assertTrue(trie.containsKeyOf("a.txt"));
+        assertFalse(trie.containsKeyOf("a.txx"));
+        assertFalse(trie.contains("a.txt"));
+        assertTrue(trie.contains(".tXT"));
+    }
+
+    @Test
+    public void testValues() {
+        final CharTrie<String> trie = new CharTrie<String>(null, false);
+        trie.add("ab", "one");
+        trie.add("ab", "two");
+        assertFalse(trie.contains("ab"));
+
+        CharTrie.Node<String> node = trie.root();
+        assertNull(node.getValues());
+        node = trie.next(node, "abc", 0);
+        assertNull(node.getValues());
+        node = trie.next(node, "abc", 1);
+        assertEquals(Arrays.asList("one", "two"), node.getValues());
+        assertFalse(node.isTerminal());
+        assertNull(trie.next(node, "abc", 2));
+        assertNull(trie.next(node, "ab", 2));
+    }
+
+}
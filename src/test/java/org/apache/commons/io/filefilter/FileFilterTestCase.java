@@ -29,7 +29,9 @@ import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileAttributes;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOCase;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.testtools.FileBasedTestCase;
@@ -650,6 +652,79 @@ public class FileFilterTestCase extends FileBasedTestCase {
         } catch (final IllegalArgumentException ex) {}
     }
 
+    public void testWildcardManyPatterns() throws Exception {
+        final String[] wildcards = new String[] {
+            "*.txt", "*.TAR.gz", "log*", "Log?.*", "?ed", "*", "", "exact.name", "a*b*c",
+            "*st*", "re?d*", "*?x", "x?", "**.java", "Fo*o", "*.*.bak", "???", null
+        };
+        final String[] names = new String[] {
+            "", "a", "x", "xy", "red", "Red", "read.me", "READ.ME", "log", "log.txt", "LOG.TXT",
+            "Log1.csv", "logs", "a.tar.gz", "a.TAR.GZ", "exact.name", "EXACT.NAME", "abc", "aXbYc",
+            "acb", "test", "Test.java", "file.old.bak", "Fo", "Foo", "FOO", "box", "abx", "st"
+        };
+        for (final IOCase caseSensitivity : new IOCase[] { IOCase.SENSITIVE, IOCase.INSENSITIVE }) {
+            // each wildcard alone, then all the wildcards but the catch-all ones
+            for (int i = 0; i <= wildcards.length; i++) {
+                final List<String> patterns = new ArrayList<String>();
+                if (i < wildcards.length) {
+                    patterns.add(wildcards[i]);
+                } else {
+                    for (final String wildcard : wildcards) {
+                        if (!"*".equals(wildcard) && !"**.java".equals(wildcard)) {
+                            patterns.add(wildcard);
+                        }
+                    }
+                }
+                final IOFileFilter filter = new WildcardFileFilter(patterns, caseSensitivity);
+                for (final String name : names) {
+                    boolean expected = false;
+                    for (final String pattern : patterns) {
+                        expected |= FilenameUtils.wildcardMatch(name, pattern, caseSensitivity);
+                    }
+                    assertEquals(patterns + " " + caseSensitivity + " " + name, expected,
+                            filter.accept(new File(name)));
+                }
+            }
+        }
+    }
+
+    public void testNamePrefixSuffixManyPatterns() throws Exception {
+        final String[] patterns = new String[] {
+            ".txt", ".TXT", ".tar.gz", "txt", "t", "log", "Log1", "a", "ab", "abc", "exact.name", "README",
+            "\u03A3", "x.y.z", ".gz"
+        };
+        final String[] names = new String[] {
+            "", "a", "ab", "abc", "abcd", "A", "AB", "log", "LOG", "log.txt", "LOG.TXT", "Log1.csv",
+            "a.tar.gz", "a.TAR.GZ", "gz", "exact.name", "EXACT.NAME", "readme", "README.md", "t", "x.y.z",
+            "\u03C3", "\u03A3", "txt", "tx"
+        };
+        for (final IOCase caseSensitivity : new IOCase[] { IOCase.SENSITIVE, IOCase.INSENSITIVE }) {
+            final IOFileFilter nameFilter = new NameFileFilter(patterns, caseSensitivity);
+            final IOFileFilter prefixFilter = new PrefixFileFilter(patterns, caseSensitivity);
+            final IOFileFilter suffixFilter = new SuffixFileFilter(patterns, caseSensitivity);
+            for (final String name : names) {
+                boolean equals = false;
+                boolean startsWith = false;
+                boolean endsWith = false;
+                for (final String pattern : patterns) {
+                    equals |= caseSensitivity.checkEquals(name, pattern);
+                    startsWith |= caseSensitivity.checkStartsWith(name, pattern);
+                    endsWith |= caseSensitivity.checkEndsWith(name, pattern);
+                }
+                final String message = caseSensitivity + " " + name;
+                assertEquals(message, equals, nameFilter.accept(new File(name)));
+                assertEquals(message, equals, nameFilter.accept(null, name));
+                assertEquals(message, startsWith, prefixFilter.accept(new File(name)));
+                assertEquals(message, startsWith, prefixFilter.accept(null, name));
+                assertEquals(message, endsWith, suffixFilter.accept(new File(name)));
+                assertEquals(message, endsWith, suffixFilter.accept(null, name));
+            }
+        }
+        assertTrue(new SuffixFileFilter("").accept(new File("any")));
+        assertTrue(new PrefixFileFilter("").accept(new File("any")));
+        assertFalse(new NameFileFilter("").accept(new File("any")));
+    }
+
     public void testDelegateFileFilter() throws Exception {
         final OrFileFilter orFilter = new OrFileFilter();
         final File testFile = new File( "test.txt" );
@@ -886,6 +961,186 @@ public class FileFilterTestCase extends FileBasedTestCase {
         FileUtils.forceDelete(emptyDir);
     }
 
+    public void testAttributeFilters() throws Exception {
+        final File dir = new File(getTestDirectory(), "attributes-dir");
+        dir.mkdirs();
+        final File file = new File(dir, "attributes-file.txt");
+        createFile(file, 32);
+        final File missing = new File(dir, "missing.txt");
+        final long cutoff = file.lastModified() + 2000;
+
+        final IOFileFilter[] filters = new IOFileFilter[] {
+            new AgeFileFilter(cutoff), new AgeFileFilter(cutoff, false),
+            new SizeFileFilter(32), new SizeFileFilter(32, false),
+            EmptyFileFilter.EMPTY, EmptyFileFilter.NOT_EMPTY,
+            CanReadFileFilter.CAN_READ, CanWriteFileFilter.CAN_WRITE,
+            HiddenFileFilter.HIDDEN, HiddenFileFilter.VISIBLE,
+            DirectoryFileFilter.DIRECTORY, FileFileFilter.FILE,
+            FileFilterUtils.and(FileFileFilter.FILE, new SizeFileFilter(16), new AgeFileFilter(cutoff)),
+            FileFilterUtils.or(DirectoryFileFilter.DIRECTORY, new SuffixFileFilter(".txt"))
+        };
+        for (final IOFileFilter filter : filters) {
+            assertTrue(filter instanceof AttributeFileFilter);
+            for (final File f : new File[] { dir, file, missing }) {
+                assertEquals(filter + " " + f, filter.accept(f),
+                        ((AttributeFileFilter) filter).accept(new FileAttributes(f)));
+            }
+        }
+    }
+
+    public void testAttributeFiltersShareAttributes() throws Exception {
+        final File file = new File(getTestDirectory(), "attributes-shared.txt");
+        createFile(file, 32);
+        final FileAttributes attributes = new FileAttributes(file);
+        final AttributeFileFilter filter = (AttributeFileFilter) FileFilterUtils.and(
+                FileFileFilter.FILE,
+                new SizeFileFilter(16),
+                new NotFileFilter(new AgeFileFilter(file.lastModified() - 2000)),
+                new SuffixFileFilter(".txt"));
+        assertTrue(filter.accept(attributes));
+
+        // once read by the filters, the attributes are not read again
+        FileUtils.forceDelete(file);
+        assertFalse(filter.accept(file));
+        assertTrue(filter.accept(attributes));
+        assertTrue(FileFilterUtils.accept(filter, attributes));
+        assertTrue(FileFilterUtils.accept(new SuffixFileFilter(".txt"), attributes));
+    }
+
+    public void testAttributeFilterSubclassOverridingAcceptFile() throws Exception {
+        final File file = new File(getTestDirectory(), "attributes-subclass.txt");
+        createFile(file, 32);
+        final IOFileFilter overriding = new SizeFileFilter(16) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean accept(final File f) {
+                return false;
+            }
+        };
+        assertFalse(new AndFileFilter(overriding, new SuffixFileFilter(".txt")).accept(file));
+        assertFalse(new OrFileFilter(overriding, new SuffixFileFilter(".log")).accept(file));
+        assertTrue(new NotFileFilter(overriding).accept(file));
+        assertFalse(FileFilterUtils.accept(overriding, new FileAttributes(file)));
+
+        // overriding both keeps the attribute path
+        final IOFileFilter both = new SizeFileFilter(16) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean accept(final File f) {
+                return false;
+            }
+
+            @Override
+            public boolean accept(final FileAttributes attributes) {
+                return true;
+            }
+        };
+        assertTrue(FileFilterUtils.accept(both, new FileAttributes(file)));
+    }
+
+    public void testFilterCost() throws Exception {
+        assertEquals(FilterCost.NAME, FileFilterUtils.getCost(new SuffixFileFilter(".txt")));
+        assertEquals(FilterCost.NAME, FileFilterUtils.getCost(TrueFileFilter.TRUE));
+        assertEquals(FilterCost.METADATA, FileFilterUtils.getCost(new SizeFileFilter(1)));
+        assertEquals(FilterCost.CONTENT, FileFilterUtils.getCost(new MagicNumberFileFilter("x")));
+        assertEquals(FilterCost.CONTENT, FileFilterUtils.getCost(new NotFileFilter(new MagicNumberFileFilter("x"))));
+        assertEquals(FilterCost.UNKNOWN, FileFilterUtils.getCost(new DelegateFileFilter((FileFilter) TrueFileFilter.TRUE)));
+        assertEquals(FilterCost.NAME, FileFilterUtils.getCost(new AndFileFilter()));
+        assertEquals(FilterCost.METADATA,
+                FileFilterUtils.getCost(FileFilterUtils.and(new SuffixFileFilter(".txt"), new SizeFileFilter(1))));
+        assertEquals(FilterCost.UNKNOWN, FileFilterUtils.getCost(FileFilterUtils.or(new SuffixFileFilter(".txt"),
+                new DelegateFileFilter((FileFilter) TrueFileFilter.TRUE))));
+    }
+
+    public void testConditionalFilterCostOrder() throws Exception {
+        final File file = new File("test.txt");
+        final CountingFilter content = new CountingFilter(FilterCost.CONTENT, true);
+        final CountingFilter name = new CountingFilter(FilterCost.NAME, false);
+
+        final AndFileFilter and = new AndFileFilter(content, name);
+        assertFalse(and.accept(file));
+        assertFalse(and.accept(file.getParentFile(), file.getName()));
+        assertEquals(0, content.count);
+        assertEquals(2, name.count);
+        assertEquals(0, and.getEvaluationCount(0));
+        assertEquals(2, and.getEvaluationCount(1));
+        assertEquals(0, and.getShortCircuitCount(0));
+        assertEquals(2, and.getShortCircuitCount(1));
+        assertEquals(Arrays.asList(content, name), and.getFileFilters());
+
+        final OrFileFilter or = new OrFileFilter(content, new NotFileFilter(name));
+        assertTrue(or.accept(file));
+        assertEquals(0, content.count);
+        assertEquals(1, or.getShortCircuitCount(1));
+
+        // filters of unknown cost keep their place
+        final CountingFilter unknown = new CountingFilter(null, false);
+        final AndFileFilter barrier = new AndFileFilter(content, unknown);
+        barrier.addFileFilter(name);
+        assertFalse(barrier.accept(file));
+        assertEquals(1, content.count);
+        assertEquals(1, unknown.count);
+        assertEquals(3, name.count);
+
+        // changing the filters resets the statistics
+        and.addFileFilter(TrueFileFilter.TRUE);
+        assertEquals(0, and.getEvaluationCount(1));
+        try {
+            and.getEvaluationCount(3);
+            fail();
+        } catch (final IndexOutOfBoundsException ex) {
+        }
+    }
+
+    public void testConditionalFilterSelectivityOrder() throws Exception {
+        final File file = new File("test.txt");
+        final CountingFilter accepting = new CountingFilter(FilterCost.NAME, true);
+        final CountingFilter rejecting = new CountingFilter(FilterCost.NAME, false);
+        final AndFileFilter and = new AndFileFilter(accepting, rejecting);
+        final int evaluations = FilterEvaluationOrder.REORDER_INTERVAL * 3;
+        for (int i = 0; i < evaluations; i++) {
+            assertFalse(and.accept(file));
+        }
+        // once re-ordered, the rejecting filter decides alone
+        assertEquals(FilterEvaluationOrder.REORDER_INTERVAL - 1, accepting.count);
+        assertEquals(evaluations, rejecting.count);
+        assertEquals(accepting.count, and.getEvaluationCount(0));
+        assertEquals(0, and.getShortCircuitCount(0));
+        assertEquals(evaluations, and.getShortCircuitCount(1));
+    }
+
+    /**
+     * A filter with a given cost and result, counting how often it is called.
+     */
+    static class CountingFilter extends AbstractFileFilter implements CostedFileFilter {
+        private final FilterCost cost;
+        private final boolean result;
+        int count;
+
+        CountingFilter(final FilterCost cost, final boolean result) {
+            this.cost = cost;
+            this.result = result;
+        }
+
+        @Override
+        public boolean accept(final File file) {
+            count++;
+            return result;
+        }
+
+        @Override
+        public boolean accept(final File dir, final String name) {
+            count++;
+            return result;
+        }
+
+        public FilterCost getCost() {
+            return cost == null ? FilterCost.UNKNOWN : cost;
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testMakeDirectoryOnly() throws Exception {
         assertSame(DirectoryFileFilter.DIRECTORY, FileFilterUtils.makeDirectoryOnly(null));
@@ -1014,6 +1269,91 @@ public class FileFilterTestCase extends FileBasedTestCase {
         assertFiltering(filter, dir, false);
     }
 
+    public void testMagicNumberClassifier() throws Exception {
+        final byte[] classFileMagicNumber =
+            new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+        final byte[] tarMagicNumber = new byte[] {0x75, 0x73, 0x74, 0x61, 0x72};
+        final long tarMagicNumberOffset = 257;
+
+        final File classFileA = new File(getTestDirectory(), "A.class");
+        final File tarFileB = new File(getTestDirectory(), "B.tar");
+        final File xmlFileC = new File(getTestDirectory(), "C.xml");
+        final File shortFileD = new File(getTestDirectory(), "D.txt");
+        final File emptyFile = new File(getTestDirectory(), "E.txt");
+        final File dir = new File(getTestDirectory(), "F");
+        dir.mkdirs();
+
+        final OutputStream classFileAStream = FileUtils.openOutputStream(classFileA);
+        IOUtils.write(classFileMagicNumber, classFileAStream);
+        generateTestData(classFileAStream, 32);
+        classFileAStream.close();
+
+        final OutputStream tarFileBStream = FileUtils.openOutputStream(tarFileB);
+        generateTestData(tarFileBStream, tarMagicNumberOffset);
+        IOUtils.write(tarMagicNumber, tarFileBStream);
+        tarFileBStream.close();
+
+        FileUtils.write(xmlFileC, "<?xml version=\"1.0\"?>\n<element/>", Charsets.UTF_8);
+        FileUtils.write(shortFileD, "<?x", Charsets.UTF_8);
+        FileUtils.touch(emptyFile);
+
+        final MagicNumberClassifier classifier = new MagicNumberClassifier();
+        assertNull(classifier.classify(classFileA));
+        assertFiltering(classifier, classFileA, false);
+
+        classifier.addMagicNumber("class", classFileMagicNumber);
+        classifier.addMagicNumber("tar", tarMagicNumber, tarMagicNumberOffset);
+        classifier.addMagicNumber("xml", "<?xml");
+        classifier.addMagicNumber("cafe", new byte[] {(byte) 0xCA, (byte) 0xFE});
+        classifier.addMagicNumber("any-xml", "<?");
+        assertEquals(Arrays.asList("class", "tar", "xml", "cafe", "any-xml"), classifier.getTypes());
+
+        assertEquals("class", classifier.classify(classFileA));
+        assertEquals("tar", classifier.classify(tarFileB));
+        assertEquals("xml", classifier.classify(xmlFileC));
+        assertEquals("any-xml", classifier.classify(shortFileD));
+        assertNull(classifier.classify(emptyFile));
+        assertNull(classifier.classify(dir));
+        assertNull(classifier.classify(null));
+
+        assertFiltering(classifier, classFileA, true);
+        assertFiltering(classifier, tarFileB, true);
+        assertFiltering(classifier, xmlFileC, true);
+        assertFiltering(classifier, emptyFile, false);
+        assertFiltering(classifier, dir, false);
+        assertEquals(FilterCost.CONTENT, classifier.getCost());
+
+        // the first registered magic number wins, whatever its offset
+        final MagicNumberClassifier reversed = new MagicNumberClassifier();
+        reversed.addMagicNumber("cafe", new byte[] {(byte) 0xCA, (byte) 0xFE});
+        reversed.addMagicNumber("babe", new byte[] {(byte) 0xBA, (byte) 0xBE}, 2);
+        reversed.addMagicNumber("class", classFileMagicNumber);
+        assertEquals("cafe", reversed.classify(classFileA));
+        final MagicNumberClassifier byOffset = new MagicNumberClassifier();
+        byOffset.addMagicNumber("babe", new byte[] {(byte) 0xBA, (byte) 0xBE}, 2);
+        byOffset.addMagicNumber("cafe", new byte[] {(byte) 0xCA, (byte) 0xFE});
+        assertEquals("babe", byOffset.classify(classFileA));
+
+        try {
+            classifier.addMagicNumber(null, "x");
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            classifier.addMagicNumber("x", new byte[0]);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            classifier.addMagicNumber("x", "x", -1);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
     @SuppressWarnings("deprecation") // unavoidable until Java 7
     public void testMagicNumberFileFilterString() throws Exception {
         final byte[] classFileMagicNumber =
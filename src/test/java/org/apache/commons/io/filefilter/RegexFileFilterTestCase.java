@@ -17,6 +17,8 @@
 package org.apache.commons.io.filefilter;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
@@ -115,4 +117,120 @@ public class RegexFileFilterTestCase extends FileBasedTestCase {
         }
     }
 
+    public void testMultiRegex() throws Exception {
+        MultiRegexFileFilter filter = new MultiRegexFileFilter("^.*[tT]est(-\\d+)?\\.java$", "(a)(b)?c", "[Rr]eadme.*");
+        assertFiltering(filter, new File("Test.java"), true);
+        assertFiltering(filter, new File("test-10.java"), true);
+        assertFiltering(filter, new File("test-.java"), false);
+        assertFiltering(filter, new File("README"), false);
+        assertEquals(0, filter.indexOfMatch("test-10.java"));
+        assertEquals(1, filter.indexOfMatch("ac"));
+        assertEquals(1, filter.indexOfMatch("abc"));
+        assertEquals(2, filter.indexOfMatch("readme.txt"));
+        assertEquals(-1, filter.indexOfMatch("abcd"));
+        assertEquals(2, filter.indexOfMatch(new File("dir", "Readme")));
+        assertEquals(FilterCost.NAME, filter.getCost());
+
+        // the first regular expression matching wins, embedded flags stay in their own one
+        filter = new MultiRegexFileFilter(".*\\.txt", "(?i)a.*", "A.*", "b.*");
+        assertEquals(0, filter.indexOfMatch("a.txt"));
+        assertEquals(1, filter.indexOfMatch("A.log"));
+        assertEquals(-1, filter.indexOfMatch("B.log"));
+
+        filter = new MultiRegexFileFilter(Arrays.asList("test\\.java", "x.*"), IOCase.INSENSITIVE);
+        assertFiltering(filter, new File("TEST.java"), true);
+        assertFiltering(filter, new File("Xyz"), true);
+        filter = new MultiRegexFileFilter(Arrays.asList("test\\.java", "x.*"), Pattern.CASE_INSENSITIVE);
+        assertFiltering(filter, new File("TEST.java"), true);
+
+        // back references are kept working
+        filter = new MultiRegexFileFilter("(x)y", "(.)\\1\\.txt");
+        assertEquals(1, filter.indexOfMatch("aa.txt"));
+        assertEquals(-1, filter.indexOfMatch("ab.txt"));
+        assertEquals(0, filter.indexOfMatch("xy"));
+
+        // literal patterns are not combined
+        filter = new MultiRegexFileFilter(Arrays.asList("a|b", "c"), Pattern.LITERAL);
+        assertEquals(0, filter.indexOfMatch("a|b"));
+        assertEquals(-1, filter.indexOfMatch("a"));
+        assertEquals(1, filter.indexOfMatch("c"));
+
+        filter = new MultiRegexFileFilter(Arrays.asList("a # letter a", "b"), Pattern.COMMENTS);
+        assertEquals(0, filter.indexOfMatch("a"));
+        assertEquals(1, filter.indexOfMatch("b"));
+
+        // an unterminated quote, named groups and embedded comments are not combined
+        filter = new MultiRegexFileFilter("\\Qfoo", "b");
+        assertEquals(0, filter.indexOfMatch("foo"));
+        assertEquals(1, filter.indexOfMatch("b"));
+        filter = new MultiRegexFileFilter("(?<x>a)", "(?<x>b)");
+        assertEquals(0, filter.indexOfMatch("a"));
+        assertEquals(1, filter.indexOfMatch("b"));
+        filter = new MultiRegexFileFilter("(?x)a #comment", "b");
+        assertEquals(0, filter.indexOfMatch("a"));
+        assertEquals(1, filter.indexOfMatch("b"));
+
+        filter = new MultiRegexFileFilter(Collections.<String>emptyList(), 0);
+        assertFiltering(filter, new File("a"), false);
+
+        try {
+            new MultiRegexFileFilter((String[]) null);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new MultiRegexFileFilter("a", null);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testMultiRegexRelativePath() throws Exception {
+        final File base = new File(getTestDirectory(), "base");
+        final MultiRegexFileFilter filter = new MultiRegexFileFilter(base,
+                Arrays.asList("src/main/.*\\.java", "[^/]*\\.txt"), 0);
+        assertEquals(base.getAbsoluteFile(), filter.getBaseDirectory());
+        assertFiltering(filter, new File(base, "src/main/a/B.java"), true);
+        assertFiltering(filter, new File(base, "src/test/a/B.java"), false);
+        assertFiltering(filter, new File(base, "notes.txt"), true);
+        assertFiltering(filter, new File(base, "docs/notes.txt"), false);
+        assertEquals(1, filter.indexOfMatch(new File(base, "a.txt")));
+        assertEquals(-1, filter.indexOfMatch(new File(getTestDirectory(), "base2/a.txt")));
+        assertEquals(-1, filter.indexOfMatch(new File(getTestDirectory(), "a.txt")));
+        assertEquals(-1, filter.indexOfMatch(base));
+    }
+
+    public void testMultiRegexThreads() throws Exception {
+        final MultiRegexFileFilter filter = new MultiRegexFileFilter("a+", "b+", "c+");
+        final int[] failures = new int[1];
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int expected = t % 3;
+            final String text = "abc".substring(expected, expected + 1);
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i < 2000; i++) {
+                        final StringBuilder builder = new StringBuilder();
+                        for (int j = 0; j < i % 10 + 1; j++) {
+                            builder.append(text);
+                        }
+                        if (filter.indexOfMatch(builder.toString()) != expected) {
+                            synchronized (failures) {
+                                failures[0]++;
+                            }
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures[0]);
+    }
+
 }
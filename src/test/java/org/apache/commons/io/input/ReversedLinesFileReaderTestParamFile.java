@@ -25,8 +25,11 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Stack;
 
 import org.junit.After;
@@ -100,6 +103,33 @@ public class ReversedLinesFileReaderTestParamFile {
 
     }
 
+    @Test
+    public void testMappedReader() throws URISyntaxException, IOException {
+        final File testFile = new File(this.getClass().getResource("/" + fileName).toURI());
+        final Charset charset = Charset.forName(encoding);
+        reversedLinesFileReader = new ReversedLinesFileReader(testFile, buffSize, charset);
+        final List<String> expected = new ArrayList<String>();
+        String line = null;
+        while ((line = reversedLinesFileReader.readLine()) != null) {
+            expected.add(line);
+        }
+
+        for (final int windowSize : new int[] {0, 3, 16, 4096}) {
+            final ReversedLinesFileReader mappedReader = windowSize == 0
+                    ? new ReversedLinesFileReader(testFile, buffSize, charset, true)
+                    : new ReversedLinesFileReader(testFile, buffSize, charset, windowSize);
+            try {
+                final List<String> actual = new ArrayList<String>();
+                while ((line = mappedReader.readLine()) != null) {
+                    actual.add(line);
+                }
+                assertEquals("window size " + windowSize, expected, actual);
+            } finally {
+                mappedReader.close();
+            }
+        }
+    }
+
     @After
     public void closeReader() {
         try {
@@ -18,6 +18,7 @@ package org.apache.commons.io.input;
 
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 
 import junit.framework.TestCase;
@@ -127,10 +128,15 @@ public class SwappedDataInputStreamTest extends TestCase {
     }
 
     public void testReadUTF() throws IOException {
+        final byte[] data = { 4, 0, 'a', (byte) 0xC3, (byte) 0xA9, 'b' };
+        final SwappedDataInputStream in = new SwappedDataInputStream( new ByteArrayInputStream( data ) );
+        assertEquals( "a\u00e9b", in.readUTF() );
+        in.close();
         try {
             this.sdis.readUTF();
-            fail("readUTF should be unsupported. ");
-        } catch(final UnsupportedOperationException uoe) {
+            fail( "Expected EOFException" );
+        } catch (final EOFException e) {
+            // expected
         }
     }
 
@@ -139,4 +145,101 @@ public class SwappedDataInputStreamTest extends TestCase {
         assertEquals( 0x08070605, this.sdis.readInt() );
     }
 
+    public void testReadAcrossBuffers() throws IOException {
+        final byte[] data = new byte[30];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i + 1);
+        }
+        final SwappedDataInputStream in = new SwappedDataInputStream( new ByteArrayInputStream( data ), 8 );
+        assertEquals( 0x01, in.readByte() );
+        assertEquals( 0x0908070605040302L, in.readLong() );
+        assertEquals( 0x0d0c0b0a, in.readInt() );
+        assertEquals( 0x0f0e, in.readUnsignedShort() );
+        final byte[] bytes = new byte[10];
+        in.readFully( bytes );
+        assertEquals( 0x10, bytes[0] );
+        assertEquals( 0x19, bytes[9] );
+        assertEquals( 2, in.skipBytes( 2 ) );
+        assertEquals( 3, in.available() );
+        try {
+            in.readInt();
+            fail( "Expected EOFException" );
+        } catch (final EOFException e) {
+            // expected
+        }
+        in.close();
+    }
+
+    public void testReadFullyArrays() throws IOException {
+        final int[] ints = new int[3];
+        this.sdis.readFully( ints, 1, 2 );
+        assertEquals( 0, ints[0] );
+        assertEquals( 0x04030201, ints[1] );
+        assertEquals( 0x08070605, ints[2] );
+
+        final SwappedDataInputStream in = new SwappedDataInputStream( new ByteArrayInputStream( bytes ) );
+        final long[] longs = new long[2];
+        try {
+            in.readFully( longs, 0, 2 );
+            fail( "Expected EOFException" );
+        } catch (final EOFException e) {
+            assertEquals( 0x0807060504030201L, longs[0] );
+        }
+        in.close();
+    }
+
+    public void testMarkReset() throws IOException {
+        assertTrue( this.sdis.markSupported() );
+        try {
+            this.sdis.reset();
+            fail( "Expected IOException" );
+        } catch (final IOException e) {
+            // expected
+        }
+        assertEquals( 0x01, this.sdis.readByte() );
+        this.sdis.mark( 4 );
+        assertEquals( 0x05040302, this.sdis.readInt() );
+        this.sdis.reset();
+        assertEquals( 0x0302, this.sdis.readShort() );
+        this.sdis.reset();
+        final byte[] rest = new byte[7];
+        this.sdis.readFully( rest );
+        assertEquals( 0x02, rest[0] );
+        assertEquals( 0x08, rest[6] );
+    }
+
+    public void testMarkAcrossBuffers() throws IOException {
+        final byte[] data = new byte[40];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i + 1);
+        }
+        SwappedDataInputStream in = new SwappedDataInputStream( new ByteArrayInputStream( data ), 8 );
+        assertEquals( 0x01, in.readByte() );
+        in.mark( 20 );
+        final byte[] bytes = new byte[10];
+        in.readFully( bytes );
+        assertEquals( 0x02, bytes[0] );
+        assertEquals( 0x0b, bytes[9] );
+        assertEquals( 0x0f0e0d0c, in.readInt() );
+        assertEquals( 2, in.skip( 2 ) );
+        in.reset();
+        assertEquals( 0x0908070605040302L, in.readLong() );
+        in.reset();
+        assertEquals( 0x02, in.read() );
+        in.close();
+
+        // reading past the limit drops the mark
+        in = new SwappedDataInputStream( new ByteArrayInputStream( data ), 8 );
+        in.mark( 4 );
+        in.readFully( new byte[12] );
+        try {
+            in.reset();
+            fail( "Expected IOException" );
+        } catch (final IOException e) {
+            // expected
+        }
+        assertEquals( 0x0d, in.read() );
+        in.close();
+    }
+
 }
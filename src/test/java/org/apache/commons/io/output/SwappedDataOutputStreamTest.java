@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.io.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.io.EndianUtils;
+import org.apache.commons.io.input.SwappedDataInputStream;
+
+/**
+ * Test for the SwappedDataOutputStream.
+ *
+ * @version $Id$
+ */
+public class SwappedDataOutputStreamTest extends TestCase {
+
+    public SwappedDataOutputStreamTest(final String name) {
+        super(name);
+    }
+
+    public void testScalars() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(baos, 8);
+        sdos.writeBoolean(true);
+        sdos.writeByte(0x102);
+        sdos.writeShort(0x0102);
+        sdos.writeChar(0x0304);
+        sdos.writeInt(0x01020304);
+        sdos.writeLong(0x0102030405060708L);
+        sdos.writeFloat(1.5f);
+        sdos.writeDouble(-2.25);
+        sdos.writeBytes("ab");
+        sdos.writeChars("c");
+        sdos.write(new byte[] {9, 10});
+        sdos.flush();
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(1);
+        expected.write(2);
+        EndianUtils.writeSwappedShort(expected, (short) 0x0102);
+        EndianUtils.writeSwappedShort(expected, (short) 0x0304);
+        EndianUtils.writeSwappedInteger(expected, 0x01020304);
+        EndianUtils.writeSwappedLong(expected, 0x0102030405060708L);
+        EndianUtils.writeSwappedFloat(expected, 1.5f);
+        EndianUtils.writeSwappedDouble(expected, -2.25);
+        expected.write('a');
+        expected.write('b');
+        EndianUtils.writeSwappedShort(expected, (short) 'c');
+        expected.write(9);
+        expected.write(10);
+        assertTrue(Arrays.equals(expected.toByteArray(), baos.toByteArray()));
+        sdos.close();
+    }
+
+    public void testBuffering() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(baos, 16);
+        sdos.writeInt(1);
+        assertEquals(0, baos.size());
+        sdos.write(new byte[20]);
+        assertEquals(24, baos.size());
+        sdos.writeLong(2);
+        sdos.close();
+        assertEquals(32, baos.size());
+    }
+
+    public void testArraysRoundTrip() throws IOException {
+        final Random random = new Random(5);
+        final int count = 1000;
+        final short[] shorts = new short[count];
+        final int[] ints = new int[count];
+        final long[] longs = new long[count];
+        final float[] floats = new float[count];
+        final double[] doubles = new double[count];
+        for (int i = 0; i < count; i++) {
+            shorts[i] = (short) random.nextInt();
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            floats[i] = random.nextFloat();
+            doubles[i] = random.nextDouble();
+        }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(baos, 100);
+        sdos.writeByte(7); // misaligns the arrays in the buffer
+        sdos.write(shorts, 0, count);
+        sdos.write(ints, 0, count);
+        sdos.write(longs, 0, count);
+        sdos.write(floats, 0, count);
+        sdos.write(doubles, 0, count);
+        sdos.close();
+
+        final ByteBuffer expected = ByteBuffer.allocate(1 + count * 26).order(ByteOrder.LITTLE_ENDIAN);
+        expected.put((byte) 7);
+        for (int i = 0; i < count; i++) {
+            expected.putShort(shorts[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            expected.putInt(ints[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            expected.putLong(longs[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            expected.putFloat(floats[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            expected.putDouble(doubles[i]);
+        }
+        assertTrue(Arrays.equals(expected.array(), baos.toByteArray()));
+
+        final SwappedDataInputStream sdis = new SwappedDataInputStream(
+                new ByteArrayInputStream(baos.toByteArray()), 100);
+        assertEquals(7, sdis.readByte());
+        final short[] shorts2 = new short[count];
+        sdis.readFully(shorts2, 0, count);
+        assertTrue(Arrays.equals(shorts, shorts2));
+        final int[] ints2 = new int[count];
+        sdis.readFully(ints2, 0, count);
+        assertTrue(Arrays.equals(ints, ints2));
+        final long[] longs2 = new long[count];
+        sdis.readFully(longs2, 0, count);
+        assertTrue(Arrays.equals(longs, longs2));
+        final float[] floats2 = new float[count];
+        sdis.readFully(floats2, 0, count);
+        assertTrue(Arrays.equals(floats, floats2));
+        final double[] doubles2 = new double[count + 1];
+        sdis.readFully(doubles2, 1, count);
+        assertTrue(Arrays.equals(doubles, Arrays.copyOfRange(doubles2, 1, count + 1)));
+        assertEquals(-1, sdis.read());
+        sdis.close();
+    }
+
+    public void testArrayBounds() throws IOException {
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(new ByteArrayOutputStream());
+        try {
+            sdos.write(new int[2], 1, 2);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+        sdos.close();
+    }
+
+    public void testWriteUTF() throws IOException {
+        final String text = "a\u0000\u00e9\u20ac\ud83d\ude00 text crossing the buffer";
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(baos, 8);
+        sdos.writeUTF(text);
+        sdos.writeUTF("");
+        sdos.close();
+
+        // the modified UTF-8 of DataOutputStream with a little endian length
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(expected);
+        dos.writeUTF(text);
+        dos.writeUTF("");
+        final byte[] bytes = expected.toByteArray();
+        swap(bytes, 0);
+        swap(bytes, bytes.length - 2);
+        assertTrue(Arrays.equals(bytes, baos.toByteArray()));
+
+        final SwappedDataInputStream in = new SwappedDataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        assertEquals(text, in.readUTF());
+        assertEquals("", in.readUTF());
+        in.close();
+    }
+
+    public void testWriteUTFTooLong() throws IOException {
+        final SwappedDataOutputStream sdos = new SwappedDataOutputStream(new ByteArrayOutputStream());
+        try {
+            sdos.writeUTF(new String(new char[0x8000]));
+            fail("Expected UTFDataFormatException");
+        } catch (final UTFDataFormatException e) {
+            // expected
+        }
+        sdos.close();
+    }
+
+    private static void swap(final byte[] bytes, final int index) {
+        final byte b = bytes[index];
+        bytes[index] = bytes[index + 1];
+        bytes[index + 1] = b;
+    }
+
+    public void testBufferSize() {
+        try {
+            new SwappedDataOutputStream(new ByteArrayOutputStream(), 7);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}